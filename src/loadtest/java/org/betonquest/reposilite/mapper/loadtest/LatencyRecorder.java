@@ -0,0 +1,101 @@
+package org.betonquest.reposilite.mapper.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Records the latencies and failures of a single operation. Not thread-safe, each client uses its own recorders
+ * which are merged after the run.
+ */
+public class LatencyRecorder {
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * The recorded latencies in nanoseconds, filled up to {@link #count}.
+     */
+    private long[] latencies;
+
+    /**
+     * The number of recorded latencies.
+     */
+    private int count;
+
+    /**
+     * The number of failed requests.
+     */
+    private long failures;
+
+    /**
+     * Constructor for the LatencyRecorder.
+     */
+    public LatencyRecorder() {
+        this.latencies = new long[1024];
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param nanos   the latency of the request in nanoseconds
+     * @param success whether the request succeeded
+     */
+    public void record(final long nanos, final boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!success) {
+            failures++;
+        }
+    }
+
+    /**
+     * Adds all requests recorded by another recorder.
+     *
+     * @param other the recorder to add
+     */
+    public void merge(final LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        failures += other.failures;
+    }
+
+    /**
+     * Returns the number of recorded requests.
+     *
+     * @return the number of requests
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Formats the throughput, failures and latency percentiles as a human-readable line.
+     *
+     * @param name    the name of the operation
+     * @param seconds the duration of the measurement in seconds
+     * @return the formatted line
+     */
+    public String format(final String name, final double seconds) {
+        final long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "%-8s %9d req %9.1f req/s %7d failed   p50 %8.2f ms   p99 %8.2f ms   p999 %8.2f ms   max %8.2f ms",
+                name, count, count / seconds, failures,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / NANOS_PER_MILLI);
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))] / NANOS_PER_MILLI;
+    }
+}
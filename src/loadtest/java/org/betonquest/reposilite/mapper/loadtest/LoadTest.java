@@ -0,0 +1,227 @@
+package org.betonquest.reposilite.mapper.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reproducible load test of the pommapper REST API.
+ * <p>
+ * Deploys synthetic artifacts with many versions to a running Reposilite instance with the plugin installed,
+ * waits until the plugin cached them and then drives a weighted mix of requests from concurrent clients,
+ * including deploys of new versions while the artifacts are read. Reports throughput and latency percentiles per
+ * operation. The same random seed produces the same request sequence per client.
+ * <p>
+ * Run with {@code ./mvnw -P loadtest test-compile exec:java -Dexec.args="--url=http://localhost:8080 --token=name:secret"}.
+ * All options are documented in {@link LoadTestConfig}.
+ */
+@SuppressWarnings("PMD.SystemPrintln")
+public final class LoadTest {
+
+    /**
+     * The maximum time to wait for the plugin to cache the seeded artifacts.
+     */
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * The options of the run.
+     */
+    private final LoadTestConfig config;
+
+    /**
+     * The http client shared by all clients.
+     */
+    private final HttpClient client;
+
+    /**
+     * The counter of versions deployed during the run.
+     */
+    private final AtomicInteger deployedVersions;
+
+    private LoadTest(final LoadTestConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.deployedVersions = new AtomicInteger();
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the {@code --key=value} options
+     * @throws Exception if the load test could not be run
+     */
+    public static void main(final String[] args) throws Exception {
+        final LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("The plugin settings require the artifact: " + config.patternSettings());
+        new LoadTest(config).run();
+    }
+
+    private void run() throws Exception {
+        final ExecutorService clients = Executors.newFixedThreadPool(config.concurrency());
+        try {
+            if (config.seed()) {
+                seed(clients);
+            }
+            awaitReady();
+            final long start = System.nanoTime();
+            final long measureStart = start + config.warmup().toNanos();
+            final long end = measureStart + config.duration().toNanos();
+            final List<Future<Map<Operation, LatencyRecorder>>> results = new ArrayList<>();
+            for (int worker = 0; worker < config.concurrency(); worker++) {
+                final SplittableRandom random = new SplittableRandom(config.randomSeed() + worker);
+                results.add(clients.submit(() -> drive(random, measureStart, end)));
+            }
+            final Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            for (final Future<Map<Operation, LatencyRecorder>> result : results) {
+                result.get().forEach((operation, recorder) -> merged.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+            }
+            report(merged);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void seed(final ExecutorService clients) throws Exception {
+        System.out.println("Deploying " + config.artifacts() + " artifacts with " + config.versions() + " versions each...");
+        final long start = System.nanoTime();
+        final List<Future<?>> deploys = new ArrayList<>();
+        for (int artifact = 0; artifact < config.artifacts(); artifact++) {
+            final int index = artifact;
+            deploys.add(clients.submit(() -> {
+                for (int version = 0; version < config.versions(); version++) {
+                    deploy(index, "1." + version + ".0");
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> deploy : deploys) {
+            deploy.get();
+        }
+        System.out.printf(Locale.ROOT, "Deployed in %d s.%n", Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    private void awaitReady() throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        final HttpRequest request = HttpRequest.newBuilder(uri("/api/pommapper/ready")).GET().build();
+        while (true) {
+            final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200 && response.body().replace(" ", "").contains("\"ready\":true")) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The plugin did not become ready within " + READY_TIMEOUT);
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> drive(final SplittableRandom random, final long measureStart, final long end) {
+        final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        final int totalWeight = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        long now = System.nanoTime();
+        while (now < end && !Thread.currentThread().isInterrupted()) {
+            final Operation operation = pick(random, totalWeight);
+            final int artifact = random.nextInt(config.artifacts());
+            boolean success;
+            final long requestStart = System.nanoTime();
+            try {
+                success = execute(operation, artifact, random);
+            } catch (final IOException exception) {
+                success = false;
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            now = System.nanoTime();
+            if (requestStart >= measureStart) {
+                recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).record(now - requestStart, success);
+            }
+        }
+        return recorders;
+    }
+
+    private Operation pick(final SplittableRandom random, final int totalWeight) {
+        int remaining = random.nextInt(totalWeight);
+        for (final Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            remaining -= entry.getValue();
+            if (remaining < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    private boolean execute(final Operation operation, final int artifact, final SplittableRandom random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case ID -> get("/api/pommapper/id/" + encode(config.artifactConfigId(artifact)));
+            case REPOSITORY -> get("/api/pommapper/repo/" + config.repository() + "/"
+                    + LoadTestConfig.GROUP_ID.replace('.', '/') + "/" + LoadTestConfig.artifactId(artifact));
+            case FILTER -> {
+                final int from = random.nextInt(Math.max(1, config.versions()));
+                yield get("/api/pommapper/id/" + encode(config.artifactConfigId(artifact)) + "?snapshots=false&limit=5&fields=jar,api-version"
+                        + "&range=" + encode("[1." + from + ".0,)"));
+            }
+            case DEPLOY -> deploy(artifact, "2." + deployedVersions.getAndIncrement() + ".0");
+        };
+    }
+
+    private boolean get(final String path) throws IOException, InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(uri(path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+    }
+
+    private boolean deploy(final int artifact, final String version) throws IOException, InterruptedException {
+        final String artifactId = LoadTestConfig.artifactId(artifact);
+        final String path = "/" + config.repository() + "/" + LoadTestConfig.GROUP_ID.replace('.', '/') + "/" + artifactId + "/"
+                + version + "/" + artifactId + "-" + version + ".pom";
+        final String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + LoadTestConfig.GROUP_ID + "</groupId>"
+                + "<artifactId>" + artifactId + "</artifactId><version>" + version + "</version>"
+                + "<properties><api.version>1." + Math.floorMod(version.hashCode(), 20) + "</api.version></properties></project>";
+        final HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(config.token().getBytes(StandardCharsets.UTF_8)))
+                .PUT(HttpRequest.BodyPublishers.ofString(pom))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+    }
+
+    private URI uri(final String path) {
+        return config.baseUri().resolve(path);
+    }
+
+    private static String encode(final String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void report(final Map<Operation, LatencyRecorder> recorders) {
+        final double seconds = config.duration().toMillis() / 1000.0;
+        final LatencyRecorder total = new LatencyRecorder();
+        System.out.printf(Locale.ROOT, "%d clients, %d artifacts, %d versions, %d s warmup, %d s measured, seed %d%n",
+                config.concurrency(), config.artifacts(), config.versions(), config.warmup().toSeconds(),
+                config.duration().toSeconds(), config.randomSeed());
+        recorders.forEach((operation, recorder) -> {
+            System.out.println(recorder.format(operation.key(), seconds));
+            total.merge(recorder);
+        });
+        System.out.println(total.format("total", seconds));
+    }
+}
@@ -0,0 +1,109 @@
+package org.betonquest.reposilite.mapper.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The options of a {@link LoadTest} run, parsed from {@code --key=value} arguments.
+ *
+ * @param baseUri     the base uri of the Reposilite instance
+ * @param repository  the repository the synthetic artifacts are deployed to
+ * @param token       the {@code name:secret} access token used to deploy, may be empty if nothing is deployed
+ * @param patternId   the id of the configured pattern artifact matching the synthetic artifacts
+ * @param artifacts   the number of synthetic artifacts
+ * @param versions    the number of versions per synthetic artifact
+ * @param seed        whether to deploy the synthetic artifacts before the run
+ * @param concurrency the number of concurrent clients
+ * @param warmup      the duration of the warmup, not included in the report
+ * @param duration    the duration of the measurement
+ * @param randomSeed  the seed of the request mix, making runs reproducible
+ * @param mix         the weight of each operation in the request mix
+ */
+public record LoadTestConfig(URI baseUri, String repository, String token, String patternId, int artifacts, int versions,
+                             boolean seed, int concurrency, Duration warmup, Duration duration, long randomSeed,
+                             Map<Operation, Integer> mix) {
+
+    /**
+     * The groupId of all synthetic artifacts.
+     */
+    public static final String GROUP_ID = "org.betonquest.loadtest";
+
+    /**
+     * Parses the options from {@code --key=value} arguments. Missing options use their defaults.
+     *
+     * @param args the arguments
+     * @return the parsed options
+     * @throws IllegalArgumentException if an argument is malformed or unknown
+     */
+    public static LoadTestConfig parse(final String... args) {
+        final Map<String, String> options = new HashMap<>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (final Operation operation : Operation.values()) {
+            mix.put(operation, Integer.parseInt(options.getOrDefault("mix." + operation.key(), String.valueOf(operation.defaultWeight()))));
+            options.remove("mix." + operation.key());
+        }
+        final LoadTestConfig config = new LoadTestConfig(
+                URI.create(take(options, "url", "http://localhost:8080")),
+                take(options, "repository", "releases"),
+                take(options, "token", ""),
+                take(options, "pattern", "loadtest"),
+                Integer.parseInt(take(options, "artifacts", "200")),
+                Integer.parseInt(take(options, "versions", "50")),
+                Boolean.parseBoolean(take(options, "seed", "true")),
+                Integer.parseInt(take(options, "concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(take(options, "warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(take(options, "duration", "60"))),
+                Long.parseLong(take(options, "random-seed", "42")),
+                mix);
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        return config;
+    }
+
+    private static String take(final Map<String, String> options, final String key, final String defaultValue) {
+        final String value = options.remove(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Returns the artifactId of a synthetic artifact.
+     *
+     * @param artifact the index of the artifact
+     * @return the artifactId
+     */
+    public static String artifactId(final int artifact) {
+        return "artifact" + artifact;
+    }
+
+    /**
+     * Returns the artifact config id of a synthetic artifact as discovered for the pattern.
+     *
+     * @param artifact the index of the artifact
+     * @return the artifact config id
+     */
+    public String artifactConfigId(final int artifact) {
+        return patternId + ":" + artifactId(artifact);
+    }
+
+    /**
+     * Returns the plugin settings entry of the pattern artifact matching all synthetic artifacts.
+     *
+     * @return the settings entry as JSON
+     */
+    public String patternSettings() {
+        return "{ \"id\": \"" + patternId + "\", \"repository\": \"" + repository + "\", \"groupId\": \"" + GROUP_ID
+                + "\", \"artifactId\": \"artifact*\", \"versionXPath\": [ { \"id\": \"api-version\","
+                + " \"xpath\": \"/project/properties/api.version\" } ] }";
+    }
+}
@@ -0,0 +1,56 @@
+package org.betonquest.reposilite.mapper.loadtest;
+
+/**
+ * The operations of the request mix driven by the {@link LoadTest}.
+ */
+public enum Operation {
+    /**
+     * Requests all versions of an artifact by its id.
+     */
+    ID("id", 60),
+    /**
+     * Requests all versions of an artifact by its repository and gav.
+     */
+    REPOSITORY("repo", 20),
+    /**
+     * Requests the versions of an artifact by its id, filtered by releases, range, limit and fields.
+     */
+    FILTER("filter", 15),
+    /**
+     * Deploys a new version of an artifact, triggering a rebuild of its cache while it is read.
+     */
+    DEPLOY("deploy", 5);
+
+    /**
+     * The key of the operation in the options.
+     */
+    private final String key;
+
+    /**
+     * The weight of the operation if not configured.
+     */
+    private final int defaultWeight;
+
+    Operation(final String key, final int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Returns the key of the operation in the options.
+     *
+     * @return the key
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Returns the weight of the operation if not configured.
+     *
+     * @return the default weight
+     */
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+}
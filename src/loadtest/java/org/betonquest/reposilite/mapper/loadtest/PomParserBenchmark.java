@@ -0,0 +1,151 @@
+package org.betonquest.reposilite.mapper.loadtest;
+
+import org.betonquest.reposilite.mapper.integration.PomParserPool;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of the pom parser configuration, comparing the default JAXP setup to the hardened {@link PomParserPool}.
+ * <p>
+ * Parses a corpus of real poms, by default the ones in the local maven repository, and evaluates an xpath on each,
+ * like a cache rebuild does. The default setup creates a {@link DocumentBuilder} per artifact and an {@link XPath} per pom.
+ * Poms the hardened parser rejects, like poms with a DOCTYPE, are reported and excluded from both measurements.
+ * <p>
+ * Run with {@code ./mvnw -P loadtest test-compile exec:java -Dexec.mainClass=org.betonquest.reposilite.mapper.loadtest.PomParserBenchmark
+ * -Dexec.args="--corpus=/path/to/poms"}. Options are {@code --corpus}, {@code --poms}, {@code --rounds} and {@code --xpath}.
+ */
+@SuppressWarnings("PMD.SystemPrintln")
+public final class PomParserBenchmark {
+
+    /**
+     * The number of poms read by a rebuild before it creates a new {@link DocumentBuilder} in the default setup.
+     */
+    private static final int POMS_PER_ARTIFACT = 50;
+
+    /**
+     * The minimum number of parses per round, small corpora are parsed repeatedly.
+     */
+    private static final int MIN_PARSES_PER_ROUND = 20_000;
+
+    /**
+     * The number of nanoseconds in a microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private PomParserBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the {@code --key=value} options
+     * @throws Exception if the benchmark could not be run
+     */
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        final Path corpus = Path.of(options.getOrDefault("corpus", System.getProperty("user.home") + "/.m2/repository"));
+        final int maxPoms = Integer.parseInt(options.getOrDefault("poms", "5000"));
+        final int rounds = Integer.parseInt(options.getOrDefault("rounds", "10"));
+        final String expression = options.getOrDefault("xpath", "/project/version");
+
+        final PomParserPool pool = new PomParserPool();
+        final List<byte[]> poms = load(corpus, maxPoms, pool);
+        if (poms.isEmpty()) {
+            throw new IllegalArgumentException("No poms found in " + corpus);
+        }
+        final long bytes = poms.stream().mapToLong(pom -> pom.length).sum();
+        final int parses = Math.max(poms.size(), MIN_PARSES_PER_ROUND);
+        System.out.printf(Locale.ROOT, "%d poms, %.1f KiB from %s, %d rounds of %d parses%n", poms.size(), bytes / 1024.0, corpus,
+                rounds, parses);
+
+        final DocumentBuilderFactory defaultFactory = DocumentBuilderFactory.newInstance();
+        final XPathFactory defaultXPathFactory = XPathFactory.newInstance();
+        for (int round = 0; round < rounds; round++) {
+            final long defaultNanos = measure(poms, parses, index -> index % POMS_PER_ARTIFACT == 0 ? defaultFactory.newDocumentBuilder() : null,
+                    defaultXPathFactory::newXPath, expression);
+            final long hardenedNanos = measure(poms, parses, index -> pool.documentBuilder(), pool::xPath, expression);
+            System.out.printf(Locale.ROOT, "round %2d   default %8.2f us/pom   hardened %8.2f us/pom   speedup %.2fx%n", round + 1,
+                    defaultNanos / NANOS_PER_MICRO / parses, hardenedNanos / NANOS_PER_MICRO / parses,
+                    (double) defaultNanos / hardenedNanos);
+        }
+    }
+
+    private static List<byte[]> load(final Path corpus, final int maxPoms, final PomParserPool pool) throws Exception {
+        final List<Path> paths;
+        try (Stream<Path> files = Files.walk(corpus)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(".pom")).sorted().limit(maxPoms).toList();
+        }
+        final List<byte[]> poms = new ArrayList<>();
+        int rejected = 0;
+        for (final Path path : paths) {
+            final byte[] pom = Files.readAllBytes(path);
+            try {
+                pool.documentBuilder().parse(new ByteArrayInputStream(pom));
+                poms.add(pom);
+            } catch (final IOException | SAXException exception) {
+                rejected++;
+            }
+        }
+        if (rejected > 0) {
+            System.out.printf(Locale.ROOT, "%d poms rejected by the hardened parser and excluded%n", rejected);
+        }
+        return poms;
+    }
+
+    private static long measure(final List<byte[]> poms, final int parses, final BuilderSupplier builders, final Supplier<XPath> xPaths,
+                                final String expression) throws Exception {
+        final long start = System.nanoTime();
+        DocumentBuilder builder = null;
+        int blackhole = 0;
+        for (int index = 0; index < parses; index++) {
+            final DocumentBuilder next = builders.get(index);
+            builder = next == null ? builder : next;
+            final Document document = builder.parse(new ByteArrayInputStream(poms.get(index % poms.size())));
+            blackhole += xPaths.get().evaluate(expression, document).length();
+        }
+        final long nanos = System.nanoTime() - start;
+        if (blackhole < 0) {
+            System.out.println(blackhole);
+        }
+        return nanos;
+    }
+
+    /**
+     * Supplies the {@link DocumentBuilder} for a pom.
+     */
+    @FunctionalInterface
+    private interface BuilderSupplier {
+
+        /**
+         * Returns the builder for the pom at the given index.
+         *
+         * @param index the index of the pom
+         * @return the builder or null to keep the previous one
+         * @throws Exception if the builder could not be created
+         */
+        DocumentBuilder get(int index) throws Exception;
+    }
+}
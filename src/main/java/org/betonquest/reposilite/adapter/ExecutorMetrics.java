@@ -0,0 +1,12 @@
+package org.betonquest.reposilite.adapter;
+
+/**
+ * A point in time view of the load of an executor managed by {@link PluginExecutors}.
+ *
+ * @param name      the name of the executor
+ * @param active    the number of tasks currently running
+ * @param queued    the number of tasks waiting to run, including scheduled tasks
+ * @param completed the number of tasks completed since the executor was created
+ */
+public record ExecutorMetrics(String name, int active, int queued, long completed) {
+}
@@ -0,0 +1,73 @@
+package org.betonquest.reposilite.adapter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits repeated log messages to one per interval and key, counting the suppressed ones.
+ * <p>
+ * Used for warnings that may repeat for every pom of a large artifact, like a broken xpath.
+ */
+public class LogRateLimiter {
+
+    /**
+     * The minimum time between two messages of the same key in nanoseconds.
+     */
+    private final long intervalNanos;
+
+    /**
+     * The window of each key.
+     */
+    private final Map<String, Window> windows;
+
+    /**
+     * Constructor for the LogRateLimiter.
+     *
+     * @param intervalNanos the minimum time between two messages of the same key in nanoseconds
+     */
+    public LogRateLimiter(final long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+        this.windows = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Decides whether a message of the given key is logged now.
+     *
+     * @param key the key grouping similar messages
+     * @return -1 if the message is suppressed, otherwise the number of messages suppressed since the last logged one
+     */
+    public long acquire(final String key) {
+        final long now = System.nanoTime();
+        final Window window = windows.computeIfAbsent(key, ignored -> new Window(now - intervalNanos));
+        synchronized (window) {
+            if (now - window.lastLogged < intervalNanos) {
+                window.suppressed.incrementAndGet();
+                return -1;
+            }
+            window.lastLogged = now;
+            return window.suppressed.getAndSet(0);
+        }
+    }
+
+    /**
+     * The state of a single key.
+     */
+    private static final class Window {
+
+        /**
+         * The number of messages suppressed since the last logged one.
+         */
+        private final AtomicLong suppressed;
+
+        /**
+         * The time the last message was logged.
+         */
+        private long lastLogged;
+
+        private Window(final long lastLogged) {
+            this.suppressed = new AtomicLong();
+            this.lastLogged = lastLogged;
+        }
+    }
+}
@@ -13,6 +13,9 @@ import com.reposilite.web.api.RoutingSetupEvent;
 import org.jetbrains.annotations.Nullable;
 import panda.std.reactive.MutableReference;
 
+import java.time.Duration;
+import java.util.function.Supplier;
+
 /**
  * Custom API on top of reposilite's plugin api. Base class for Reposilite plugins.
  *
@@ -22,6 +25,21 @@ import panda.std.reactive.MutableReference;
 @SuppressWarnings({"PMD.EmptyMethodInAbstractClassShouldBeAbstract", "PMD.TooManyMethods"})
 public abstract class PluginAdapter<F extends Facade, T extends SharedSettings> extends ReposilitePlugin {
 
+    /**
+     * The maximum time to wait for running and queued tasks of the {@link PluginExecutors} when the plugin is disposed.
+     */
+    private static final Duration EXECUTOR_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The minimum time between two rate limited warnings of the same key.
+     */
+    private static final Duration WARN_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The placeholder replaced by the arguments of parameterized log messages.
+     */
+    private static final String PLACEHOLDER = "{}";
+
     /**
      * The defined {@link SharedSettings} class of the plugin.
      */
@@ -37,6 +55,21 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
      */
     private final String loggerPrefix;
 
+    /**
+     * The {@link PluginExecutors} of the plugin.
+     */
+    private final PluginExecutors executors;
+
+    /**
+     * The {@link LogRateLimiter} of the rate limited warnings.
+     */
+    private final LogRateLimiter warnRateLimiter;
+
+    /**
+     * Whether lazily built debug messages are logged.
+     */
+    private volatile boolean debugEnabled = true;
+
     /**
      * The {@link ConfigProvider} for the {@link SharedSettings} of the plugin.
      */
@@ -54,6 +87,8 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
         this.settingsClass = settingsClass;
         this.facadeClass = facadeClass;
         this.loggerPrefix = "[" + pluginName + "] ";
+        this.executors = new PluginExecutors(pluginName);
+        this.warnRateLimiter = new LogRateLimiter(WARN_INTERVAL.toNanos());
     }
 
     @Override
@@ -64,7 +99,7 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
         extensions().registerEvent(ReposiliteInitializeEvent.class, this::onInitialize);
         extensions().registerEvent(ReposilitePostInitializeEvent.class, this::onEnable);
         extensions().registerEvent(ReposiliteStartedEvent.class, this::onStart);
-        extensions().registerEvent(ReposiliteDisposeEvent.class, this::onDispose);
+        extensions().registerEvent(ReposiliteDisposeEvent.class, this::dispose);
         extensions().registerEvent(RoutingSetupEvent.class, this::onRoutingSetup);
         extensions().registerEvent(DeployEvent.class, this::onDeploy);
 
@@ -113,6 +148,7 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
 
     /**
      * Called when the plugin is disposed of.
+     * The {@link PluginExecutors} are shut down afterward.
      *
      * @param event the {@link ReposiliteDisposeEvent} called for this plugin
      */
@@ -120,6 +156,20 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
         // Empty
     }
 
+    private void dispose(final ReposiliteDisposeEvent event) {
+        try {
+            onDispose(event);
+        } finally {
+            try {
+                if (!executors.shutdown(EXECUTOR_DRAIN_TIMEOUT)) {
+                    warn("Executors did not finish their tasks within " + EXECUTOR_DRAIN_TIMEOUT.toSeconds() + " seconds, interrupted them.");
+                }
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Called when a file is deployed.
      *
@@ -170,6 +220,15 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
         return configProvider.get();
     }
 
+    /**
+     * Access to the {@link PluginExecutors} of the plugin, to run work off the event and request threads of Reposilite.
+     *
+     * @return the {@link PluginExecutors} of the plugin
+     */
+    public PluginExecutors getExecutors() {
+        return executors;
+    }
+
     /**
      * Access to any {@link Facade} via {@link ReposilitePlugin#extensions()}.
      *
@@ -201,15 +260,133 @@ public abstract class PluginAdapter<F extends Facade, T extends SharedSettings>
     }
 
     /**
-     * Logs a warning message with the plugin prefix.
+     * Logs a warning message with the plugin prefix, at most once per minute for the same key.
+     * The message is only built if it is logged, and reports how many warnings were suppressed since the last one.
      *
-     * @param message the warning to log
+     * @param key     the key grouping similar warnings, like the source and kind of the problem
+     * @param message supplies the warning to log
+     * @see #getLoggerPrefix()
+     */
+    public void warnRateLimited(final String key, final Supplier<String> message) {
+        final long suppressed = warnRateLimiter.acquire(key);
+        if (suppressed < 0) {
+            return;
+        }
+        warn(suppressed == 0 ? message.get() : message.get() + " (" + suppressed + " similar warnings suppressed)");
+    }
+
+    /**
+     * Whether lazily built debug messages are logged. Checked by the debug methods taking a supplier or placeholder
+     * arguments before building the message, {@link #debug(String)} always logs. Enabled by default.
+     *
+     * @return true if lazily built debug messages are logged
+     */
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    /**
+     * Sets whether lazily built debug messages are logged.
+     * Reposilite filters debug messages by its own log level afterward.
+     *
+     * @param debugEnabled true to log lazily built debug messages
+     */
+    public void setDebugEnabled(final boolean debugEnabled) {
+        this.debugEnabled = debugEnabled;
+    }
+
+    /**
+     * Logs a debug message with the plugin prefix.
+     *
+     * @param message the message to log
      * @see #getLoggerPrefix()
      */
     public void debug(final String message) {
         extensions().getLogger().debug(getLoggerPrefix() + message);
     }
 
+    /**
+     * Logs a debug message with the plugin prefix if debug messages are enabled.
+     * The message is only built if it is logged.
+     *
+     * @param message supplies the message to log
+     * @see #getLoggerPrefix()
+     * @see #isDebugEnabled()
+     */
+    public void debug(final Supplier<String> message) {
+        if (debugEnabled) {
+            extensions().getLogger().debug(getLoggerPrefix() + message.get());
+        }
+    }
+
+    /**
+     * Logs a debug message with the plugin prefix if debug messages are enabled.
+     * The first {@value #PLACEHOLDER} in the pattern is replaced by the argument, only if the message is logged.
+     *
+     * @param pattern  the message to log with a placeholder
+     * @param argument the argument of the placeholder
+     * @see #getLoggerPrefix()
+     * @see #isDebugEnabled()
+     */
+    public void debug(final String pattern, final Object argument) {
+        if (debugEnabled) {
+            extensions().getLogger().debug(getLoggerPrefix() + format(pattern, argument));
+        }
+    }
+
+    /**
+     * Logs a debug message with the plugin prefix if debug messages are enabled.
+     * The first two {@value #PLACEHOLDER} in the pattern are replaced by the arguments, only if the message is logged.
+     *
+     * @param pattern the message to log with placeholders
+     * @param first   the argument of the first placeholder
+     * @param second  the argument of the second placeholder
+     * @see #getLoggerPrefix()
+     * @see #isDebugEnabled()
+     */
+    public void debug(final String pattern, final Object first, final Object second) {
+        if (debugEnabled) {
+            extensions().getLogger().debug(getLoggerPrefix() + format(pattern, first, second));
+        }
+    }
+
+    /**
+     * Logs a debug message with the plugin prefix if debug messages are enabled.
+     * Each {@value #PLACEHOLDER} in the pattern is replaced by the next argument, only if the message is logged.
+     *
+     * @param pattern   the message to log with placeholders
+     * @param arguments the arguments of the placeholders
+     * @see #getLoggerPrefix()
+     * @see #isDebugEnabled()
+     */
+    public void debug(final String pattern, final Object... arguments) {
+        if (debugEnabled) {
+            extensions().getLogger().debug(getLoggerPrefix() + format(pattern, arguments));
+        }
+    }
+
+    /**
+     * Replaces each {@value #PLACEHOLDER} in the pattern by the next argument.
+     * Surplus placeholders are kept, surplus arguments are ignored.
+     *
+     * @param pattern   the pattern with placeholders
+     * @param arguments the arguments of the placeholders
+     * @return the formatted message
+     */
+    public static String format(final String pattern, final Object... arguments) {
+        final StringBuilder builder = new StringBuilder(pattern.length() + 16 * arguments.length);
+        int start = 0;
+        for (final Object argument : arguments) {
+            final int placeholder = pattern.indexOf(PLACEHOLDER, start);
+            if (placeholder < 0) {
+                break;
+            }
+            builder.append(pattern, start, placeholder).append(argument);
+            start = placeholder + PLACEHOLDER.length();
+        }
+        return builder.append(pattern, start, pattern.length()).toString();
+    }
+
     /**
      * Logs an info message with the plugin prefix.
      *
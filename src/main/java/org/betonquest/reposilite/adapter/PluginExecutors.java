@@ -0,0 +1,304 @@
+package org.betonquest.reposilite.adapter;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plugin scoped executors, so work does not run on the event and request threads of Reposilite.
+ * <p>
+ * The executors are created on first use and shut down together by {@link PluginAdapter} after
+ * {@link PluginAdapter#onDispose}, draining running and queued tasks for a bounded time before interrupting them.
+ * All threads are daemon threads named after the plugin.
+ */
+public class PluginExecutors {
+
+    /**
+     * The name of the virtual thread executor.
+     */
+    public static final String VIRTUAL = "virtual";
+
+    /**
+     * The name of the cpu bound executor.
+     */
+    public static final String CPU = "cpu";
+
+    /**
+     * The name of the scheduler.
+     */
+    public static final String SCHEDULER = "scheduler";
+
+    /**
+     * The prefix of all thread names.
+     */
+    private final String threadPrefix;
+
+    /**
+     * All created executors, in order of creation.
+     */
+    private final List<ManagedExecutor> executors;
+
+    /**
+     * The executor running each task on its own virtual thread.
+     */
+    @Nullable
+    private ManagedExecutor virtualExecutor;
+
+    /**
+     * The executor running cpu bound tasks on one thread per processor.
+     */
+    @Nullable
+    private ManagedExecutor cpuExecutor;
+
+    /**
+     * The scheduler running delayed and periodic tasks.
+     */
+    @Nullable
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Whether the executors were shut down.
+     */
+    private boolean shutdown;
+
+    /**
+     * Constructor for the PluginExecutors.
+     *
+     * @param pluginName the name of the plugin, used as prefix of the thread names
+     */
+    public PluginExecutors(final String pluginName) {
+        this.threadPrefix = pluginName + "-";
+        this.executors = new ArrayList<>();
+    }
+
+    /**
+     * Returns the executor running each task on its own virtual thread, for tasks blocking on I/O.
+     * Falls back to a cached thread pool on runtimes without virtual threads.
+     *
+     * @return the virtual thread executor
+     * @throws IllegalStateException if the executors were shut down
+     */
+    public synchronized ExecutorService getVirtualExecutor() {
+        if (virtualExecutor == null) {
+            virtualExecutor = register(new ManagedExecutor(VIRTUAL, newVirtualThreadExecutor(daemonThreads(VIRTUAL))));
+        }
+        return virtualExecutor;
+    }
+
+    /**
+     * Returns the executor running cpu bound tasks, limited to one thread per available processor.
+     *
+     * @return the cpu bound executor
+     * @throws IllegalStateException if the executors were shut down
+     */
+    public synchronized ExecutorService getCpuExecutor() {
+        if (cpuExecutor == null) {
+            final int threads = Runtime.getRuntime().availableProcessors();
+            cpuExecutor = register(new ManagedExecutor(CPU, Executors.newFixedThreadPool(threads, daemonThreads(CPU))));
+        }
+        return cpuExecutor;
+    }
+
+    /**
+     * Returns the scheduler running delayed and periodic tasks on a single thread.
+     * Tasks must be short and hand longer work to another executor.
+     *
+     * @return the scheduler
+     * @throws IllegalStateException if the executors were shut down
+     */
+    public synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            requireRunning();
+            scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads(SCHEDULER));
+            scheduler.setRemoveOnCancelPolicy(true);
+            scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Creates a new executor running its tasks one at a time in submission order.
+     * It is shut down together with all other executors.
+     *
+     * @param name the name of the executor, unique within the plugin
+     * @return the new serial executor
+     * @throws IllegalStateException if the executors were shut down
+     */
+    public synchronized ExecutorService newSerialExecutor(final String name) {
+        return register(new ManagedExecutor(name, Executors.newSingleThreadExecutor(daemonThreads(name))));
+    }
+
+    /**
+     * Returns the current load of all created executors.
+     *
+     * @return the metrics of each executor, in order of creation
+     */
+    public synchronized List<ExecutorMetrics> getMetrics() {
+        final List<ExecutorMetrics> metrics = new ArrayList<>();
+        executors.forEach(executor -> metrics.add(executor.metrics()));
+        if (scheduler != null) {
+            metrics.add(new ExecutorMetrics(SCHEDULER, scheduler.getActiveCount(), scheduler.getQueue().size(),
+                    scheduler.getCompletedTaskCount()));
+        }
+        return metrics;
+    }
+
+    /**
+     * Shuts down all executors. Running and queued tasks may finish within the timeout,
+     * afterward remaining tasks are interrupted and dropped. Periodic tasks are cancelled right away.
+     *
+     * @param timeout the maximum time to wait for all tasks to finish
+     * @return true if all tasks finished within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(final Duration timeout) throws InterruptedException {
+        final List<ExecutorService> all;
+        synchronized (this) {
+            shutdown = true;
+            all = new ArrayList<>(executors);
+            if (scheduler != null) {
+                all.add(scheduler);
+            }
+        }
+        all.forEach(ExecutorService::shutdown);
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        boolean drained = true;
+        for (final ExecutorService executor : all) {
+            drained &= executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        if (!drained) {
+            all.forEach(ExecutorService::shutdownNow);
+        }
+        return drained;
+    }
+
+    private ManagedExecutor register(final ManagedExecutor executor) {
+        requireRunning();
+        executors.add(executor);
+        return executor;
+    }
+
+    private void requireRunning() {
+        if (shutdown) {
+            throw new IllegalStateException("The executors of the plugin are shut down");
+        }
+    }
+
+    private ThreadFactory daemonThreads(final String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, threadPrefix + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ExecutorService newVirtualThreadExecutor(final ThreadFactory fallback) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException exception) {
+            return Executors.newCachedThreadPool(fallback);
+        }
+    }
+
+    /**
+     * An executor counting its queued, active and completed tasks.
+     */
+    private static final class ManagedExecutor extends AbstractExecutorService {
+
+        /**
+         * The name of the executor.
+         */
+        private final String name;
+
+        /**
+         * The executor running the tasks.
+         */
+        private final ExecutorService delegate;
+
+        /**
+         * The number of tasks waiting to run.
+         */
+        private final AtomicInteger queued;
+
+        /**
+         * The number of tasks currently running.
+         */
+        private final AtomicInteger active;
+
+        /**
+         * The number of completed tasks.
+         */
+        private final AtomicLong completed;
+
+        private ManagedExecutor(final String name, final ExecutorService delegate) {
+            super();
+            this.name = name;
+            this.delegate = delegate;
+            this.queued = new AtomicInteger();
+            this.active = new AtomicInteger();
+            this.completed = new AtomicLong();
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            queued.incrementAndGet();
+            try {
+                delegate.execute(() -> {
+                    queued.decrementAndGet();
+                    active.incrementAndGet();
+                    try {
+                        command.run();
+                    } finally {
+                        active.decrementAndGet();
+                        completed.incrementAndGet();
+                    }
+                });
+            } catch (final RejectedExecutionException exception) {
+                queued.decrementAndGet();
+                throw exception;
+            }
+        }
+
+        private ExecutorMetrics metrics() {
+            return new ExecutorMetrics(name, active.get(), queued.get(), completed.get());
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
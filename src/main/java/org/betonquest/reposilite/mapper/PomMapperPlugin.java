@@ -5,25 +5,55 @@ import com.reposilite.maven.MavenFacade;
 import com.reposilite.maven.api.DeployEvent;
 import com.reposilite.plugin.api.Facade;
 import com.reposilite.plugin.api.Plugin;
+import com.reposilite.plugin.api.ReposiliteDisposeEvent;
 import com.reposilite.plugin.api.ReposiliteInitializeEvent;
 import com.reposilite.plugin.api.ReposilitePostInitializeEvent;
 import com.reposilite.plugin.api.ReposiliteStartedEvent;
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.Location;
 import com.reposilite.web.api.ReposiliteRoute;
 import com.reposilite.web.api.RoutingSetupEvent;
 import org.betonquest.reposilite.adapter.PluginAdapter;
 import org.betonquest.reposilite.adapter.validation.ValidationLogLevel;
 import org.betonquest.reposilite.adapter.validation.ValidationResult;
+import org.betonquest.reposilite.mapper.command.CacheStatsCommand;
 import org.betonquest.reposilite.mapper.command.UpdateCacheCommand;
+import org.betonquest.reposilite.mapper.command.UpdateCacheRequest;
+import org.betonquest.reposilite.mapper.integration.ArtifactDiscovery;
 import org.betonquest.reposilite.mapper.integration.ArtifactsVersionsCache;
+import org.betonquest.reposilite.mapper.integration.CacheCoherence;
+import org.betonquest.reposilite.mapper.integration.CacheReconciler;
+import org.betonquest.reposilite.mapper.integration.CacheSnapshotStore;
+import org.betonquest.reposilite.mapper.integration.MappedVersionStore;
 import org.betonquest.reposilite.mapper.integration.PomMapperFacade;
+import org.betonquest.reposilite.mapper.integration.RebuildMetrics;
+import org.betonquest.reposilite.mapper.integration.RebuildReport;
 import org.betonquest.reposilite.mapper.restful.RestfulRoutes;
 import org.betonquest.reposilite.mapper.settings.Artifact;
 import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+import org.betonquest.reposilite.mapper.settings.SettingsDiff;
+import org.betonquest.reposilite.mapper.settings.VersionStoreType;
 import org.jetbrains.annotations.Nullable;
 import panda.std.reactive.MutableReference;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The PomMapper main class for Reposilite.
@@ -46,6 +76,33 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
      */
     private RestfulRoutes restfulImplementation;
 
+    /**
+     * The memoized validation results of the last validated settings instance.
+     */
+    private final AtomicReference<Map.Entry<PomMapperPluginSettings, List<ValidationResult>>> validation = new AtomicReference<>();
+
+    /**
+     * The settings the cache currently reflects.
+     */
+    private final AtomicReference<PomMapperPluginSettings> appliedSettings = new AtomicReference<>();
+
+    /**
+     * The executor running cache rebuilds and deploy updates in the background, one at a time.
+     */
+    private ExecutorService rebuildExecutor;
+
+    /**
+     * The deployed files of each version directory waiting for their update, so the files of one deploy
+     * are applied in a single update. Only modified inside compute calls.
+     */
+    private final Map<String, Set<Location>> pendingDeploys = new ConcurrentHashMap<>();
+
+    /**
+     * The cache coherence between nodes or null if disabled.
+     */
+    @Nullable
+    private CacheCoherence coherence;
+
     /**
      * Default Constructor for the PomMapperPlugin.
      */
@@ -59,7 +116,10 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
     @Nullable
     public Facade onLoad() {
         extensions().registerEvent(ReposiliteInitializeEvent.class, this.baseFacade);
-        extensions().facade(ConsoleFacade.class).registerCommand(new UpdateCacheCommand(this::updateCache));
+        final ConsoleFacade consoleFacade = extensions().facade(ConsoleFacade.class);
+        consoleFacade.registerCommand(new UpdateCacheCommand(this::updateCache,
+                command -> rebuildExecutor.execute(command), this::info));
+        consoleFacade.registerCommand(new CacheStatsCommand(() -> restfulImplementation.getStatistics()));
         return baseFacade;
     }
 
@@ -68,39 +128,106 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
         info("Initializing...");
 
         this.restfulImplementation = new RestfulRoutes(getFacade(MavenFacade.class), baseFacade);
+        artifactsVersionsCache.addListener(restfulImplementation.getEventBroadcaster());
 
         final MutableReference<PomMapperPluginSettings> config = getConfig();
         final PomMapperPluginSettings settings = config.get();
-        config.subscribe(sets -> ValidationResult.printBlock(sets.validate(baseFacade), this::warn, this::info, ValidationLogLevel.ERRORS_ONLY));
+        setDebugEnabled(settings.isDebug());
+        config.subscribe(changed -> setDebugEnabled(changed.isDebug()));
 
         final List<String> artifacts = settings.getArtifacts().stream().map(Artifact::id).toList();
         info("Loaded " + artifacts.size() + " artifacts.");
-        debug("  > " + String.join(", ", artifacts));
+        debug(() -> "  > " + String.join(", ", artifacts));
     }
 
     @Override
     public void onEnable(final ReposilitePostInitializeEvent event) {
-        info("Attempting to generate cache...");
-        updateCache();
-        info("Cache generation complete.");
+        rebuildExecutor = getExecutors().newSerialExecutor("Rebuild");
+        enableCoherence();
+        final List<Artifact> artifacts = baseFacade.getArtifacts();
+        artifactsVersionsCache.prepare(artifacts);
+        if (getConfig().get().getVersionStore() == VersionStoreType.MAPPED) {
+            final Path directory = Path.of(getConfig().get().getVersionStoreDirectory());
+            artifactsVersionsCache.setVersionStore(new MappedVersionStore(this, directory));
+            info("Restored versions of " + artifactsVersionsCache.restore(artifacts) + " artifacts from \"" + directory + "\".");
+        }
+        info("Attempting to generate cache in the background...");
+        rebuildExecutor.execute(() -> {
+            updateCache();
+            info("Cache generation complete.");
+        });
+        new CacheReconciler(this, artifactsVersionsCache, getExecutors().getScheduler(), rebuildExecutor).start();
     }
 
     @Override
     public void onStart(final ReposiliteStartedEvent event) {
-        final List<ValidationResult> validate = getConfig().get().validate(baseFacade);
-        ValidationResult.printBlock(validate, this::warn, this::info, ValidationLogLevel.ALL);
-        getConfig().subscribe(settings -> updateCache());
+        final PomMapperPluginSettings settings = getConfig().get();
+        appliedSettings.set(settings);
+        ValidationResult.printBlock(validate(settings), this::warn, this::info, ValidationLogLevel.ALL);
+        getConfig().subscribe(changed -> rebuildExecutor.execute(() -> applySettings(changed)));
+    }
+
+    @Override
+    public void onDispose(final ReposiliteDisposeEvent event) {
+        if (coherence != null) {
+            artifactsVersionsCache.removeListener(coherence);
+            coherence.close();
+        }
+        if (restfulImplementation != null) {
+            artifactsVersionsCache.removeListener(restfulImplementation.getEventBroadcaster());
+            restfulImplementation.getEventBroadcaster().shutdown();
+        }
     }
 
     @Override
     public void onDeploy(final DeployEvent event) {
-        final Artifact artifact = baseFacade.findArtifact(event.getRepository().getName(), event.getGav());
+        final Location gav = event.getGav();
+        final String path = gav.toString();
+        if (!path.endsWith(".pom") && !path.endsWith(".jar") && !path.endsWith(".jar.sha1") && !path.endsWith(".jar.sha256")) {
+            return;
+        }
+        final String repository = event.getRepository().getName();
+        final String key = repository + ":" + gav.getParent();
+        final AtomicBoolean first = new AtomicBoolean();
+        pendingDeploys.compute(key, (ignored, files) -> {
+            final Set<Location> pending = files == null ? new LinkedHashSet<>() : files;
+            first.set(files == null);
+            pending.add(gav);
+            return pending;
+        });
+        if (first.get()) {
+            rebuildExecutor.execute(() -> updateDeployed(repository, pendingDeploys.remove(key)));
+        }
+    }
+
+    private void updateDeployed(final String repository, final Set<Location> files) {
+        final Set<String> affected = new HashSet<>();
+        for (final Location file : files) {
+            affected.addAll(baseFacade.invalidateParent(repository, file));
+        }
+        final Location gav = files.iterator().next();
+        if (!affected.isEmpty()) {
+            final Artifact owner = baseFacade.findArtifactOfFile(repository, gav);
+            if (owner != null && artifactsVersionsCache.hasEntry(owner.id())) {
+                affected.add(owner.id());
+            }
+            debug("Parent pom {} changed, rebuilding artifacts: {}", files, affected);
+            cacheArtifacts(baseFacade.getArtifacts().stream().filter(artifact -> affected.contains(artifact.id())).toList());
+            return;
+        }
+        final Artifact discovered = baseFacade.discoverDeployed(repository, gav);
+        if (discovered != null) {
+            debug("Discovered new artifact with id: {}", discovered.id());
+            artifactsVersionsCache.attemptToCache(discovered);
+            return;
+        }
+        final Artifact artifact = baseFacade.findArtifactOfFile(repository, gav);
         if (artifact == null) {
             return;
         }
-        if (artifactsVersionsCache.hasEntry(artifact.artifactId())) {
-            debug("Updating cache for artifact with id: " + artifact.artifactId());
-            updateCache();
+        if (artifactsVersionsCache.hasEntry(artifact.id())) {
+            debug("Updating cache for artifact with id: {}", artifact.id());
+            artifactsVersionsCache.attemptToCache(artifact);
         }
     }
 
@@ -110,17 +237,132 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
         info("Mapper routes registered: " + this.restfulImplementation.getRoutes().stream().map(ReposiliteRoute::getPath).collect(Collectors.joining(", ")));
     }
 
-    private void updateCache() {
-        final List<ValidationResult> validate = getConfig().get().validate(baseFacade);
-        ValidationResult.printBlock(validate, this::warn, this::info, getConfig().get().getValidationLogLevel());
-        final List<Artifact> artifacts = getConfig().get().getArtifacts();
-        debug("Generating cache for " + artifacts.size() + " artifacts...");
-        for (final Artifact artifact : artifacts) {
-            if (artifactsVersionsCache.attemptToCache(artifact)) {
-                debug("  > \"" + artifact.id() + "\" cache generated. (" + artifactsVersionsCache.getVersionsCount(artifact.id()) + " versions)");
+    private void enableCoherence() {
+        final PomMapperPluginSettings settings = getConfig().get();
+        final String repository = settings.getCoherenceRepository();
+        if (repository == null || repository.isBlank()) {
+            return;
+        }
+        final StorageProvider storageProvider = baseFacade.getStorageProvider(repository);
+        if (storageProvider == null) {
+            warn("Cache coherence disabled, unknown repository: \"" + repository + "\"");
+            return;
+        }
+        if (!baseFacade.isRepositoryPrivate(repository)) {
+            warn("Cache coherence disabled, repository \"" + repository + "\" is not private and would serve the snapshots");
+            return;
+        }
+        final CacheSnapshotStore store = new CacheSnapshotStore(storageProvider, UUID.randomUUID().toString());
+        coherence = new CacheCoherence(this, artifactsVersionsCache, store);
+        artifactsVersionsCache.addListener(coherence);
+        final long interval = Math.max(1, settings.getCoherenceInterval());
+        getExecutors().getScheduler().scheduleWithFixedDelay(coherence::synchronize, interval, interval, TimeUnit.SECONDS);
+        info("Cache coherence enabled via repository \"" + repository + "\" as node " + store.getNode() + ".");
+    }
+
+    /**
+     * Validates the given settings once. Later calls with the same settings instance return the memoized results.
+     *
+     * @param settings the settings to validate
+     * @return the validation results
+     */
+    private List<ValidationResult> validate(final PomMapperPluginSettings settings) {
+        final Map.Entry<PomMapperPluginSettings, List<ValidationResult>> memoized = validation.get();
+        if (memoized != null && memoized.getKey() == settings) {
+            return memoized.getValue();
+        }
+        final List<ValidationResult> results = settings.validate(baseFacade);
+        validation.set(Map.entry(settings, results));
+        return results;
+    }
+
+    private void applySettings(final PomMapperPluginSettings settings) {
+        final PomMapperPluginSettings previous = appliedSettings.getAndSet(settings);
+        if (previous == null) {
+            updateCache();
+            return;
+        }
+        final SettingsDiff diff = SettingsDiff.between(previous, settings);
+        if (diff.validationRequired()) {
+            ValidationResult.printBlock(validate(settings), this::warn, this::info, settings.getValidationLogLevel());
+        }
+        if (!diff.affectsCache()) {
+            debug("Settings changed without affecting the cache.");
+            return;
+        }
+        debug(() -> "Settings changed: " + diff.added().size() + " added, " + diff.removed().size() + " removed, "
+                + diff.changedXPaths().size() + " with changed xPaths.");
+        final ArtifactDiscovery discovery = baseFacade.getArtifactDiscovery();
+        for (final Artifact removed : diff.removed()) {
+            if (removed.isPattern()) {
+                discovery.forget(removed).forEach(artifact -> artifactsVersionsCache.remove(artifact.id()));
             } else {
-                warn("  > \"" + artifact.id() + "\" cache generation failed");
+                artifactsVersionsCache.remove(removed.id());
             }
         }
+        final List<Artifact> rebuild = new ArrayList<>();
+        for (final Artifact added : diff.added()) {
+            rebuild.addAll(added.isPattern() ? discovery.discover(added) : List.of(added));
+        }
+        for (final Artifact changed : diff.changedXPaths()) {
+            rebuild.addAll(changed.isPattern() ? discovery.rebind(changed) : List.of(changed));
+        }
+        if (diff.extractionChanged()) {
+            debug("Extraction changed, rebuilding all artifacts.");
+            cacheArtifacts(baseFacade.getArtifacts(), 1, true);
+            return;
+        }
+        cacheArtifacts(rebuild);
+    }
+
+    private void updateCache() {
+        cacheArtifacts(baseFacade.getArtifacts());
+    }
+
+    private RebuildReport updateCache(final UpdateCacheRequest request) {
+        final List<Artifact> artifacts = baseFacade.getArtifacts().stream().filter(request::matches).toList();
+        return cacheArtifacts(artifacts, request.parallelism(), request.force());
+    }
+
+    private void cacheArtifacts(final List<Artifact> artifacts) {
+        cacheArtifacts(artifacts, 1, false);
+    }
+
+    private RebuildReport cacheArtifacts(final List<Artifact> artifacts, final int parallelism, final boolean force) {
+        final long start = System.nanoTime();
+        artifactsVersionsCache.prepare(artifacts);
+        debug(() -> "Generating cache for " + artifacts.size() + " artifacts...");
+        final List<RebuildReport.Entry> entries;
+        if (parallelism <= 1 || artifacts.size() <= 1) {
+            entries = artifacts.stream().map(artifact -> cacheArtifact(artifact, force)).toList();
+        } else {
+            // Each worker takes the next artifact until all are taken, limiting the rebuilds running at once
+            final RebuildReport.Entry[] results = new RebuildReport.Entry[artifacts.size()];
+            final AtomicInteger next = new AtomicInteger();
+            final Runnable worker = () -> {
+                for (int index = next.getAndIncrement(); index < results.length; index = next.getAndIncrement()) {
+                    results[index] = cacheArtifact(artifacts.get(index), force);
+                }
+            };
+            final ExecutorService executor = getExecutors().getVirtualExecutor();
+            CompletableFuture.allOf(IntStream.range(0, Math.min(parallelism, artifacts.size()))
+                    .mapToObj(workerIndex -> CompletableFuture.runAsync(worker, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+            entries = List.of(results);
+        }
+        return new RebuildReport(entries, parallelism, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private RebuildReport.Entry cacheArtifact(final Artifact artifact, final boolean force) {
+        final long start = System.nanoTime();
+        final RebuildMetrics metrics = new RebuildMetrics();
+        final boolean success = artifactsVersionsCache.attemptToCache(artifact, force, metrics);
+        final int versions = artifactsVersionsCache.getVersionsCount(artifact.id());
+        if (success) {
+            debug(() -> "  > \"" + artifact.id() + "\" cache generated. (" + versions + " versions)");
+        } else {
+            warn("  > \"" + artifact.id() + "\" cache generation failed");
+        }
+        return new RebuildReport.Entry(artifact.id(), success, versions, metrics, Duration.ofNanos(System.nanoTime() - start));
     }
 }
@@ -0,0 +1,37 @@
+package org.betonquest.reposilite.mapper.command;
+
+import com.reposilite.console.CommandContext;
+import com.reposilite.console.api.ReposiliteCommand;
+import org.betonquest.reposilite.mapper.restful.CacheStatistics;
+import picocli.CommandLine;
+
+import java.util.function.Supplier;
+
+/**
+ * Reposilite cli command to report the size and efficiency of the caches of the PomMapperPlugin.
+ */
+@CommandLine.Command(
+        name = "cache-stats",
+        description = "Reports versions, estimated retained heap and response cache hit ratio per artifact of the PomMapperPlugin."
+)
+public class CacheStatsCommand implements ReposiliteCommand {
+
+    /**
+     * Supplies the current cache statistics.
+     */
+    private final Supplier<CacheStatistics> statisticsSupplier;
+
+    /**
+     * Constructor for the CacheStatsCommand.
+     *
+     * @param statisticsSupplier Supplies the current cache statistics.
+     */
+    public CacheStatsCommand(final Supplier<CacheStatistics> statisticsSupplier) {
+        this.statisticsSupplier = statisticsSupplier;
+    }
+
+    @Override
+    public void execute(final CommandContext commandContext) {
+        statisticsSupplier.get().format().forEach(commandContext::append);
+    }
+}
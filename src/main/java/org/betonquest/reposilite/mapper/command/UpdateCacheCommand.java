@@ -2,33 +2,107 @@ package org.betonquest.reposilite.mapper.command;
 
 import com.reposilite.console.CommandContext;
 import com.reposilite.console.api.ReposiliteCommand;
+import org.betonquest.reposilite.mapper.integration.RebuildReport;
 import picocli.CommandLine;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 /**
  * Reposilite cli command to update the cache of the PomMapperPlugin.
  */
 @CommandLine.Command(
         name = "update-cache",
-        description = "Updates the cache of the PomMapperPlugin."
+        description = "Updates the cache of the PomMapperPlugin and reports the effort per artifact."
 )
 public class UpdateCacheCommand implements ReposiliteCommand {
 
     /**
-     * The runnable to execute to update the cache.
+     * The function to execute to update the cache.
+     */
+    private final Function<UpdateCacheRequest, RebuildReport> updateCacheFunction;
+
+    /**
+     * The executor running all updates, shared with the other cache rebuilds so they never overlap.
+     */
+    private final Executor executor;
+
+    /**
+     * The output of reports of updates run in the background.
+     */
+    private final Consumer<String> backgroundOutput;
+
+    /**
+     * The artifact config ids to update.
+     */
+    @CommandLine.Option(names = {"--id", "-i"}, split = ",", paramLabel = "<id>",
+            description = "Artifact config ids to update, a pattern id selects all its discovered artifacts. Defaults to all.")
+    private List<String> ids = new ArrayList<>();
+
+    /**
+     * The repositories whose artifacts to update.
+     */
+    @CommandLine.Option(names = {"--repository", "-r"}, split = ",", paramLabel = "<repository>",
+            description = "Repositories whose artifacts to update. Defaults to all.")
+    private List<String> repositories = new ArrayList<>();
+
+    /**
+     * The number of artifacts to update in parallel.
+     */
+    @CommandLine.Option(names = {"--parallelism", "-p"}, defaultValue = "1",
+            description = "Number of artifacts to update in parallel. Defaults to ${DEFAULT-VALUE}.")
+    private int parallelism;
+
+    /**
+     * Whether to ignore the fingerprints of unchanged poms.
+     */
+    @CommandLine.Option(names = {"--force", "-f"},
+            description = "Read all poms again, even if their fingerprints did not change.")
+    private boolean force;
+
+    /**
+     * Whether to run the update in the background.
      */
-    private final Runnable updateCacheRunnable;
+    @CommandLine.Option(names = {"--background", "-b"},
+            description = "Run the update in the background and log the report when finished.")
+    private boolean background;
 
     /**
      * Constructor for the UpdateCacheCommand.
      *
-     * @param updateCacheRunnable The runnable to execute to update the cache.
+     * @param updateCacheFunction The function to execute to update the cache.
+     * @param executor            The executor running all updates, shared with the other cache rebuilds.
+     * @param backgroundOutput    The output of reports of updates run in the background.
      */
-    public UpdateCacheCommand(final Runnable updateCacheRunnable) {
-        this.updateCacheRunnable = updateCacheRunnable;
+    public UpdateCacheCommand(final Function<UpdateCacheRequest, RebuildReport> updateCacheFunction,
+                              final Executor executor, final Consumer<String> backgroundOutput) {
+        this.updateCacheFunction = updateCacheFunction;
+        this.executor = executor;
+        this.backgroundOutput = backgroundOutput;
     }
 
     @Override
     public void execute(final CommandContext commandContext) {
-        this.updateCacheRunnable.run();
+        final UpdateCacheRequest request = new UpdateCacheRequest(Set.copyOf(ids), Set.copyOf(repositories), Math.max(1, parallelism), force);
+        if (background) {
+            executor.execute(() -> updateCacheFunction.apply(request).format().forEach(backgroundOutput));
+            commandContext.append("Cache update started in the background, the report will be logged when finished.");
+            return;
+        }
+        // Runs on the executor like every other rebuild and waits for it, so it never overlaps with them
+        final RebuildReport report;
+        try {
+            report = CompletableFuture.supplyAsync(() -> updateCacheFunction.apply(request), executor).join();
+        } catch (final CompletionException exception) {
+            commandContext.append("Cache update failed - " + exception.getCause().getMessage());
+            return;
+        }
+        report.format().forEach(commandContext::append);
     }
 }
@@ -0,0 +1,28 @@
+package org.betonquest.reposilite.mapper.command;
+
+import org.betonquest.reposilite.mapper.settings.Artifact;
+
+import java.util.Set;
+
+/**
+ * The scope and options of a cache update requested via the {@link UpdateCacheCommand}.
+ *
+ * @param ids          the artifact config ids to update, all if empty
+ * @param repositories the repositories whose artifacts to update, all if empty
+ * @param parallelism  the number of artifacts to update in parallel
+ * @param force        whether to read all poms even if their fingerprints did not change
+ */
+public record UpdateCacheRequest(Set<String> ids, Set<String> repositories, int parallelism, boolean force) {
+
+    /**
+     * Checks if the given artifact is in the scope of this request.
+     * An id of a pattern artifact selects all artifacts discovered for the pattern.
+     *
+     * @param artifact the artifact to check
+     * @return true if the artifact should be updated
+     */
+    public boolean matches(final Artifact artifact) {
+        return (ids.isEmpty() || ids.contains(artifact.id()) || ids.stream().anyMatch(id -> artifact.id().startsWith(id + ":")))
+                && (repositories.isEmpty() || repositories.contains(artifact.repository()));
+    }
+}
@@ -0,0 +1,211 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.shared.ErrorResponse;
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.FileDetails;
+import com.reposilite.storage.api.FileType;
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+import panda.std.Result;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Discovers the concrete artifacts matching {@link Artifact#isPattern() pattern} artifacts.
+ * <p>
+ * The repository tree is walked starting at the pattern's root and an artifact directory is detected by its
+ * maven metadata file, so the version directories below it are never visited. Results are cached per pattern
+ * until {@link #invalidate() invalidated}, and deployed artifacts are added without walking the tree again.
+ * <p>
+ * Walks run outside the cache, so concurrent lookups of other patterns are not blocked by a slow storage.
+ * Artifacts deployed before the first walk of their pattern completed are kept aside and merged into its result.
+ */
+public class ArtifactDiscovery {
+
+    /**
+     * The name of the metadata file marking an artifact directory.
+     */
+    private static final String METADATA_FILE = "maven-metadata.xml";
+
+    /**
+     * Provides the storage of a repository by its name.
+     */
+    private final Function<String, StorageProvider> storageProviders;
+
+    /**
+     * All discovered artifacts by their config id, grouped by the config id of their pattern.
+     */
+    private final Map<String, Map<String, Artifact>> discovered;
+
+    /**
+     * Deployed artifacts by their config id, grouped by the config id of their pattern whose first walk did not complete yet.
+     */
+    private final Map<String, Map<String, Artifact>> registered;
+
+    /**
+     * Constructor for the ArtifactDiscovery.
+     *
+     * @param storageProviders provides the storage of a repository by its name or null if unknown
+     */
+    public ArtifactDiscovery(final Function<String, StorageProvider> storageProviders) {
+        this.storageProviders = storageProviders;
+        this.discovered = new ConcurrentHashMap<>();
+        this.registered = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns all artifacts matching the given pattern, walking the repository only if not yet cached.
+     *
+     * @param pattern the pattern artifact
+     * @return all matching artifacts
+     */
+    public Collection<Artifact> discover(final Artifact pattern) {
+        final Map<String, Artifact> known = discovered.get(pattern.id());
+        if (known != null) {
+            return known.values();
+        }
+        final Map<String, Artifact> walked = walk(pattern);
+        final Map<String, Artifact> result = discovered.merge(pattern.id(), walked, (previous, ignored) -> previous);
+        mergeRegistered(pattern.id(), result);
+        return result.values();
+    }
+
+    /**
+     * Adds the artifact a deployed file belongs to if it matches the given pattern and was not discovered yet.
+     * Until the first walk of the pattern completed, the artifact is kept aside and merged into the walk's result.
+     *
+     * @param pattern the pattern artifact
+     * @param file    the location of the deployed file, expected inside a version directory
+     * @return the newly discovered artifact or null if it does not match or is already known
+     */
+    @Nullable
+    public Artifact register(final Artifact pattern, final Location file) {
+        final Artifact artifact = toArtifact(pattern, file.getParent().getParent());
+        if (artifact == null) {
+            return null;
+        }
+        final Map<String, Artifact> known = discovered.get(pattern.id());
+        if (known != null) {
+            return known.putIfAbsent(artifact.id(), artifact) == null ? artifact : null;
+        }
+        final Map<String, Artifact> pending = registered.computeIfAbsent(pattern.id(), id -> new ConcurrentHashMap<>());
+        final boolean added = pending.putIfAbsent(artifact.id(), artifact) == null;
+        final Map<String, Artifact> completed = discovered.get(pattern.id());
+        if (completed != null) {
+            completed.putIfAbsent(artifact.id(), artifact);
+            mergeRegistered(pattern.id(), completed);
+        }
+        return added ? artifact : null;
+    }
+
+    /**
+     * Forgets the artifacts discovered for a pattern.
+     *
+     * @param pattern the pattern artifact
+     * @return the artifacts discovered for the pattern
+     */
+    public Collection<Artifact> forget(final Artifact pattern) {
+        registered.remove(pattern.id());
+        final Map<String, Artifact> known = discovered.remove(pattern.id());
+        return known == null ? List.of() : known.values();
+    }
+
+    /**
+     * Binds the artifacts discovered for a pattern to a changed definition of the same pattern,
+     * like changed xpath entries, without walking the repository again.
+     *
+     * @param pattern the changed pattern artifact
+     * @return the artifacts discovered for the pattern, bound to the changed definition
+     */
+    public Collection<Artifact> rebind(final Artifact pattern) {
+        final Map<String, Artifact> known = discovered.get(pattern.id());
+        if (known == null) {
+            return discover(pattern);
+        }
+        known.replaceAll((id, artifact) -> pattern.concretize(artifact.groupId(), artifact.artifactId()));
+        return known.values();
+    }
+
+    /**
+     * Forgets all discovered artifacts, so the next {@link #discover(Artifact)} walks the repository again.
+     */
+    public void invalidate() {
+        discovered.clear();
+        registered.clear();
+    }
+
+    private void mergeRegistered(final String patternId, final Map<String, Artifact> result) {
+        final Map<String, Artifact> pending = registered.remove(patternId);
+        if (pending != null) {
+            pending.forEach(result::putIfAbsent);
+        }
+    }
+
+    private Map<String, Artifact> walk(final Artifact pattern) {
+        final Map<String, Artifact> result = new ConcurrentHashMap<>();
+        final StorageProvider storageProvider = storageProviders.apply(pattern.repository());
+        if (storageProvider == null) {
+            return result;
+        }
+        final Deque<Location> frontier = new ArrayDeque<>();
+        frontier.add(pattern.gav());
+        while (!frontier.isEmpty()) {
+            final Location directory = frontier.poll();
+            final List<Location> children = listDirectories(storageProvider, directory);
+            if (children == null) {
+                final Artifact artifact = toArtifact(pattern, directory);
+                if (artifact != null) {
+                    result.put(artifact.id(), artifact);
+                }
+                continue;
+            }
+            frontier.addAll(children);
+        }
+        return result;
+    }
+
+    @Nullable
+    private Artifact toArtifact(final Artifact pattern, final Location artifactDirectory) {
+        final String groupId = artifactDirectory.getParent().toString().replace('/', '.');
+        final String artifactId = artifactDirectory.getSimpleName();
+        if (groupId.isEmpty() || artifactId.isEmpty() || !pattern.matches(groupId, artifactId)) {
+            return null;
+        }
+        return pattern.concretize(groupId, artifactId);
+    }
+
+    /**
+     * Lists the subdirectories of a directory.
+     * The listing is checked for the maven metadata file first, so the children of an artifact directory are never looked up.
+     *
+     * @param storageProvider the storage to list from
+     * @param directory       the directory to list
+     * @return the subdirectories or null if the directory is an artifact directory
+     */
+    @Nullable
+    private List<Location> listDirectories(final StorageProvider storageProvider, final Location directory) {
+        final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(directory);
+        if (files.isErr()) {
+            return List.of();
+        }
+        if (files.get().stream().anyMatch(child -> METADATA_FILE.equals(child.getSimpleName()))) {
+            return null;
+        }
+        final List<Location> directories = new ArrayList<>();
+        for (final Location child : files.get()) {
+            final Result<? extends FileDetails, ErrorResponse> details = storageProvider.getFileDetails(child);
+            if (details.isOk() && details.get().getType() == FileType.DIRECTORY) {
+                directories.add(child);
+            }
+        }
+        return directories;
+    }
+}
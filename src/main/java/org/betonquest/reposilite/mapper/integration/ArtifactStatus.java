@@ -0,0 +1,50 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The rebuild status of an artifact in the {@link ArtifactsVersionsCache}.
+ *
+ * @param state               the current state
+ * @param lastRebuild         the time the last rebuild finished or null if none finished yet
+ * @param lastRebuildDuration the duration of the last finished rebuild
+ */
+public record ArtifactStatus(CacheState state, @Nullable Instant lastRebuild, Duration lastRebuildDuration) {
+
+    /**
+     * The status of an artifact that was never cached.
+     */
+    public static final ArtifactStatus COLD = new ArtifactStatus(CacheState.COLD, null, Duration.ZERO);
+
+    /**
+     * Returns this status with a rebuild in progress.
+     *
+     * @return the building status
+     */
+    public ArtifactStatus building() {
+        return new ArtifactStatus(CacheState.BUILDING, lastRebuild, lastRebuildDuration);
+    }
+
+    /**
+     * Returns the status after a finished rebuild.
+     *
+     * @param success  whether the rebuild succeeded
+     * @param duration the duration of the rebuild
+     * @return the finished status
+     */
+    public ArtifactStatus finished(final boolean success, final Duration duration) {
+        return new ArtifactStatus(success ? CacheState.READY : CacheState.FAILED, Instant.now(), duration);
+    }
+
+    /**
+     * Checks if served versions may be outdated because a rebuild is running or failed.
+     *
+     * @return true if the versions may be stale
+     */
+    public boolean isStale() {
+        return state == CacheState.BUILDING || state == CacheState.FAILED;
+    }
+}
@@ -2,29 +2,76 @@ package org.betonquest.reposilite.mapper.integration;
 
 import org.betonquest.reposilite.adapter.PluginAdapter;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The ArtifactsVersionsCache for the PomMapperPlugin.
  */
 public class ArtifactsVersionsCache {
 
+    /**
+     * The bits of the random epoch the generation counter starts at, leaving the lower bits for the counter.
+     */
+    private static final long EPOCH_MASK = 0x7FFF_FFFF_0000_0000L;
+
     /**
      * The {@link PluginAdapter} of the PomMapperPlugin.
      */
     private final PluginAdapter<PomMapperFacade, ?> plugin;
 
     /**
-     * The cache of all {@link Artifact} versions as defined in the plugin settings.
+     * The cache of all {@link Artifact} versions as defined in the plugin settings, indexed once at ingest.
+     */
+    private final Map<String, VersionIndex> pomVersionedEntryCache;
+
+    /**
+     * The inverted index of all extracted pom values.
+     */
+    private final PomValueIndex valueIndex;
+
+    /**
+     * The rebuild status of all known artifacts.
+     */
+    private final Map<String, ArtifactStatus> statuses;
+
+    /**
+     * The lock of each artifact, held while its versions are rebuilt or replaced, so rebuilds of the same artifact
+     * never overlap, whichever thread starts them. Locks are kept for the lifetime of the cache.
+     */
+    private final Map<String, Lock> locks;
+
+    /**
+     * The generation counter, incremented whenever the versions of an artifact are replaced.
+     * It starts at a random epoch in the upper bits, so generations are unique across nodes and restarts
+     * and cursors or cached responses of another node or run never match.
      */
-    private final Map<String, List<PomVersionedEntry>> pomVersionedEntryCache;
+    private final AtomicLong generation;
+
+    /**
+     * The listeners notified about newly ingested versions.
+     */
+    private final List<VersionsCacheListener> listeners;
+
+    /**
+     * The store deciding where indexes are kept.
+     */
+    private volatile VersionStore versionStore;
 
     /**
      * The constructor for the ArtifactsVersionsCache.
@@ -32,10 +79,71 @@ public class ArtifactsVersionsCache {
      * @param plugin The {@link PluginAdapter} of the PomMapperPlugin.
      */
     public ArtifactsVersionsCache(final PluginAdapter<PomMapperFacade, ?> plugin) {
-        this.pomVersionedEntryCache = new HashMap<>();
+        this.pomVersionedEntryCache = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.generation = new AtomicLong(ThreadLocalRandom.current().nextLong() & EPOCH_MASK);
+        this.statuses = new ConcurrentHashMap<>();
+        this.locks = new ConcurrentHashMap<>();
+        this.valueIndex = new PomValueIndex();
+        this.versionStore = new HeapVersionStore();
+        this.listeners.add(valueIndex);
         this.plugin = plugin;
     }
 
+    /**
+     * Returns the inverted index of all extracted pom values, kept up to date with this cache.
+     *
+     * @return the inverted index
+     */
+    public PomValueIndex getValueIndex() {
+        return valueIndex;
+    }
+
+    /**
+     * Registers a listener to be notified about newly ingested versions.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(final VersionsCacheListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously registered listener.
+     *
+     * @param listener The listener to unregister.
+     */
+    public void removeListener(final VersionsCacheListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the store deciding where indexes are kept. Applies to indexes built afterward.
+     *
+     * @param versionStore The store to use.
+     */
+    public void setVersionStore(final VersionStore versionStore) {
+        this.versionStore = versionStore;
+    }
+
+    /**
+     * Serves the indexes stored by a previous run for the given artifacts until they are rebuilt.
+     *
+     * @param artifacts The artifacts to load.
+     * @return The number of loaded indexes.
+     */
+    public int restore(final Collection<Artifact> artifacts) {
+        int restored = 0;
+        for (final Artifact artifact : artifacts) {
+            final VersionIndex index = versionStore.load(artifact, generation.incrementAndGet());
+            if (index != null) {
+                install(artifact.id(), index, false);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
     /**
      * Checks if the cache contains an entry for the given artifact config id.
      *
@@ -63,27 +171,185 @@ public class ArtifactsVersionsCache {
      * @return All versions for the given artifact config id.
      */
     public List<PomVersionedEntry> getVersions(final String artifactConfigId) {
-        return pomVersionedEntryCache.getOrDefault(artifactConfigId, Collections.emptyList());
+        return getIndex(artifactConfigId).entries();
+    }
+
+    /**
+     * Returns the sorted {@link VersionIndex} of all versions for the given artifact config id.
+     *
+     * @param artifactConfigId The artifact config id to check.
+     * @return The index of all versions, empty if the artifact is not cached.
+     */
+    public VersionIndex getIndex(final String artifactConfigId) {
+        return pomVersionedEntryCache.getOrDefault(artifactConfigId, VersionIndex.EMPTY);
+    }
+
+    /**
+     * Registers artifacts that are expected to be cached, so they are reported as {@link CacheState#COLD}
+     * instead of unknown until their first rebuild finished.
+     *
+     * @param artifacts The artifacts to register.
+     */
+    public void prepare(final Collection<Artifact> artifacts) {
+        artifacts.forEach(artifact -> statuses.putIfAbsent(artifact.id(), ArtifactStatus.COLD));
+    }
+
+    /**
+     * Returns the rebuild status of the given artifact config id.
+     *
+     * @param artifactConfigId The artifact config id to check.
+     * @return The status or null if the artifact is unknown.
+     */
+    @Nullable
+    public ArtifactStatus getStatus(final String artifactConfigId) {
+        return statuses.get(artifactConfigId);
+    }
+
+    /**
+     * Returns the rebuild status of all known artifacts.
+     *
+     * @return The status by artifact config id.
+     */
+    public Map<String, ArtifactStatus> getStatuses() {
+        return Map.copyOf(statuses);
+    }
+
+    /**
+     * Removes all cached versions and the status of the given artifact config id.
+     *
+     * @param artifactConfigId The artifact config id to remove.
+     */
+    public void remove(final String artifactConfigId) {
+        statuses.remove(artifactConfigId);
+        plugin.getPluginFacade().forgetFingerprints(artifactConfigId);
+        versionStore.delete(artifactConfigId);
+        final VersionIndex previous = pomVersionedEntryCache.remove(artifactConfigId);
+        valueIndex.remove(artifactConfigId);
+        if (previous != null) {
+            notifyChanges(artifactConfigId, previous, VersionIndex.EMPTY);
+        }
     }
 
     /**
      * Tries to cache the versions for the given artifact.
+     * Previously cached versions are served until the rebuild succeeded.
+     * An artifact without versions in the storage is cached as empty and ready.
      *
      * @param artifact The artifact to cache.
      * @return True if the artifact was successfully cached, false otherwise.
      */
     public boolean attemptToCache(final Artifact artifact) {
+        return attemptToCache(artifact, false, new RebuildMetrics());
+    }
+
+    /**
+     * Tries to cache the versions for the given artifact.
+     * Previously cached versions are served until the rebuild succeeded.
+     * An artifact without versions in the storage is cached as empty and ready.
+     *
+     * @param artifact The artifact to cache.
+     * @param force    Whether to read all poms even if their fingerprints did not change.
+     * @param metrics  The metrics to record the rebuild in.
+     * @return True if the artifact was successfully cached, false otherwise.
+     */
+    public boolean attemptToCache(final Artifact artifact, final boolean force, final RebuildMetrics metrics) {
+        final Lock lock = lock(artifact.id());
+        lock.lock();
+        try {
+            final long start = System.nanoTime();
+            statuses.compute(artifact.id(), (id, status) -> (status == null ? ArtifactStatus.COLD : status).building());
+            final boolean success = rebuild(artifact, force, metrics);
+            final Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            statuses.compute(artifact.id(), (id, status) -> (status == null ? ArtifactStatus.COLD : status).finished(success, duration));
+            return success;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lock(final String artifactConfigId) {
+        return locks.computeIfAbsent(artifactConfigId, id -> new ReentrantLock());
+    }
+
+    private boolean rebuild(final Artifact artifact, final boolean force, final RebuildMetrics metrics) {
         final PomMapperFacade baseFacade = plugin.getPluginFacade();
         try {
-            final List<PomVersionedEntry> mappedVersions = baseFacade.getMappedVersions(artifact);
-            if (mappedVersions.isEmpty()) {
+            final List<PomVersionedEntry> mappedVersions = baseFacade.getMappedVersions(artifact, force, metrics);
+            if (mappedVersions == null) {
                 return false;
             }
-            pomVersionedEntryCache.put(artifact.id(), mappedVersions);
+            putVersions(artifact, mappedVersions, true);
         } catch (XPathExpressionException | ParserConfigurationException e) {
             baseFacade.getPlugin().getLogger().exception(e);
             return false;
         }
         return true;
     }
+
+    /**
+     * Replaces the cached versions of an artifact with versions loaded from a peer's snapshot.
+     *
+     * @param artifact The artifact the versions belong to.
+     * @param versions The versions to cache.
+     */
+    public void applySnapshot(final Artifact artifact, final List<PomVersionedEntry> versions) {
+        final Lock lock = lock(artifact.id());
+        lock.lock();
+        try {
+            putVersions(artifact, versions, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putVersions(final Artifact artifact, final List<PomVersionedEntry> versions, final boolean local) {
+        install(artifact.id(), versionStore.store(artifact, new VersionIndex(versions, generation.incrementAndGet())), local);
+    }
+
+    private void install(final String artifactConfigId, final VersionIndex index, final boolean local) {
+        final VersionIndex previous = pomVersionedEntryCache.put(artifactConfigId, index);
+        if (previous != null) {
+            notifyChanges(artifactConfigId, previous, index);
+        }
+        for (final VersionsCacheListener listener : listeners) {
+            listener.onVersionsCached(artifactConfigId, index, local);
+        }
+    }
+
+    /**
+     * Reports the versions added, updated and removed between two indexes of an artifact.
+     * Versions are identified by their group and maven version, so values changed by a re-extraction
+     * are reported as updates instead of removing and adding the version again.
+     */
+    private void notifyChanges(final String artifactConfigId, final VersionIndex previous, final VersionIndex current) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        final Map<VersionIdentity, PomVersionedEntry> known = new LinkedHashMap<>();
+        for (final PomVersionedEntry entry : previous.entries()) {
+            known.put(VersionIdentity.of(entry), entry);
+        }
+        final List<PomVersionedEntry> added = new ArrayList<>();
+        final List<VersionUpdate> updated = new ArrayList<>();
+        for (final PomVersionedEntry entry : current.entries()) {
+            final PomVersionedEntry before = known.remove(VersionIdentity.of(entry));
+            if (before == null) {
+                added.add(entry);
+            } else if (!before.equals(entry)) {
+                updated.add(new VersionUpdate(before, entry));
+            }
+        }
+        final List<PomVersionedEntry> removed = List.copyOf(known.values());
+        for (final VersionsCacheListener listener : listeners) {
+            if (!removed.isEmpty()) {
+                listener.onVersionsRemoved(artifactConfigId, removed);
+            }
+            if (!updated.isEmpty()) {
+                listener.onVersionsUpdated(artifactConfigId, updated);
+            }
+            if (!added.isEmpty()) {
+                listener.onVersionsAdded(artifactConfigId, added);
+            }
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * Keeps the {@link ArtifactsVersionsCache} of multiple nodes sharing one storage coherent.
+ * <p>
+ * Every locally rebuilt artifact is published as snapshot through the {@link CacheSnapshotStore}.
+ * Peers periodically {@link #synchronize() synchronize} and load the most recent snapshot of every artifact
+ * ordered after the versions in their own cache instead of parsing the poms again.
+ */
+public class CacheCoherence implements VersionsCacheListener {
+
+    /**
+     * The {@link PluginAdapter} of the PomMapperPlugin.
+     */
+    private final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin;
+
+    /**
+     * The cache kept coherent.
+     */
+    private final ArtifactsVersionsCache artifactsVersionsCache;
+
+    /**
+     * The store shared by all nodes.
+     */
+    private final CacheSnapshotStore store;
+
+    /**
+     * The publication each artifact's cached versions correspond to, published by this node or loaded from a peer.
+     */
+    private final Map<String, CacheSnapshotStore.Publication> applied;
+
+    /**
+     * Whether this node withdrew its snapshots and stopped publishing.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor for the CacheCoherence.
+     *
+     * @param plugin                 the {@link PluginAdapter} of the PomMapperPlugin
+     * @param artifactsVersionsCache the cache to keep coherent
+     * @param store                  the store shared by all nodes
+     */
+    public CacheCoherence(final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin,
+                          final ArtifactsVersionsCache artifactsVersionsCache, final CacheSnapshotStore store) {
+        this.plugin = plugin;
+        this.artifactsVersionsCache = artifactsVersionsCache;
+        this.store = store;
+        this.applied = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onVersionsAdded(final String artifactConfigId, final List<PomVersionedEntry> added) {
+        // Handled by onVersionsCached
+    }
+
+    @Override
+    public void onVersionsCached(final String artifactConfigId, final VersionIndex index, final boolean local) {
+        if (!local) {
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                final CacheSnapshotStore.Publication publication = store.publish(artifactConfigId, index.entries());
+                applied.put(artifactConfigId, publication);
+                plugin.debug("Published snapshot of \"{}\" with generation {}", artifactConfigId, publication.generation());
+            } catch (final IOException exception) {
+                plugin.warn("Could not publish cache snapshot of \"" + artifactConfigId + "\" - " + exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the most recent snapshot of every artifact that a peer published after the versions cached by this node.
+     */
+    public void synchronize() {
+        final Map<String, CacheSnapshotStore.Publication> latest = new HashMap<>();
+        try {
+            for (final CacheSnapshotStore.Publication publication : store.readPublications()) {
+                latest.merge(publication.artifactConfigId(), publication, BinaryOperator.maxBy(CacheSnapshotStore.Publication.RECENCY));
+            }
+        } catch (final IOException exception) {
+            plugin.warn("Could not synchronize cache snapshots - " + exception.getMessage());
+            return;
+        }
+        for (final CacheSnapshotStore.Publication publication : latest.values()) {
+            final CacheSnapshotStore.Publication current = applied.get(publication.artifactConfigId());
+            if (!store.getNode().equals(publication.node())
+                    && (current == null || CacheSnapshotStore.Publication.RECENCY.compare(publication, current) > 0)) {
+                load(publication);
+            }
+        }
+    }
+
+    /**
+     * Withdraws the snapshots of this node and stops publishing, so peers stop loading them after it stopped.
+     */
+    public synchronized void close() {
+        closed = true;
+        try {
+            store.withdraw();
+        } catch (final IOException exception) {
+            plugin.warn("Could not withdraw cache snapshots - " + exception.getMessage());
+        }
+    }
+
+    private void load(final CacheSnapshotStore.Publication publication) {
+        final String artifactConfigId = publication.artifactConfigId();
+        final Artifact artifact = plugin.getPluginFacade().findArtifactById(artifactConfigId);
+        if (artifact == null) {
+            return;
+        }
+        try {
+            final List<PomVersionedEntry> versions = store.readSnapshot(publication.node(), artifact);
+            if (versions != null) {
+                artifactsVersionsCache.applySnapshot(artifact, versions);
+                applied.put(artifactConfigId, publication);
+                plugin.debug("Loaded snapshot of \"{}\" published by node {}", artifactConfigId, publication.node());
+            }
+        } catch (final IOException exception) {
+            plugin.warn("Could not load cache snapshot of \"" + artifactConfigId + "\" - " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically compares the poms in the storage with the {@link ArtifactsVersionsCache}, picking up changes made without
+ * a deploy event, like files changed by other tools, deletions or missed events.
+ * <p>
+ * Each scan walks the artifacts round-robin, starting after the last scanned artifact, until its budget of storage calls
+ * is spent. Only artifacts whose version fingerprints differ are rebuilt, reading only the changed versions.
+ * Scans are spread by a random jitter on the interval, so nodes and restarts do not align.
+ */
+public class CacheReconciler {
+
+    /**
+     * The maximum relative deviation of each interval.
+     */
+    private static final double JITTER = 0.2;
+
+    /**
+     * The delay in seconds after which disabled scans check the settings again.
+     */
+    private static final long DISABLED_DELAY_SECONDS = 60;
+
+    /**
+     * The {@link PluginAdapter} of the PomMapperPlugin.
+     */
+    private final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin;
+
+    /**
+     * The cache to reconcile.
+     */
+    private final ArtifactsVersionsCache artifactsVersionsCache;
+
+    /**
+     * The scheduler triggering the scans.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The executor running the scans, shared with the cache rebuilds so they never run at the same time.
+     */
+    private final Executor executor;
+
+    /**
+     * The index of the next artifact to scan, only accessed by the executor.
+     */
+    private int cursor;
+
+    /**
+     * Constructor for the CacheReconciler.
+     *
+     * @param plugin                 the {@link PluginAdapter} of the PomMapperPlugin
+     * @param artifactsVersionsCache the cache to reconcile
+     * @param scheduler              the scheduler triggering the scans
+     * @param executor               the executor running the scans, shared with the cache rebuilds
+     */
+    public CacheReconciler(final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin,
+                           final ArtifactsVersionsCache artifactsVersionsCache, final ScheduledExecutorService scheduler,
+                           final Executor executor) {
+        this.plugin = plugin;
+        this.artifactsVersionsCache = artifactsVersionsCache;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules the first scan. Every scan schedules the next one until the executors are shut down.
+     */
+    public void start() {
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        final int interval = plugin.getConfig().get().getReconcileInterval();
+        final long delayMillis = interval <= 0 ? TimeUnit.SECONDS.toMillis(DISABLED_DELAY_SECONDS)
+                : (long) (TimeUnit.SECONDS.toMillis(interval) * (1 + JITTER * ThreadLocalRandom.current().nextDouble(-1, 1)));
+        try {
+            scheduler.schedule(this::submit, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException exception) {
+            plugin.debug("Reconciliation stopped, the executors are shut down.");
+        }
+    }
+
+    private void submit() {
+        try {
+            executor.execute(this::tick);
+        } catch (final RejectedExecutionException exception) {
+            plugin.debug("Reconciliation stopped, the executors are shut down.");
+        }
+    }
+
+    private void tick() {
+        try {
+            final PomMapperPluginSettings settings = plugin.getConfig().get();
+            if (settings.getReconcileInterval() > 0) {
+                reconcile(Math.max(1, settings.getReconcileBudget()));
+            }
+        } catch (final RuntimeException exception) {
+            plugin.warn("Reconciliation failed - " + exception.getMessage());
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Scans artifacts until the budget is spent or every artifact was scanned once, rebuilding the changed ones.
+     * The first artifact is always scanned, even if it alone exceeds the budget.
+     *
+     * @param budget the number of storage calls after which the scan stops
+     */
+    private void reconcile(final int budget) {
+        final List<Artifact> artifacts = plugin.getPluginFacade().getArtifacts();
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final RebuildMetrics metrics = new RebuildMetrics();
+        int scanned = 0;
+        int rebuilt = 0;
+        while (scanned < artifacts.size() && (scanned == 0 || metrics.getStorageCalls() < budget)) {
+            cursor = cursor % artifacts.size();
+            final Artifact artifact = artifacts.get(cursor);
+            cursor++;
+            scanned++;
+            if (plugin.getPluginFacade().hasChanged(artifact, metrics)) {
+                plugin.debug("Reconciling changed artifact \"{}\".", artifact.id());
+                artifactsVersionsCache.attemptToCache(artifact, false, metrics);
+                rebuilt++;
+            }
+        }
+        final int scannedArtifacts = scanned;
+        final int rebuiltArtifacts = rebuilt;
+        plugin.debug(() -> "Reconciled " + scannedArtifacts + "/" + artifacts.size() + " artifacts in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms with " + metrics.getStorageCalls()
+                + " storage calls, " + rebuiltArtifacts + " changed.");
+    }
+}
@@ -0,0 +1,403 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.reposilite.shared.ErrorResponse;
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+import panda.std.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes serialized {@link ArtifactsVersionsCache} snapshots through the {@link StorageProvider} of a
+ * repository shared by all nodes.
+ * <p>
+ * The files are written below {@link #ROOT}, so the repository should be a private one that holds no artifacts.
+ * Every node only writes its own files: one manifest listing the {@link Publication} of each artifact it published
+ * and one snapshot file per artifact. Nodes never modify a shared file. Peers read the manifests of all nodes and
+ * load only the snapshots newer than their own cache.
+ * <p>
+ * Publications are ordered by a Lamport clock instead of the wall clock of the nodes: every node remembers the
+ * highest generation it has read from its peers and publishes with a generation above both that and its own last one.
+ * A build that started after a node loaded a peer's snapshot is therefore always ordered after that snapshot.
+ */
+public class CacheSnapshotStore {
+
+    /**
+     * The root location of all files written by the store.
+     */
+    public static final Location ROOT = Location.of(".pommapper").resolve("coherence");
+
+    /**
+     * The location of the directory containing the manifests of all nodes.
+     */
+    private static final Location NODES = ROOT.resolve("nodes");
+
+    /**
+     * The location of the directory containing the snapshot directories of all nodes.
+     */
+    private static final Location SNAPSHOTS = ROOT.resolve("snapshots");
+
+    /**
+     * The file extension of manifests and snapshots.
+     */
+    private static final String EXTENSION = ".json";
+
+    /**
+     * The JSON key of the node that wrote the manifest.
+     */
+    private static final String KEY_NODE = "node";
+
+    /**
+     * The JSON key of the per-artifact publications in the manifest.
+     */
+    private static final String KEY_ARTIFACTS = "artifacts";
+
+    /**
+     * The JSON key of the generation of a publication.
+     */
+    private static final String KEY_GENERATION = "generation";
+    /**
+     * The JSON key of the group version in a snapshot entry.
+     */
+    private static final String KEY_GROUP = "group";
+
+    /**
+     * The JSON key of the maven version in a snapshot entry.
+     */
+    private static final String KEY_MAVEN = "maven";
+
+    /**
+     * The JSON key of the extracted pom values in a snapshot entry.
+     */
+    private static final String KEY_POM = "pom";
+
+    /**
+     * The JSON key of the jar location in a snapshot entry.
+     */
+    private static final String KEY_JAR = "jar";
+
+    /**
+     * The JSON key of the jar details in a snapshot entry.
+     */
+    private static final String KEY_JAR_DETAILS = "jarDetails";
+
+    /**
+     * The JSON key of the jar size in the jar details.
+     */
+    private static final String KEY_SIZE = "size";
+
+    /**
+     * The JSON key of the jar modification time in the jar details.
+     */
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+
+    /**
+     * The JSON key of the jar sha1 checksum in the jar details.
+     */
+    private static final String KEY_SHA1 = "sha1";
+
+    /**
+     * The JSON key of the jar sha256 checksum in the jar details.
+     */
+    private static final String KEY_SHA256 = "sha256";
+
+    /**
+     * The gson instance used for serialization.
+     */
+    private final Gson gson = new GsonBuilder().create();
+
+    /**
+     * The storage shared by all nodes.
+     */
+    private final StorageProvider storageProvider;
+
+    /**
+     * The unique id of this node.
+     */
+    private final String node;
+
+    /**
+     * The publications of this node by artifact config id, written as its manifest.
+     */
+    private final Map<String, Publication> published;
+
+    /**
+     * The generation of the last publication of this node.
+     */
+    private long generation;
+
+    /**
+     * The highest generation read from the manifests of all nodes.
+     */
+    private long highestSeen;
+
+    /**
+     * Constructor for the CacheSnapshotStore.
+     *
+     * @param storageProvider the storage shared by all nodes
+     * @param node            the unique id of this node
+     */
+    public CacheSnapshotStore(final StorageProvider storageProvider, final String node) {
+        this.storageProvider = storageProvider;
+        this.node = node;
+        this.published = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the unique id of this node.
+     *
+     * @return the node id
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Writes the snapshot of an artifact and publishes it in the manifest of this node.
+     * The publication gets a generation above every generation this node published or read before.
+     *
+     * @param artifactConfigId the artifact config id of the snapshot
+     * @param versions         the versions to write
+     * @return the publication as written to the manifest
+     * @throws IOException if the snapshot or the manifest could not be written
+     */
+    public synchronized Publication publish(final String artifactConfigId, final List<PomVersionedEntry> versions) throws IOException {
+        final JsonArray snapshot = new JsonArray();
+        versions.forEach(version -> snapshot.add(serialize(version)));
+        write(snapshotLocation(node, artifactConfigId), snapshot);
+
+        generation = Math.max(generation, highestSeen) + 1;
+        final Publication publication = new Publication(node, artifactConfigId, generation);
+        published.put(artifactConfigId, publication);
+        final JsonObject artifacts = new JsonObject();
+        published.values().forEach(entry -> {
+            final JsonObject json = new JsonObject();
+            json.addProperty(KEY_GENERATION, entry.generation());
+            artifacts.add(entry.artifactConfigId(), json);
+        });
+        final JsonObject manifest = new JsonObject();
+        manifest.addProperty(KEY_NODE, node);
+        manifest.add(KEY_ARTIFACTS, artifacts);
+        write(manifestLocation(node), manifest);
+        return publication;
+    }
+
+    /**
+     * Reads the publications in the manifests of all nodes, including this one, and advances the clock of this node
+     * past the highest generation read.
+     * Manifests that cannot be parsed, for example because their node is rewriting them, are skipped.
+     *
+     * @return the publications of all nodes
+     * @throws IOException if the manifests could not be listed
+     */
+    public List<Publication> readPublications() throws IOException {
+        if (!storageProvider.exists(NODES)) {
+            return List.of();
+        }
+        final Result<List<Location>, ErrorResponse> manifests = storageProvider.getFiles(NODES);
+        if (manifests.isErr()) {
+            throw new IOException("Could not list \"" + NODES + "\": " + manifests.getError().getMessage());
+        }
+        final List<Publication> publications = new ArrayList<>();
+        for (final Location manifest : manifests.get()) {
+            if (!manifest.endsWith(EXTENSION)) {
+                continue;
+            }
+            final List<Publication> manifestPublications = readManifest(manifest);
+            if (manifestPublications != null) {
+                publications.addAll(manifestPublications);
+            }
+        }
+        observe(publications);
+        return publications;
+    }
+
+    /**
+     * Reads the snapshot of an artifact published by a node.
+     *
+     * @param publisher the id of the node that published the snapshot
+     * @param artifact  the artifact to read the snapshot for
+     * @return the versions of the snapshot or null if no snapshot exists
+     * @throws IOException if the snapshot exists but could not be read
+     */
+    @Nullable
+    public List<PomVersionedEntry> readSnapshot(final String publisher, final Artifact artifact) throws IOException {
+        final Location location = snapshotLocation(publisher, artifact.id());
+        final JsonElement json;
+        try {
+            json = readJson(location);
+        } catch (final JsonParseException | IllegalStateException exception) {
+            throw new IOException("Corrupted file \"" + location + "\": " + exception.getMessage(), exception);
+        }
+        if (json == null) {
+            return null;
+        }
+        final List<PomVersionedEntry> versions = new ArrayList<>();
+        for (final JsonElement element : json.getAsJsonArray()) {
+            versions.add(deserialize(artifact, element.getAsJsonObject()));
+        }
+        return versions;
+    }
+
+    /**
+     * Deletes the manifest and all snapshots of this node, so peers stop loading them.
+     *
+     * @throws IOException if the files could not be deleted
+     */
+    public synchronized void withdraw() throws IOException {
+        remove(manifestLocation(node));
+        final Location snapshots = SNAPSHOTS.resolve(FileNames.encode(node));
+        if (storageProvider.exists(snapshots)) {
+            final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(snapshots);
+            if (files.isErr()) {
+                throw new IOException("Could not list \"" + snapshots + "\": " + files.getError().getMessage());
+            }
+            for (final Location file : files.get()) {
+                remove(file);
+            }
+            remove(snapshots);
+        }
+        published.clear();
+    }
+
+    @Nullable
+    private List<Publication> readManifest(final Location location) throws IOException {
+        try {
+            final JsonElement json = readJson(location);
+            if (json == null || !json.isJsonObject() || !json.getAsJsonObject().has(KEY_NODE)
+                    || !json.getAsJsonObject().has(KEY_ARTIFACTS)) {
+                return null;
+            }
+            final String manifestNode = json.getAsJsonObject().get(KEY_NODE).getAsString();
+            final List<Publication> publications = new ArrayList<>();
+            for (final Map.Entry<String, JsonElement> entry : json.getAsJsonObject().getAsJsonObject(KEY_ARTIFACTS).entrySet()) {
+                final JsonElement artifactGeneration = entry.getValue().getAsJsonObject().get(KEY_GENERATION);
+                if (artifactGeneration == null) {
+                    return null;
+                }
+                publications.add(new Publication(manifestNode, entry.getKey(), artifactGeneration.getAsLong()));
+            }
+            return publications;
+        } catch (final JsonParseException | IllegalStateException | UnsupportedOperationException | NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private synchronized void observe(final List<Publication> publications) {
+        for (final Publication publication : publications) {
+            highestSeen = Math.max(highestSeen, publication.generation());
+        }
+    }
+
+    private Location manifestLocation(final String manifestNode) {
+        return NODES.resolve(FileNames.encode(manifestNode) + EXTENSION);
+    }
+
+    private Location snapshotLocation(final String publisher, final String artifactConfigId) {
+        return SNAPSHOTS.resolve(FileNames.encode(publisher)).resolve(FileNames.encode(artifactConfigId) + EXTENSION);
+    }
+
+    private JsonObject serialize(final PomVersionedEntry version) {
+        final JsonObject pom = new JsonObject();
+        version.pom().forEach(pom::addProperty);
+        final JsonObject json = new JsonObject();
+        json.addProperty(KEY_GROUP, version.group());
+        json.addProperty(KEY_MAVEN, version.maven());
+        json.addProperty(KEY_JAR, version.jarLocation().toString());
+        json.add(KEY_POM, pom);
+        final JarDetails jar = version.jar();
+        if (jar != null) {
+            final JsonObject details = new JsonObject();
+            details.addProperty(KEY_SIZE, jar.size());
+            details.addProperty(KEY_LAST_MODIFIED, jar.lastModified());
+            details.addProperty(KEY_SHA1, jar.sha1());
+            details.addProperty(KEY_SHA256, jar.sha256());
+            json.add(KEY_JAR_DETAILS, details);
+        }
+        return json;
+    }
+
+    private PomVersionedEntry deserialize(final Artifact artifact, final JsonObject json) {
+        final Map<String, String> pom = new HashMap<>();
+        json.getAsJsonObject(KEY_POM).entrySet().forEach(entry -> pom.put(entry.getKey(), entry.getValue().getAsString()));
+        final JsonObject details = json.has(KEY_JAR_DETAILS) ? json.getAsJsonObject(KEY_JAR_DETAILS) : null;
+        final JarDetails jar = details == null ? null : new JarDetails(details.get(KEY_SIZE).getAsLong(),
+                details.get(KEY_LAST_MODIFIED).getAsLong(), optionalString(details, KEY_SHA1), optionalString(details, KEY_SHA256));
+        return new PomVersionedEntry(artifact, json.get(KEY_GROUP).getAsString(), json.get(KEY_MAVEN).getAsString(),
+                pom, Location.of(json.get(KEY_JAR).getAsString()), jar);
+    }
+
+    @Nullable
+    private static String optionalString(final JsonObject json, final String key) {
+        final JsonElement element = json.get(key);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private void write(final Location location, final JsonElement json) throws IOException {
+        final byte[] bytes = gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+        final Result<?, ErrorResponse> result = storageProvider.putFile(location, new ByteArrayInputStream(bytes));
+        if (result.isErr()) {
+            throw new IOException("Could not write \"" + location + "\": " + result.getError().getMessage());
+        }
+    }
+
+    private void remove(final Location location) throws IOException {
+        final Result<?, ErrorResponse> result = storageProvider.removeFile(location);
+        if (result.isErr() && storageProvider.exists(location)) {
+            throw new IOException("Could not delete \"" + location + "\": " + result.getError().getMessage());
+        }
+    }
+
+    @Nullable
+    private JsonElement readJson(final Location location) throws IOException {
+        if (!storageProvider.exists(location)) {
+            return null;
+        }
+        final Result<InputStream, ErrorResponse> file = storageProvider.getFile(location);
+        if (file.isErr()) {
+            if (!storageProvider.exists(location)) {
+                return null;
+            }
+            throw new IOException("Could not read \"" + location + "\": " + file.getError().getMessage());
+        }
+        try (Reader reader = new InputStreamReader(file.get(), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, JsonElement.class);
+        }
+    }
+
+    /**
+     * A snapshot of an artifact published by a node.
+     *
+     * @param node             the id of the node that published the snapshot
+     * @param artifactConfigId the artifact config id of the snapshot
+     * @param generation       the Lamport generation of the snapshot
+     */
+    public record Publication(String node, String artifactConfigId, long generation) {
+
+        /**
+         * Orders publications of the same artifact by their generation and the node id as tie-breaker,
+         * so all nodes agree on the most recent one.
+         */
+        public static final Comparator<Publication> RECENCY = Comparator.comparingLong(Publication::generation)
+                .thenComparing(Publication::node);
+    }
+}
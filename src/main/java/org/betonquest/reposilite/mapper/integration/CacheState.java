@@ -0,0 +1,24 @@
+package org.betonquest.reposilite.mapper.integration;
+
+/**
+ * The state of an artifact's versions in the {@link ArtifactsVersionsCache}.
+ */
+public enum CacheState {
+
+    /**
+     * The artifact is known but its versions were never cached.
+     */
+    COLD,
+    /**
+     * The versions are being rebuilt. Previously cached versions are still served.
+     */
+    BUILDING,
+    /**
+     * The versions were cached successfully by the last rebuild.
+     */
+    READY,
+    /**
+     * The last rebuild failed. Previously cached versions are still served.
+     */
+    FAILED
+}
@@ -0,0 +1,148 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounded least-recently-used cache of values extracted from poms, addressed by the hash of the pom content.
+ * <p>
+ * Consecutive snapshot builds often deploy byte-identical poms, which are extracted only once per set of xpath entries.
+ */
+public class ExtractionCache {
+
+    /**
+     * The algorithm hashing the pom content.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * The extracted values in access order.
+     */
+    private final Map<Key, Map<String, String>> entries;
+
+    /**
+     * Supplies the maximum number of cached extractions.
+     */
+    private final IntSupplier maxSize;
+
+    /**
+     * The number of cache hits.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Constructor for the ExtractionCache.
+     *
+     * @param maxSize supplies the maximum number of cached extractions, a value below one disables the cache
+     */
+    public ExtractionCache(final IntSupplier maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new AtomicLong();
+    }
+
+    /**
+     * Creates a digest hashing pom content for {@link Key#of(List, boolean, String, MessageDigest)}.
+     *
+     * @return a new digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(ALGORITHM + " is required to be supported by every JVM", exception);
+        }
+    }
+
+    /**
+     * Returns the values extracted from identical content with the same xpath entries.
+     *
+     * @param key the key of the content
+     * @return the extracted values or null
+     */
+    @Nullable
+    public Map<String, String> get(final Key key) {
+        final Map<String, String> values;
+        synchronized (entries) {
+            values = entries.get(key);
+        }
+        if (values != null) {
+            hits.incrementAndGet();
+        }
+        return values;
+    }
+
+    /**
+     * Caches the values extracted from content.
+     *
+     * @param key    the key of the content
+     * @param values the extracted values, must not be modified afterward
+     */
+    public void put(final Key key, final Map<String, String> values) {
+        final int limit = maxSize.getAsInt();
+        if (limit < 1) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, values);
+            while (entries.size() > limit) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Removes a cached extraction, for example because a parent pom it was resolved with changed.
+     *
+     * @param key the key of the content
+     */
+    public void remove(final Key key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The address of extracted values.
+     * Effective values also depend on the parent poms in the repository, so identical content in different repositories
+     * is only shared if the values were extracted from the content alone.
+     *
+     * @param xPaths      the xpath entries the values were extracted with
+     * @param effective   whether the values were resolved with the parent poms and properties
+     * @param repository  the repository the parent poms were resolved in or null if the values are not effective
+     * @param contentHash the hex encoded hash of the pom content
+     */
+    public record Key(List<XPathEntry> xPaths, boolean effective, @Nullable String repository, String contentHash) {
+
+        /**
+         * Creates the key of content hashed by a digest.
+         *
+         * @param xPaths     the xpath entries the values are extracted with
+         * @param effective  whether the values are resolved with the parent poms and properties
+         * @param repository the repository of the pom
+         * @param digest     the digest the whole content was passed through, is reset
+         * @return the key
+         */
+        public static Key of(final List<XPathEntry> xPaths, final boolean effective, final String repository, final MessageDigest digest) {
+            return new Key(xPaths, effective, effective ? repository : null, HexFormat.of().formatHex(digest.digest()));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reversible encoding of ids into file names.
+ * <p>
+ * Letters, digits, {@code _} and {@code -} are kept, every other byte of the UTF-8 representation is percent-encoded,
+ * so distinct ids like {@code bq:foo} and {@code bq_foo} never share a file and no id escapes its directory.
+ */
+final class FileNames {
+
+    /**
+     * The hexadecimal digits of the percent-encoding.
+     */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private FileNames() {
+    }
+
+    /**
+     * Encodes an id into a file name.
+     *
+     * @param id the id to encode
+     * @return the file name, unique for the id
+     */
+    static String encode(final String id) {
+        final StringBuilder name = new StringBuilder(id.length());
+        for (final byte value : id.getBytes(StandardCharsets.UTF_8)) {
+            final char character = (char) (value & 0xFF);
+            if (character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z'
+                    || character >= '0' && character <= '9' || character == '_' || character == '-') {
+                name.append(character);
+            } else {
+                name.append('%').append(HEX_DIGITS[(value & 0xF0) >> 4]).append(HEX_DIGITS[value & 0x0F]);
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The default {@link VersionStore} keeping every index on the heap. Nothing survives a restart.
+ */
+public class HeapVersionStore implements VersionStore {
+
+    /**
+     * Constructor for the HeapVersionStore.
+     */
+    public HeapVersionStore() {
+        // Empty
+    }
+
+    @Override
+    public VersionIndex store(final Artifact artifact, final VersionIndex index) {
+        return index;
+    }
+
+    @Override
+    @Nullable
+    public VersionIndex load(final Artifact artifact, final long generation) {
+        return null;
+    }
+
+    @Override
+    public void delete(final String artifactConfigId) {
+        // Nothing stored
+    }
+}
@@ -0,0 +1,31 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Details of the jar of a version, captured while the version is read, so clients do not need to request them separately.
+ *
+ * @param size         the size of the jar in bytes
+ * @param lastModified the last modification time in milliseconds since the epoch or -1 if unknown
+ * @param sha1         the content of the sha1 checksum file or null if it does not exist
+ * @param sha256       the content of the sha256 checksum file or null if it does not exist
+ */
+public record JarDetails(long size, long lastModified, @Nullable String sha1, @Nullable String sha256) {
+
+    /**
+     * Extracts the checksum from the content of a checksum file.
+     * Some tools append the file name after the checksum, which is dropped.
+     *
+     * @param content the content of the checksum file
+     * @return the checksum or null if the content is empty
+     */
+    @Nullable
+    public static String checksum(final String content) {
+        final String trimmed = content.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        final int whitespace = trimmed.indexOf(' ');
+        return whitespace < 0 ? trimmed : trimmed.substring(0, whitespace);
+    }
+}
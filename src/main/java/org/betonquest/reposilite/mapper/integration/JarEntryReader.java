@@ -0,0 +1,395 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.shared.ErrorResponse;
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.Location;
+import com.reposilite.storage.filesystem.FileSystemStorageProvider;
+import panda.std.Result;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads single files from a jar in the storage without reading the whole jar.
+ * <p>
+ * On a storage that seeks when skipping, like the file system, a bounded window at the end of the jar is read first.
+ * It contains the zip central directory in all but huge jars, and also the requested files if they are near the end.
+ * Requested files before the window are read in a second pass that skips everything in between.
+ * <p>
+ * Skipping on any other storage, like object storages, streams the skipped bytes anyway. There the local file headers
+ * are read in a single forward pass that stops as soon as all requested files were read, which is usually close to
+ * the start of the jar, as descriptors like {@code plugin.yml} and {@code META-INF/MANIFEST.MF} come first.
+ * <p>
+ * Zip64 jars, encrypted entries and compression methods other than stored and deflated are not supported.
+ */
+public class JarEntryReader {
+
+    /**
+     * The signature of the end of central directory record.
+     */
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+    /**
+     * The signature of a central directory file header.
+     */
+    private static final int CENTRAL_FILE_HEADER = 0x02014b50;
+
+    /**
+     * The signature of a local file header.
+     */
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+
+    /**
+     * The size of the window read at the end of the jar on a seekable storage.
+     */
+    private static final int TAIL_WINDOW_SIZE = 256 * 1024;
+
+    /**
+     * The size of the end of central directory record without its comment.
+     */
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+    /**
+     * The maximum size of the zip file comment.
+     */
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    /**
+     * The size of a central directory file header without its variable fields.
+     */
+    private static final int CENTRAL_FILE_HEADER_SIZE = 46;
+
+    /**
+     * The size of a local file header without its variable fields.
+     */
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+    /**
+     * The maximum size of a central directory read into memory.
+     */
+    private static final int MAX_DIRECTORY_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The maximum size of a file read from the jar.
+     */
+    private static final int MAX_ENTRY_SIZE = 1024 * 1024;
+
+    /**
+     * The value of a size or offset moved to the zip64 extra field.
+     */
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    /**
+     * The compression method of stored files.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * The compression method of deflated files.
+     */
+    private static final int DEFLATED = 8;
+
+    /**
+     * The storage containing the jars.
+     */
+    private final StorageProvider storage;
+
+    /**
+     * The metrics to record storage calls and read bytes in.
+     */
+    private final RebuildMetrics metrics;
+
+    /**
+     * Whether skipping bytes of a file in the storage seeks instead of reading them.
+     */
+    private final boolean seekable;
+
+    /**
+     * Constructor for the JarEntryReader.
+     *
+     * @param storage the storage containing the jars
+     * @param metrics the metrics to record storage calls and read bytes in
+     */
+    public JarEntryReader(final StorageProvider storage, final RebuildMetrics metrics) {
+        this(storage, metrics, storage instanceof FileSystemStorageProvider);
+    }
+
+    /**
+     * Constructor for the JarEntryReader.
+     *
+     * @param storage  the storage containing the jars
+     * @param metrics  the metrics to record storage calls and read bytes in
+     * @param seekable whether skipping bytes of a file in the storage seeks instead of reading them
+     */
+    /*default*/ JarEntryReader(final StorageProvider storage, final RebuildMetrics metrics, final boolean seekable) {
+        this.storage = storage;
+        this.metrics = metrics;
+        this.seekable = seekable;
+    }
+
+    /**
+     * Reads the content of files in a jar.
+     *
+     * @param jar   the location of the jar
+     * @param size  the size of the jar in bytes
+     * @param paths the paths of the files inside the jar
+     * @return the content of each file found in the jar by its path
+     * @throws IOException if the jar could not be read or is not a supported zip file
+     */
+    public Map<String, byte[]> read(final Location jar, final long size, final Collection<String> paths) throws IOException {
+        return seekable ? readFromDirectory(jar, size, paths) : readForward(jar, paths);
+    }
+
+    private Map<String, byte[]> readFromDirectory(final Location jar, final long size, final Collection<String> paths) throws IOException {
+        final int tailSize = (int) Math.min(size, TAIL_WINDOW_SIZE);
+        final long tailStart = size - tailSize;
+        final ByteBuffer tail = readRange(jar, tailStart, tailSize);
+        final int end = findEndOfCentralDirectory(tail);
+        if (end < 0) {
+            throw new IOException("No zip end of central directory found in " + jar);
+        }
+        final long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        final long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+        if (directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) {
+            throw new IOException("Zip64 jars are not supported: " + jar);
+        }
+        if (directorySize > MAX_DIRECTORY_SIZE || directoryOffset + directorySize > size) {
+            throw new IOException("Invalid zip central directory in " + jar);
+        }
+        final ByteBuffer directory = directoryOffset >= tailStart
+                ? tail.slice((int) (directoryOffset - tailStart), (int) directorySize).order(ByteOrder.LITTLE_ENDIAN)
+                : readRange(jar, directoryOffset, (int) directorySize);
+        final List<Entry> entries = findEntries(directory, paths);
+        return entries.isEmpty() ? Map.of() : readEntries(jar, entries, tail, tailStart);
+    }
+
+    private Map<String, byte[]> readForward(final Location jar, final Collection<String> paths) throws IOException {
+        final Map<String, byte[]> contents = new HashMap<>();
+        try (ZipInputStream input = new ZipInputStream(new MeteredInputStream(open(jar)), StandardCharsets.UTF_8)) {
+            ZipEntry entry = input.getNextEntry();
+            if (entry == null) {
+                throw new IOException("No zip local file header found in " + jar);
+            }
+            while (entry != null && contents.size() < paths.size()) {
+                if (paths.contains(entry.getName()) && !contents.containsKey(entry.getName())) {
+                    final byte[] content = input.readNBytes(MAX_ENTRY_SIZE + 1);
+                    if (content.length > MAX_ENTRY_SIZE) {
+                        throw new IOException("Zip entry " + entry.getName() + " exceeds the maximum size of " + MAX_ENTRY_SIZE + " bytes");
+                    }
+                    contents.put(entry.getName(), content);
+                }
+                entry = contents.size() < paths.size() ? input.getNextEntry() : null;
+            }
+        }
+        return contents;
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer tail) {
+        final int lowest = Math.max(0, tail.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+        for (int offset = tail.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; offset >= lowest; offset--) {
+            if (tail.getInt(offset) == END_OF_CENTRAL_DIRECTORY) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Entry> findEntries(final ByteBuffer directory, final Collection<String> paths) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        int offset = 0;
+        while (offset + CENTRAL_FILE_HEADER_SIZE <= directory.limit() && entries.size() < paths.size()) {
+            if (directory.getInt(offset) != CENTRAL_FILE_HEADER) {
+                throw new IOException("Invalid zip central directory file header");
+            }
+            final int nameLength = Short.toUnsignedInt(directory.getShort(offset + 28));
+            final int extraLength = Short.toUnsignedInt(directory.getShort(offset + 30));
+            final int commentLength = Short.toUnsignedInt(directory.getShort(offset + 32));
+            if (offset + CENTRAL_FILE_HEADER_SIZE + nameLength > directory.limit()) {
+                throw new IOException("Truncated zip central directory");
+            }
+            final byte[] name = new byte[nameLength];
+            directory.get(offset + CENTRAL_FILE_HEADER_SIZE, name);
+            final String path = new String(name, StandardCharsets.UTF_8);
+            if (paths.contains(path)) {
+                entries.add(new Entry(path,
+                        Short.toUnsignedInt(directory.getShort(offset + 8)),
+                        Short.toUnsignedInt(directory.getShort(offset + 10)),
+                        Integer.toUnsignedLong(directory.getInt(offset + 20)),
+                        Integer.toUnsignedLong(directory.getInt(offset + 24)),
+                        Integer.toUnsignedLong(directory.getInt(offset + 42))));
+            }
+            offset += CENTRAL_FILE_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        entries.sort(Comparator.comparingLong(Entry::offset));
+        return entries;
+    }
+
+    private Map<String, byte[]> readEntries(final Location jar, final List<Entry> entries, final ByteBuffer tail, final long tailStart)
+            throws IOException {
+        final Map<String, byte[]> contents = new HashMap<>();
+        final List<Entry> beforeTail = new ArrayList<>();
+        for (final Entry entry : entries) {
+            entry.check();
+            if (entry.offset() < tailStart) {
+                beforeTail.add(entry);
+            } else {
+                final int offset = (int) (entry.offset() - tailStart);
+                if (offset + LOCAL_FILE_HEADER_SIZE > tail.limit()) {
+                    throw new IOException("Truncated zip local file header of " + entry.path() + " in " + jar);
+                }
+                final ByteBuffer header = tail.slice(offset, LOCAL_FILE_HEADER_SIZE);
+                final int dataOffset = offset + LOCAL_FILE_HEADER_SIZE + variableLength(header, entry, jar);
+                if (dataOffset + entry.compressedSize() > tail.limit()) {
+                    throw new IOException("Truncated zip entry " + entry.path() + " in " + jar);
+                }
+                final byte[] compressed = new byte[(int) entry.compressedSize()];
+                tail.get(dataOffset, compressed);
+                contents.put(entry.path(), decompress(entry, compressed));
+            }
+        }
+        if (beforeTail.isEmpty()) {
+            return contents;
+        }
+        try (InputStream input = open(jar)) {
+            long position = 0;
+            for (final Entry entry : beforeTail) {
+                input.skipNBytes(entry.offset() - position);
+                final ByteBuffer header = ByteBuffer.wrap(readFully(input, LOCAL_FILE_HEADER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+                final int variableLength = variableLength(header, entry, jar);
+                input.skipNBytes(variableLength);
+                final byte[] compressed = readFully(input, (int) entry.compressedSize());
+                position = entry.offset() + LOCAL_FILE_HEADER_SIZE + variableLength + entry.compressedSize();
+                contents.put(entry.path(), decompress(entry, compressed));
+            }
+        }
+        return contents;
+    }
+
+    private static int variableLength(final ByteBuffer header, final Entry entry, final Location jar) throws IOException {
+        final ByteBuffer littleEndian = header.order(ByteOrder.LITTLE_ENDIAN);
+        if (littleEndian.getInt(0) != LOCAL_FILE_HEADER) {
+            throw new IOException("Invalid zip local file header of " + entry.path() + " in " + jar);
+        }
+        return Short.toUnsignedInt(littleEndian.getShort(26)) + Short.toUnsignedInt(littleEndian.getShort(28));
+    }
+
+    private static byte[] decompress(final Entry entry, final byte[] compressed) throws IOException {
+        return entry.method() == STORED ? compressed : inflate(compressed, (int) entry.size());
+    }
+
+    private static byte[] inflate(final byte[] compressed, final int size) throws IOException {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            final byte[] content = new byte[size];
+            int inflated = 0;
+            while (inflated < size && !inflater.finished()) {
+                final int count = inflater.inflate(content, inflated, size - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != size) {
+                throw new IOException("Inflated " + inflated + " instead of " + size + " bytes");
+            }
+            return content;
+        } catch (final DataFormatException exception) {
+            throw new IOException("Invalid deflated zip entry", exception);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer readRange(final Location jar, final long offset, final int length) throws IOException {
+        try (InputStream input = open(jar)) {
+            input.skipNBytes(offset);
+            return ByteBuffer.wrap(readFully(input, length)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private InputStream open(final Location jar) throws IOException {
+        metrics.recordStorageCall();
+        final Result<InputStream, ErrorResponse> file = storage.getFile(jar);
+        if (file.isErr()) {
+            throw new IOException("Could not open " + jar + ": " + file.getError().getMessage());
+        }
+        return file.get();
+    }
+
+    private byte[] readFully(final InputStream input, final int length) throws IOException {
+        final byte[] bytes = input.readNBytes(length);
+        metrics.recordBytesRead(bytes.length);
+        if (bytes.length != length) {
+            throw new IOException("Unexpected end of zip file");
+        }
+        return bytes;
+    }
+
+    /**
+     * Records every byte read from the storage in the metrics.
+     */
+    private final class MeteredInputStream extends FilterInputStream {
+
+        private MeteredInputStream(final InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = super.read();
+            if (value >= 0) {
+                metrics.recordBytesRead(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                metrics.recordBytesRead(count);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * A requested file as listed in the central directory.
+     *
+     * @param path           the path of the file inside the jar
+     * @param flags          the general purpose flags
+     * @param method         the compression method
+     * @param compressedSize the compressed size in bytes
+     * @param size           the uncompressed size in bytes
+     * @param offset         the offset of the local file header
+     */
+    private record Entry(String path, int flags, int method, long compressedSize, long size, long offset) {
+
+        private void check() throws IOException {
+            if ((flags & 1) != 0) {
+                throw new IOException("Encrypted zip entry " + path + " is not supported");
+            }
+            if (method != STORED && method != DEFLATED) {
+                throw new IOException("Compression method " + method + " of zip entry " + path + " is not supported");
+            }
+            if (compressedSize > MAX_ENTRY_SIZE || size > MAX_ENTRY_SIZE || offset == ZIP64_MAGIC) {
+                throw new IOException("Zip entry " + path + " exceeds the maximum size of " + MAX_ENTRY_SIZE + " bytes");
+            }
+        }
+    }
+}
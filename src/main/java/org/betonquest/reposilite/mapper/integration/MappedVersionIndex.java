@@ -0,0 +1,472 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link VersionIndex} whose versions are kept outside the heap in a buffer with a compact fixed layout,
+ * usually a memory-mapped file written by the {@link MappedVersionStore}.
+ * <p>
+ * Versions are decoded from the buffer on access and never copied to the heap as a whole.
+ * Extracted values are decoded only when read, and the accessors by position decode single fields without creating
+ * the version at all, so lookups by value and projections only touch the slots they need.
+ * The layout, all numbers are big endian ints unless noted otherwise:
+ * <pre>
+ * header:  magic, format, version count, key count
+ * keys:    per extracted value: id offset, id length, definition offset, definition length
+ * records: per version: group offset, group length, maven offset, maven length, jar offset, jar length,
+ *          jar size as long or -1 if absent, jar modification time as long,
+ *          sha1 offset or -1 if absent, sha1 length, sha256 offset or -1 if absent, sha256 length
+ * values:  per version and extracted value: value offset or -1 if absent, value length
+ * pool:    all strings UTF-8 encoded and deduplicated, referenced by their absolute offset
+ * </pre>
+ */
+public final class MappedVersionIndex extends VersionIndex {
+
+    /**
+     * The magic number at the start of the layout.
+     */
+    private static final int MAGIC = 0x504D_5649;
+
+    /**
+     * The format version of the layout.
+     */
+    private static final int FORMAT = 2;
+
+    /**
+     * The size of the header.
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The size of a key.
+     */
+    private static final int KEY_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The size of a version record.
+     */
+    private static final int RECORD_SIZE = 10 * Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * The size of a value slot.
+     */
+    private static final int SLOT_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * The versions backed by the buffer.
+     */
+    private final MappedEntries mappedEntries;
+
+    private MappedVersionIndex(final long generation, final MappedEntries mappedEntries) {
+        super(generation, mappedEntries);
+        this.mappedEntries = mappedEntries;
+    }
+
+    /**
+     * Opens an index on a buffer containing the layout.
+     *
+     * @param generation the generation of the cache this index is created in
+     * @param artifact   the artifact the versions belong to
+     * @param buffer     the buffer containing the layout
+     * @return the index or null if the layout was written for other extracted values than the artifact's
+     * @throws IOException if the buffer does not contain a valid layout
+     */
+    @Nullable
+    public static MappedVersionIndex open(final long generation, final Artifact artifact, final ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT) {
+            throw new IOException("Unknown version index format");
+        }
+        final int count = buffer.getInt(2 * Integer.BYTES);
+        final int keyCount = buffer.getInt(3 * Integer.BYTES);
+        if (count < 0 || keyCount < 0
+                || (long) HEADER_SIZE + (long) keyCount * KEY_SIZE + (long) count * (RECORD_SIZE + (long) keyCount * SLOT_SIZE) > buffer.capacity()) {
+            throw new IOException("Truncated version index");
+        }
+        final List<Map.Entry<String, String>> definitions = List.copyOf(artifact.extractedValues().entrySet());
+        if (definitions.size() != keyCount) {
+            return null;
+        }
+        final String[] keys = new String[keyCount];
+        for (int key = 0; key < keyCount; key++) {
+            final int offset = HEADER_SIZE + key * KEY_SIZE;
+            keys[key] = string(buffer, offset);
+            final Map.Entry<String, String> expected = definitions.get(key);
+            if (!expected.getKey().equals(keys[key]) || !expected.getValue().equals(string(buffer, offset + SLOT_SIZE))) {
+                return null;
+            }
+        }
+        return new MappedVersionIndex(generation, new MappedEntries(artifact, buffer, count, keys));
+    }
+
+    /**
+     * Encodes the versions of an index in the layout.
+     *
+     * @param artifact the artifact the versions belong to
+     * @param index    the index to encode
+     * @return the encoded layout
+     */
+    public static ByteBuffer encode(final Artifact artifact, final VersionIndex index) {
+        final Map<String, String> definitions = artifact.extractedValues();
+        final List<PomVersionedEntry> entries = index.entries();
+        final int keyCount = definitions.size();
+        final int poolOffset = HEADER_SIZE + keyCount * KEY_SIZE + entries.size() * (RECORD_SIZE + keyCount * SLOT_SIZE);
+        final StringPool pool = new StringPool(poolOffset);
+
+        final ByteBuffer header = ByteBuffer.allocate(poolOffset);
+        header.putInt(MAGIC).putInt(FORMAT).putInt(entries.size()).putInt(keyCount);
+        for (final Map.Entry<String, String> definition : definitions.entrySet()) {
+            pool.put(header, definition.getKey());
+            pool.put(header, definition.getValue());
+        }
+        for (final PomVersionedEntry entry : entries) {
+            pool.put(header, entry.group());
+            pool.put(header, entry.maven());
+            pool.put(header, entry.jarLocation().toString());
+            final JarDetails jar = entry.jar();
+            header.putLong(jar == null ? -1 : jar.size()).putLong(jar == null ? -1 : jar.lastModified());
+            putOptional(pool, header, jar == null ? null : jar.sha1());
+            putOptional(pool, header, jar == null ? null : jar.sha256());
+        }
+        for (final PomVersionedEntry entry : entries) {
+            for (final String key : definitions.keySet()) {
+                putOptional(pool, header, entry.pom().get(key));
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(poolOffset + pool.size());
+        buffer.put(header.flip());
+        pool.strings.keySet().forEach(string -> buffer.put(string.getBytes(StandardCharsets.UTF_8)));
+        return buffer.flip();
+    }
+
+    private static void putOptional(final StringPool pool, final ByteBuffer slots, @Nullable final String value) {
+        if (value == null) {
+            slots.putInt(-1).putInt(0);
+        } else {
+            pool.put(slots, value);
+        }
+    }
+
+    @Nullable
+    private static String optionalString(final ByteBuffer buffer, final int slot) {
+        return buffer.getInt(slot) < 0 ? null : string(buffer, slot);
+    }
+
+    private static String string(final ByteBuffer buffer, final int slot) {
+        final int offset = buffer.getInt(slot);
+        final int length = buffer.getInt(slot + Integer.BYTES);
+        final byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String group(final int position) {
+        return string(mappedEntries.buffer, mappedEntries.record(position));
+    }
+
+    @Override
+    public String maven(final int position) {
+        return string(mappedEntries.buffer, mappedEntries.record(position) + SLOT_SIZE);
+    }
+
+    @Override
+    public void forEachValue(final int position, final BiConsumer<String, String> consumer) {
+        final int values = mappedEntries.values(position);
+        for (int key = 0; key < mappedEntries.keys.length; key++) {
+            final int slot = values + key * SLOT_SIZE;
+            if (mappedEntries.buffer.getInt(slot) >= 0) {
+                consumer.accept(mappedEntries.keys[key], string(mappedEntries.buffer, slot));
+            }
+        }
+    }
+
+    @Override
+    protected ArtifactVersion groupAt(final int position) {
+        return new DefaultArtifactVersion(group(position));
+    }
+
+    /**
+     * The versions decoded on access from the buffer.
+     */
+    private static final class MappedEntries extends AbstractList<PomVersionedEntry> implements RandomAccess {
+
+        /**
+         * The artifact the versions belong to.
+         */
+        private final Artifact artifact;
+
+        /**
+         * The buffer containing the layout.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The number of versions.
+         */
+        private final int count;
+
+        /**
+         * The xpath entry ids in the order of the value slots.
+         */
+        private final String[] keys;
+
+        /**
+         * The offset of the first version record.
+         */
+        private final int recordsOffset;
+
+        /**
+         * The offset of the first value slot.
+         */
+        private final int valuesOffset;
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        private MappedEntries(final Artifact artifact, final ByteBuffer buffer, final int count, final String[] keys) {
+            super();
+            this.artifact = artifact;
+            this.buffer = buffer;
+            this.count = count;
+            this.keys = keys;
+            this.recordsOffset = HEADER_SIZE + keys.length * KEY_SIZE;
+            this.valuesOffset = recordsOffset + count * RECORD_SIZE;
+        }
+
+        private int record(final int position) {
+            Objects.checkIndex(position, count);
+            return recordsOffset + position * RECORD_SIZE;
+        }
+
+        private int values(final int position) {
+            Objects.checkIndex(position, count);
+            return valuesOffset + position * keys.length * SLOT_SIZE;
+        }
+
+        @Override
+        public PomVersionedEntry get(final int index) {
+            final int record = record(index);
+            final Map<String, String> pom = new MappedValues(buffer, keys, values(index));
+            final int details = record + 3 * SLOT_SIZE;
+            final long jarSize = buffer.getLong(details);
+            final JarDetails jar = jarSize < 0 ? null : new JarDetails(jarSize, buffer.getLong(details + Long.BYTES),
+                    optionalString(buffer, details + 2 * Long.BYTES), optionalString(buffer, details + 2 * Long.BYTES + SLOT_SIZE));
+            return new PomVersionedEntry(artifact, string(buffer, record), string(buffer, record + SLOT_SIZE), pom,
+                    Location.of(string(buffer, record + 2 * SLOT_SIZE)), jar);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * The extracted values of a single version, decoded from its value slots on access.
+     */
+    private static final class MappedValues extends AbstractMap<String, String> {
+
+        /**
+         * The buffer containing the layout.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The xpath entry ids in the order of the value slots.
+         */
+        private final String[] keys;
+
+        /**
+         * The offset of the first value slot of the version.
+         */
+        private final int values;
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        private MappedValues(final ByteBuffer buffer, final String[] keys, final int values) {
+            super();
+            this.buffer = buffer;
+            this.keys = keys;
+            this.values = values;
+        }
+
+        private boolean present(final int key) {
+            return buffer.getInt(values + key * SLOT_SIZE) >= 0;
+        }
+
+        @Override
+        @Nullable
+        public String get(final Object key) {
+            for (int position = 0; position < keys.length; position++) {
+                if (keys[position].equals(key)) {
+                    return present(position) ? string(buffer, values + position * SLOT_SIZE) : null;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            for (int position = 0; position < keys.length; position++) {
+                if (keys[position].equals(key)) {
+                    return present(position);
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(final int from) {
+                            int position = from;
+                            while (position < keys.length && !present(position)) {
+                                position++;
+                            }
+                            return position;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (next >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            final int position = next;
+                            next = advance(position + 1);
+                            return new MappedValue(position);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int position = 0; position < keys.length; position++) {
+                        if (present(position)) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        /**
+         * A single extracted value, decoded only when its value is requested.
+         */
+        private final class MappedValue implements Entry<String, String> {
+
+            /**
+             * The position of the value slot.
+             */
+            private final int position;
+
+            private MappedValue(final int position) {
+                this.position = position;
+            }
+
+            @Override
+            public String getKey() {
+                return keys[position];
+            }
+
+            @Override
+            public String getValue() {
+                return string(buffer, values + position * SLOT_SIZE);
+            }
+
+            @Override
+            public String setValue(final String value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean equals(final Object other) {
+                return other instanceof Entry<?, ?> entry
+                        && getKey().equals(entry.getKey()) && getValue().equals(entry.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return getKey().hashCode() ^ getValue().hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
+        }
+    }
+
+    /**
+     * Deduplicated strings of the pool in the order they are written.
+     */
+    private static final class StringPool {
+
+        /**
+         * The offset of each string.
+         */
+        private final Map<String, Integer> strings;
+
+        /**
+         * The offset of the first string.
+         */
+        private final int start;
+
+        /**
+         * The offset of the next string.
+         */
+        private int next;
+
+        private StringPool(final int start) {
+            this.strings = new LinkedHashMap<>();
+            this.start = start;
+            this.next = start;
+        }
+
+        private void put(final ByteBuffer slots, final String string) {
+            final int length = string.getBytes(StandardCharsets.UTF_8).length;
+            final Integer known = strings.get(string);
+            final int offset;
+            if (known == null) {
+                offset = next;
+                strings.put(string, offset);
+                next += length;
+            } else {
+                offset = known;
+            }
+            slots.putInt(offset).putInt(length);
+        }
+
+        private int size() {
+            return next - start;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link VersionStore} keeping every index in a memory-mapped file outside the heap, see {@link MappedVersionIndex}.
+ * <p>
+ * Files are replaced atomically, so readers of a previous mapping keep a consistent view until it is garbage collected.
+ * On startup, the files of a previous run are mapped directly without deserialization.
+ */
+public class MappedVersionStore implements VersionStore {
+
+    /**
+     * The file extension of stored indexes.
+     */
+    private static final String EXTENSION = ".idx";
+
+    /**
+     * The {@link PluginAdapter} of the PomMapperPlugin.
+     */
+    private final PluginAdapter<?, ?> plugin;
+
+    /**
+     * The directory containing the stored indexes.
+     */
+    private final Path directory;
+
+    /**
+     * Constructor for the MappedVersionStore.
+     *
+     * @param plugin    the {@link PluginAdapter} of the PomMapperPlugin
+     * @param directory the directory containing the stored indexes
+     */
+    public MappedVersionStore(final PluginAdapter<?, ?> plugin, final Path directory) {
+        this.plugin = plugin;
+        this.directory = directory;
+    }
+
+    @Override
+    public VersionIndex store(final Artifact artifact, final VersionIndex index) {
+        final Path file = file(artifact.id());
+        try {
+            Files.createDirectories(directory);
+            final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                final ByteBuffer buffer = MappedVersionIndex.encode(artifact, index);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final MappedVersionIndex mapped = MappedVersionIndex.open(index.generation(), artifact, map(file));
+            return mapped == null ? index : mapped;
+        } catch (final IOException exception) {
+            plugin.warn("Could not store versions of \"" + artifact.id() + "\" in \"" + file + "\", keeping them on the heap - " + exception.getMessage());
+            return index;
+        }
+    }
+
+    @Override
+    @Nullable
+    public VersionIndex load(final Artifact artifact, final long generation) {
+        final Path file = file(artifact.id());
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return MappedVersionIndex.open(generation, artifact, map(file));
+        } catch (final IOException exception) {
+            plugin.warn("Could not load versions of \"" + artifact.id() + "\" from \"" + file + "\" - " + exception.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void delete(final String artifactConfigId) {
+        try {
+            Files.deleteIfExists(file(artifactConfigId));
+        } catch (final IOException exception) {
+            plugin.warn("Could not delete stored versions of \"" + artifactConfigId + "\" - " + exception.getMessage());
+        }
+    }
+
+    private Path file(final String artifactConfigId) {
+        return directory.resolve(FileNames.encode(artifactConfigId) + EXTENSION);
+    }
+
+    private MappedByteBuffer map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.Map;
+
+/**
+ * Estimates the heap retained by cached versions.
+ * <p>
+ * The estimate assumes a 64-bit JVM with compressed object pointers and compact strings. Objects shared between
+ * versions, like the {@link org.betonquest.reposilite.mapper.settings.Artifact} and the xpath entry ids used as keys,
+ * are not included.
+ */
+public final class MemoryEstimator {
+
+    /**
+     * The size of an object header.
+     */
+    private static final int OBJECT_HEADER = 12;
+
+    /**
+     * The size of an array header.
+     */
+    private static final int ARRAY_HEADER = 16;
+
+    /**
+     * The size of a reference.
+     */
+    private static final int REFERENCE = 4;
+
+    /**
+     * The alignment of objects.
+     */
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * The size of a {@link java.util.HashMap} without its table.
+     */
+    private static final int HASH_MAP = 48;
+
+    /**
+     * The size of a {@link java.util.HashMap} node.
+     */
+    private static final int HASH_MAP_NODE = 32;
+
+    /**
+     * The estimated size of a parsed version including its items, as kept per entry by the {@link VersionIndex}.
+     */
+    private static final int PARSED_VERSION = 160;
+
+    /**
+     * The estimated size of a {@link MappedVersionIndex} on the heap, excluding the mapped versions.
+     */
+    private static final int MAPPED_INDEX = 128;
+
+    /**
+     * The largest char stored in a single byte by compact strings.
+     */
+    private static final char LATIN1_MAX = 0xFF;
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * Estimates the heap retained by an index including all its versions.
+     * Versions of a {@link MappedVersionIndex} are kept outside the heap and not included.
+     *
+     * @param index the index to estimate
+     * @return the estimated size in bytes
+     */
+    public static long estimate(final VersionIndex index) {
+        if (index instanceof MappedVersionIndex) {
+            return MAPPED_INDEX;
+        }
+        long bytes = align(OBJECT_HEADER + Long.BYTES + 2 * REFERENCE)
+                + array(index.size(), REFERENCE) * 2
+                + (long) index.size() * PARSED_VERSION;
+        for (final PomVersionedEntry entry : index.entries()) {
+            bytes += estimate(entry);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the heap retained by a single version.
+     *
+     * @param entry the version to estimate
+     * @return the estimated size in bytes
+     */
+    public static long estimate(final PomVersionedEntry entry) {
+        final JarDetails jar = entry.jar();
+        return align(OBJECT_HEADER + 6 * REFERENCE)
+                + string(entry.group())
+                + string(entry.maven())
+                + map(entry.pom())
+                + align(OBJECT_HEADER + REFERENCE) + string(entry.jarLocation().toString())
+                + (jar == null ? 0 : align(OBJECT_HEADER + 2 * Long.BYTES + 2 * REFERENCE)
+                + (jar.sha1() == null ? 0 : string(jar.sha1()))
+                + (jar.sha256() == null ? 0 : string(jar.sha256())));
+    }
+
+    private static long map(final Map<String, String> map) {
+        if (map.isEmpty()) {
+            return HASH_MAP;
+        }
+        final int capacity = Integer.highestOneBit(Math.max(1, (int) (map.size() / 0.75f)) * 2 - 1);
+        long bytes = HASH_MAP + array(capacity, REFERENCE) + (long) map.size() * HASH_MAP_NODE;
+        for (final String value : map.values()) {
+            bytes += value == null ? 0 : string(value);
+        }
+        return bytes;
+    }
+
+    private static long string(final String value) {
+        int coder = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > LATIN1_MAX) {
+                coder = 2;
+                break;
+            }
+        }
+        return align(OBJECT_HEADER + REFERENCE + Integer.BYTES + 2) + array(value.length(), coder);
+    }
+
+    private static long array(final int length, final int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,209 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized {@link PomModel}s of parent poms, shared by all versions and artifacts of a repository.
+ * <p>
+ * Many modules and thousands of versions usually share the same few parents, so each parent is read and parsed once.
+ * Parents not available in the repository are remembered as well.
+ * <p>
+ * For every parent the cache also remembers which versions of which artifacts were resolved through it, directly or
+ * through one of its own children, so a redeployed parent only invalidates the values that depend on it.
+ */
+public class ParentPomCache {
+
+    /**
+     * The maximum depth of a parent chain, protecting against cycles.
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Reads a pom from a repository.
+     */
+    private final PomReader reader;
+
+    /**
+     * The models of all read parents by their key.
+     */
+    private final Map<String, PomModel> models;
+
+    /**
+     * The keys of all parents not available in their repository.
+     */
+    private final Set<String> missing;
+
+    /**
+     * The keys of the cached parents whose own parent is the parent with the key.
+     */
+    private final Map<String, Set<String>> children;
+
+    /**
+     * The key of the direct parent each extraction was resolved with.
+     */
+    private final Map<ExtractionCache.Key, String> resolved;
+
+    /**
+     * The versions resolved directly with the parent with the key, with the extraction they were resolved by.
+     */
+    private final Map<String, Map<Dependent, ExtractionCache.Key>> dependents;
+
+    /**
+     * Constructor for the ParentPomCache.
+     *
+     * @param reader reads a pom from a repository
+     */
+    public ParentPomCache(final PomReader reader) {
+        this.reader = reader;
+        this.models = new ConcurrentHashMap<>();
+        this.missing = ConcurrentHashMap.newKeySet();
+        this.children = new ConcurrentHashMap<>();
+        this.resolved = new ConcurrentHashMap<>();
+        this.dependents = new HashMap<>();
+    }
+
+    /**
+     * Creates the model of a pom with its parent chain.
+     *
+     * @param repository the repository the pom is located in
+     * @param document   the parsed pom
+     * @param extraction the extraction the model is created for, remembered with the direct parent of the pom
+     * @return the model of the pom
+     */
+    public PomModel model(final String repository, final Document document, final ExtractionCache.Key extraction) {
+        final Location location = parentLocation(document);
+        if (location == null) {
+            return new PomModel(document, null);
+        }
+        final String key = key(repository, location);
+        resolved.put(extraction, key);
+        return new PomModel(document, parent(repository, location, key, 0));
+    }
+
+    /**
+     * Remembers that a version was extracted by an extraction, so it is invalidated together with the parents
+     * the extraction was resolved with. Extractions without parent are ignored.
+     *
+     * @param extraction       the extraction of the version, also if it was taken from the {@link ExtractionCache}
+     * @param artifactConfigId the artifact config id of the version
+     * @param pom              the location of the pom of the version
+     */
+    public synchronized void track(final ExtractionCache.Key extraction, final String artifactConfigId, final Location pom) {
+        final String key = resolved.get(extraction);
+        if (key != null) {
+            dependents.computeIfAbsent(key, k -> new HashMap<>()).put(new Dependent(artifactConfigId, pom), extraction);
+        }
+    }
+
+    @Nullable
+    private PomModel parent(final String repository, final Location location, final String key, final int depth) {
+        if (depth >= MAX_DEPTH) {
+            return null;
+        }
+        final PomModel known = models.get(key);
+        if (known != null || missing.contains(key)) {
+            return known;
+        }
+        final Document parentDocument = reader.read(repository, location);
+        if (parentDocument == null) {
+            missing.add(key);
+            return null;
+        }
+        final Location grandparentLocation = parentLocation(parentDocument);
+        PomModel grandparent = null;
+        if (grandparentLocation != null) {
+            final String grandparentKey = key(repository, grandparentLocation);
+            children.computeIfAbsent(grandparentKey, k -> ConcurrentHashMap.newKeySet()).add(key);
+            grandparent = parent(repository, grandparentLocation, grandparentKey, depth + 1);
+        }
+        final PomModel model = new PomModel(parentDocument, grandparent);
+        final PomModel previous = models.putIfAbsent(key, model);
+        return previous == null ? model : previous;
+    }
+
+    /**
+     * Forgets a cached parent pom, for example because it was deployed again.
+     * The models of its children are forgotten as well, together with everything remembered about the versions
+     * resolved with it or one of its children.
+     *
+     * @param repository the repository of the pom
+     * @param location   the location of the pom
+     * @return the versions resolved with the pom with the extractions they were resolved by,
+     * empty if the pom is no cached parent
+     */
+    public synchronized Map<Dependent, ExtractionCache.Key> invalidate(final String repository, final Location location) {
+        final Map<Dependent, ExtractionCache.Key> invalidated = new HashMap<>();
+        final Set<String> visited = new HashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        pending.add(key(repository, location));
+        while (!pending.isEmpty()) {
+            final String key = pending.poll();
+            if (!visited.add(key)) {
+                continue;
+            }
+            models.remove(key);
+            missing.remove(key);
+            final Map<Dependent, ExtractionCache.Key> resolvedWith = dependents.remove(key);
+            if (resolvedWith != null) {
+                invalidated.putAll(resolvedWith);
+                resolvedWith.values().forEach(resolved::remove);
+            }
+            final Set<String> childKeys = children.remove(key);
+            if (childKeys != null) {
+                pending.addAll(childKeys);
+            }
+        }
+        return invalidated;
+    }
+
+    @Nullable
+    private static Location parentLocation(final Document document) {
+        final String groupId = PomModel.projectValue(document, "parent", "groupId");
+        final String artifactId = PomModel.projectValue(document, "parent", "artifactId");
+        final String version = PomModel.projectValue(document, "parent", "version");
+        if (groupId == null || artifactId == null || version == null || version.contains("${")) {
+            return null;
+        }
+        return Location.of(groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom");
+    }
+
+    private static String key(final String repository, final Location location) {
+        return repository + ":" + location;
+    }
+
+    /**
+     * Reads and parses a pom from a repository.
+     */
+    @FunctionalInterface
+    public interface PomReader {
+
+        /**
+         * Reads and parses a pom.
+         *
+         * @param repository the repository of the pom
+         * @param location   the location of the pom
+         * @return the parsed pom or null if it is unavailable
+         */
+        @Nullable
+        Document read(String repository, Location location);
+    }
+
+    /**
+     * A version whose values were resolved with a parent.
+     *
+     * @param artifactConfigId the artifact config id of the version
+     * @param pom              the location of the pom of the version
+     */
+    public record Dependent(String artifactConfigId, Location pom) {
+    }
+}
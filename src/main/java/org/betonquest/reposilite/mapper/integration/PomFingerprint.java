@@ -0,0 +1,36 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.shared.ErrorResponse;
+import com.reposilite.storage.api.DocumentInfo;
+import com.reposilite.storage.api.FileDetails;
+import org.jetbrains.annotations.Nullable;
+import panda.std.Result;
+
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Cheap fingerprint of a pom file in the storage, used to detect changed files without reading them.
+ *
+ * @param size         the size of the file in bytes
+ * @param lastModified the last modification time in milliseconds since the epoch
+ */
+public record PomFingerprint(long size, long lastModified) {
+
+    /**
+     * Creates the fingerprint of a file from its details.
+     *
+     * @param details the result of looking up the file details
+     * @return the fingerprint or null if the details are unavailable or do not describe a file
+     */
+    @Nullable
+    public static PomFingerprint of(final Result<? extends FileDetails, ErrorResponse> details) {
+        if (details.isErr() || !(details.get() instanceof final DocumentInfo document)) {
+            return null;
+        }
+        final FileTime lastModified = document.getLastModifiedTime();
+        if (lastModified == null) {
+            return null;
+        }
+        return new PomFingerprint(document.getContentLength(), lastModified.toMillis());
+    }
+}
@@ -3,17 +3,20 @@ package org.betonquest.reposilite.mapper.integration;
 import com.reposilite.maven.MavenFacade;
 import com.reposilite.maven.Repository;
 import com.reposilite.maven.api.LookupRequest;
+import com.reposilite.maven.api.RepositoryVisibility;
 import com.reposilite.maven.api.ResolvedDocument;
 import com.reposilite.plugin.api.EventListener;
 import com.reposilite.plugin.api.Facade;
 import com.reposilite.plugin.api.ReposiliteInitializeEvent;
 import com.reposilite.shared.ErrorResponse;
 import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.DocumentInfo;
 import com.reposilite.storage.api.FileDetails;
 import com.reposilite.storage.api.FileType;
 import com.reposilite.storage.api.Location;
 import org.betonquest.reposilite.adapter.PluginAdapter;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.JarPathEntry;
 import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
 import org.betonquest.reposilite.mapper.settings.XPathEntry;
 import org.jetbrains.annotations.Nullable;
@@ -26,13 +29,24 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Base {@link Facade} for the PomMapperPlugin.
@@ -41,25 +55,50 @@ import java.util.Map;
 public class PomMapperFacade implements Facade, EventListener<ReposiliteInitializeEvent> {
 
     /**
-     * The {@link PluginAdapter} of the PomMapperPlugin.
+     * The maximum number of bytes read from a checksum file.
      */
-    private final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin;
+    private static final int MAX_CHECKSUM_SIZE = 256;
 
     /**
-     * The {@link XPathFactory} to create {@link XPath} instances.
+     * The {@link PluginAdapter} of the PomMapperPlugin.
      */
-    private final XPathFactory xPathFactory;
+    private final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin;
 
     /**
-     * The {@link DocumentBuilderFactory} to create {@link DocumentBuilder} instances.
+     * The {@link PomParserPool} providing hardened {@link DocumentBuilder} and {@link XPath} instances per thread.
      */
-    private final DocumentBuilderFactory documentBuilderFactory;
+    private final PomParserPool parsers;
 
     /**
      * The {@link ArtifactsVersionsCache} to access cached artifact versions.
      */
     private final ArtifactsVersionsCache artifactsVersionsCache;
 
+    /**
+     * The {@link ArtifactDiscovery} resolving pattern artifacts.
+     */
+    private final ArtifactDiscovery artifactDiscovery;
+
+    /**
+     * The fingerprints of the versions read in the last rebuild of each artifact config id, by the location of the pom.
+     */
+    private final Map<String, Map<Location, VersionFingerprint>> fingerprints;
+
+    /**
+     * The {@link ExtractionCache} to skip extracting identical poms.
+     */
+    private final ExtractionCache extractionCache;
+
+    /**
+     * The {@link ParentPomCache} sharing parsed parent poms for effective values.
+     */
+    private final ParentPomCache parentPomCache;
+
+    /**
+     * The {@link PomQuarantine} of poms that could not be read.
+     */
+    private final PomQuarantine quarantine;
+
     /**
      * The {@link MavenFacade} to access maven repositories.
      */
@@ -73,13 +112,13 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
      */
     public PomMapperFacade(final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin, final ArtifactsVersionsCache artifactsVersionsCache) {
         this.plugin = plugin;
-        this.xPathFactory = XPathFactory.newInstance();
-        this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        this.parsers = new PomParserPool();
         this.artifactsVersionsCache = artifactsVersionsCache;
-    }
-
-    private XPath getXPath() {
-        return xPathFactory.newXPath();
+        this.artifactDiscovery = new ArtifactDiscovery(this::getStorageProvider);
+        this.fingerprints = new ConcurrentHashMap<>();
+        this.extractionCache = new ExtractionCache(() -> plugin.getConfig().get().getExtractionCacheSize());
+        this.parentPomCache = new ParentPomCache(this::readPom);
+        this.quarantine = new PomQuarantine();
     }
 
     /**
@@ -92,13 +131,14 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
     }
 
     /**
-     * Returns a new {@link DocumentBuilder} instance.
+     * Returns the hardened {@link DocumentBuilder} of the current thread.
+     * It is reused by later calls on the same thread and must not be passed to other threads.
      *
-     * @return The new {@link DocumentBuilder} instance.
+     * @return The {@link DocumentBuilder} of the current thread.
      * @throws ParserConfigurationException If the {@link DocumentBuilderFactory} is not configured correctly.
      */
     public DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
-        return documentBuilderFactory.newDocumentBuilder();
+        return parsers.documentBuilder();
     }
 
     /**
@@ -110,6 +150,53 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
         return artifactsVersionsCache;
     }
 
+    /**
+     * Returns the {@link ArtifactDiscovery} resolving pattern artifacts.
+     *
+     * @return The {@link ArtifactDiscovery} resolving pattern artifacts.
+     */
+    public ArtifactDiscovery getArtifactDiscovery() {
+        return artifactDiscovery;
+    }
+
+    /**
+     * Returns all concrete artifacts: the configured artifacts without patterns
+     * and all artifacts discovered for the configured patterns.
+     *
+     * @return All concrete artifacts.
+     */
+    public List<Artifact> getArtifacts() {
+        final List<Artifact> artifacts = new ArrayList<>();
+        for (final Artifact artifact : this.plugin.getConfig().get().getArtifacts()) {
+            if (artifact.isPattern()) {
+                artifacts.addAll(artifactDiscovery.discover(artifact));
+            } else {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts;
+    }
+
+    /**
+     * Adds the artifact of a deployed file if it matches a configured pattern and was not discovered yet.
+     *
+     * @param repository The repository the file was deployed to.
+     * @param file       The location of the deployed file.
+     * @return The newly discovered artifact or null if there is none.
+     */
+    @Nullable
+    public Artifact discoverDeployed(final String repository, final Location file) {
+        for (final Artifact artifact : this.plugin.getConfig().get().getArtifacts()) {
+            if (artifact.isPattern() && artifact.repository().equals(repository)) {
+                final Artifact discovered = artifactDiscovery.register(artifact, file);
+                if (discovered != null) {
+                    return discovered;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public void onCall(final ReposiliteInitializeEvent reposiliteInitializeEvent) {
         mavenFacade = plugin.getFacade(MavenFacade.class);
@@ -125,6 +212,29 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
         return repository != null && mavenFacade.getRepository(repository) != null;
     }
 
+    /**
+     * Checks if the given repository is private, so its files are only served to authorized users.
+     *
+     * @param repository The repository to check.
+     * @return True if the repository is known and private, false otherwise.
+     */
+    public boolean isRepositoryPrivate(final String repository) {
+        final Repository repo = mavenFacade.getRepository(repository);
+        return repo != null && repo.getVisibility() == RepositoryVisibility.PRIVATE;
+    }
+
+    /**
+     * Returns the {@link StorageProvider} of the given repository.
+     *
+     * @param repository The repository to get the storage for.
+     * @return The storage of the repository or null if the repository is unknown.
+     */
+    @Nullable
+    public StorageProvider getStorageProvider(final String repository) {
+        final Repository repo = mavenFacade.getRepository(repository);
+        return repo == null ? null : repo.getStorageProvider();
+    }
+
     /**
      * Checks if an artifact exists in the given repository at the given location.
      *
@@ -153,12 +263,37 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
         if (!hasArtifact(repository, gav)) {
             return null;
         }
-        final PomMapperPluginSettings pluginSettings = this.plugin.getConfig().get();
-        final List<Artifact> artifacts = pluginSettings.getArtifacts();
-        return artifacts.stream().filter(artifact ->
+        return getArtifacts().stream().filter(artifact ->
                 artifact.repository().equals(repository) && artifact.gav().equals(gav)).findAny().orElse(null);
     }
 
+    /**
+     * Finds the configured artifact with the given config id.
+     *
+     * @param artifactConfigId The artifact config id to search for.
+     * @return The matching artifact if found, null otherwise.
+     */
+    @Nullable
+    public Artifact findArtifactById(final String artifactConfigId) {
+        return getArtifacts().stream().filter(artifact -> artifact.id().equals(artifactConfigId)).findAny().orElse(null);
+    }
+
+    /**
+     * Finds the artifact a file in the given repository belongs to.
+     * Unlike {@link #findArtifact(String, Location)} the location may point to any file within the artifact,
+     * like the files announced by a {@link com.reposilite.maven.api.DeployEvent}.
+     *
+     * @param repository The repository the file is located in.
+     * @param file       The location of the file.
+     * @return The artifact the file belongs to if found, null otherwise.
+     */
+    @Nullable
+    public Artifact findArtifactOfFile(final String repository, final Location file) {
+        final String path = file.toString();
+        return getArtifacts().stream().filter(artifact -> artifact.repository().equals(repository)
+                && path.startsWith(artifact.gav().toString() + "/")).findAny().orElse(null);
+    }
+
     /**
      * Returns all pom.xml file locations of the artifact with the given extension.
      *
@@ -166,85 +301,412 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
      * @return all file locations of the artifact
      */
     public List<Location> getMavenVersions(final Artifact artifact) {
+        return getMavenVersions(artifact, new RebuildMetrics());
+    }
+
+    /**
+     * Returns all pom.xml file locations of the artifact with the given extension.
+     *
+     * @param artifact the artifact to get the versions for
+     * @param metrics  the metrics to record storage calls in
+     * @return all file locations of the artifact
+     */
+    public List<Location> getMavenVersions(final Artifact artifact, final RebuildMetrics metrics) {
+        final Map<Location, Set<Location>> versionFiles = getVersionFiles(artifact, metrics);
+        return versionFiles == null ? List.of() : List.copyOf(versionFiles.keySet());
+    }
+
+    /**
+     * Returns all pom.xml file locations of the artifact, each with all files in its version directory.
+     *
+     * @param artifact the artifact to get the versions for
+     * @param metrics  the metrics to record storage calls in
+     * @return the files in the version directory by the location of the pom or null if the artifact could not be listed
+     */
+    @Nullable
+    private Map<Location, Set<Location>> getVersionFiles(final Artifact artifact, final RebuildMetrics metrics) {
         final MavenFacade mavenFacade = plugin.getFacade(MavenFacade.class);
         final Repository repo = mavenFacade.getRepository(artifact.repository());
         if (repo == null) {
             plugin.warn("Repository \"" + artifact.repository() + "\" not found.");
-            return List.of();
+            return null;
         }
         final StorageProvider storageProvider = repo.getStorageProvider();
+        metrics.recordStorageCall();
         final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(artifact.gav());
         if (files.isErr()) {
             plugin.warn("Error while listing files: " + files.getError().getMessage());
-            return List.of();
+            return null;
         }
-        final List<Location> versionPoms = files.get().stream()
+        final List<Location> versionDirectories = files.get().stream()
                 .map(loc -> Map.entry(loc, storageProvider.getFileDetails(loc)))
                 .filter(entry -> entry.getValue().isOk())
                 .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
                 .filter(entry -> entry.getValue().getType() == FileType.DIRECTORY)
                 .map(Map.Entry::getKey)
-                .flatMap(loc -> storageProvider.getFiles(loc).orElseGet(error -> List.of()).stream())
-                .filter(loc -> loc.endsWith(".pom"))
                 .toList();
-        plugin.debug("maven poms found: " + versionPoms.size());
+        final Map<Location, Set<Location>> versionPoms = new LinkedHashMap<>();
+        for (final Location versionDirectory : versionDirectories) {
+            final List<Location> listed = storageProvider.getFiles(versionDirectory).orElseGet(error -> List.of());
+            final Set<Location> versionFiles = Set.copyOf(listed);
+            listed.stream()
+                    .filter(loc -> loc.endsWith(".pom"))
+                    .forEach(pom -> versionPoms.put(pom, versionFiles));
+        }
+        metrics.recordStorageCalls(files.get().size() + versionDirectories.size());
+        plugin.debug(() -> "maven poms found: " + versionPoms.size());
         return versionPoms;
     }
 
+    /**
+     * Creates the fingerprint of a version from the pom and the jar files present in its version directory.
+     * Only files listed in the directory are looked up.
+     *
+     * @param storageProvider the storage of the version
+     * @param pomLocation     the location of the pom
+     * @param versionFiles    all files in the version directory
+     * @param metrics         the metrics to record storage calls in
+     * @return the fingerprint or null if the storage offers no fingerprint of the pom
+     */
+    @Nullable
+    private VersionFingerprint fingerprint(final StorageProvider storageProvider, final Location pomLocation,
+                                           final Set<Location> versionFiles, final RebuildMetrics metrics) {
+        metrics.recordStorageCall();
+        final PomFingerprint pom = PomFingerprint.of(storageProvider.getFileDetails(pomLocation));
+        if (pom == null) {
+            return null;
+        }
+        final Location jarLocation = jarLocationOf(pomLocation);
+        return new VersionFingerprint(pom, fileFingerprint(storageProvider, jarLocation, versionFiles, metrics),
+                fileFingerprint(storageProvider, Location.of(jarLocation + ".sha1"), versionFiles, metrics),
+                fileFingerprint(storageProvider, Location.of(jarLocation + ".sha256"), versionFiles, metrics));
+    }
+
+    @Nullable
+    private PomFingerprint fileFingerprint(final StorageProvider storageProvider, final Location location,
+                                           final Set<Location> versionFiles, final RebuildMetrics metrics) {
+        if (!versionFiles.contains(location)) {
+            return null;
+        }
+        metrics.recordStorageCall();
+        return PomFingerprint.of(storageProvider.getFileDetails(location));
+    }
+
     /**
      * Read all versions known to {@link MavenFacade} for a given artifact.
      * Maps all versions according to the configured XPath expression in the artifact
      * settings to create {@link PomVersionedEntry}s.
      *
      * @param artifact The artifact to map versions for.
-     * @return a list of {@link PomVersionedEntry} containing all known versions of the artifact
-     * or an empty list if the artifact does not exist.
+     * @return a list of {@link PomVersionedEntry} containing all known versions of the artifact,
+     * an empty list if the artifact does not exist or null if its versions could not be listed.
      * @throws XPathExpressionException     if the configured XPath expression is invalid.
      * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly.
      */
+    @Nullable
     protected List<PomVersionedEntry> getMappedVersions(final Artifact artifact) throws XPathExpressionException, ParserConfigurationException {
+        return getMappedVersions(artifact, false, new RebuildMetrics());
+    }
+
+    /**
+     * Read all versions known to {@link MavenFacade} for a given artifact.
+     * Versions whose pom, jar and jar checksum files have the same {@link VersionFingerprint} as in the last read
+     * are reused from the cache without reading them again, unless forced or the artifact definition changed.
+     * Poms in the {@link PomQuarantine} are skipped unless forced, poms that fail to be read are quarantined.
+     *
+     * @param artifact The artifact to map versions for.
+     * @param force    Whether to read all poms regardless of their fingerprints.
+     * @param metrics  The metrics to record the read in.
+     * @return a list of {@link PomVersionedEntry} containing all known versions of the artifact,
+     * an empty list if the artifact does not exist or null if its versions could not be listed.
+     * @throws XPathExpressionException     if the configured XPath expression is invalid.
+     * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly.
+     */
+    @Nullable
+    protected List<PomVersionedEntry> getMappedVersions(final Artifact artifact, final boolean force, final RebuildMetrics metrics)
+            throws XPathExpressionException, ParserConfigurationException {
         final Location gav = artifact.gav();
         final Repository repository = mavenFacade.getRepository(artifact.repository());
-        if (repository == null || !hasArtifact(artifact.repository(), gav)) {
+        if (repository == null) {
+            plugin.warn("Repository \"" + artifact.repository() + "\" not found.");
+            return null;
+        }
+        metrics.recordStorageCall();
+        if (!hasArtifact(artifact.repository(), gav)) {
             return List.of();
         }
+        final Map<Location, Set<Location>> versionFiles = getVersionFiles(artifact, metrics);
+        if (versionFiles == null) {
+            return null;
+        }
+        final StorageProvider storageProvider = repository.getStorageProvider();
+        final Map<Location, VersionFingerprint> known = force ? Map.of() : fingerprints.getOrDefault(artifact.id(), Map.of());
+        final Map<Location, PomVersionedEntry> cached = new HashMap<>();
+        if (!known.isEmpty()) {
+            artifactsVersionsCache.getVersions(artifact.id()).forEach(entry -> cached.put(entry.jarLocation(), entry));
+        }
+        final Map<Location, VersionFingerprint> current = new HashMap<>();
         final DocumentBuilder documentBuilder = getDocumentBuilder();
         final List<PomVersionedEntry> versions = new ArrayList<>();
-        final List<Location> pomLocations = getMavenVersions(artifact);
-        for (final Location pomLocation : pomLocations) {
-            final PomVersionedEntry entry = readEntry(artifact, pomLocation, documentBuilder);
+        for (final Map.Entry<Location, Set<Location>> version : versionFiles.entrySet()) {
+            final Location pomLocation = version.getKey();
+            final VersionFingerprint fingerprint = fingerprint(storageProvider, pomLocation, version.getValue(), metrics);
+            final PomFingerprint pomFingerprint = fingerprint == null ? null : fingerprint.pom();
+            if (!force && quarantine.isQuarantined(artifact.id(), pomLocation, pomFingerprint)) {
+                metrics.recordQuarantined();
+                continue;
+            }
+            final PomVersionedEntry previous = fingerprint != null && fingerprint.equals(known.get(pomLocation))
+                    ? cached.get(jarLocationOf(pomLocation)) : null;
+            final PomVersionedEntry entry;
+            if (previous != null && previous.artifact().equals(artifact)) {
+                metrics.recordReused();
+                entry = previous;
+            } else {
+                entry = readEntry(artifact, storageProvider, pomLocation, pomFingerprint, documentBuilder, metrics);
+            }
+            if (entry == null) {
+                metrics.recordQuarantined();
+                continue;
+            }
+            if (fingerprint != null) {
+                current.put(pomLocation, fingerprint);
+            }
             versions.add(entry);
         }
+        fingerprints.put(artifact.id(), current);
         return versions;
     }
 
-    private PomVersionedEntry readEntry(final Artifact artifact, final Location pomLocation, final DocumentBuilder documentBuilder) {
+    /**
+     * Forgets the pom fingerprints and quarantined poms of an artifact, so its next read parses all poms.
+     *
+     * @param artifactConfigId The artifact config id to forget the fingerprints of.
+     */
+    public void forgetFingerprints(final String artifactConfigId) {
+        fingerprints.remove(artifactConfigId);
+        quarantine.forget(artifactConfigId);
+    }
+
+    /**
+     * Compares the versions in the storage with the fingerprints of the last read of an artifact, without reading any file.
+     * Unchanged quarantined poms and poms whose storage offers no fingerprint are not considered a change,
+     * neither is an artifact missing in the storage.
+     *
+     * @param artifact The artifact to compare.
+     * @param metrics  The metrics to record the storage calls in.
+     * @return True if a pom, jar or jar checksum file was added, removed or changed since the last read.
+     */
+    public boolean hasChanged(final Artifact artifact, final RebuildMetrics metrics) {
+        final StorageProvider storageProvider = getStorageProvider(artifact.repository());
+        metrics.recordStorageCall();
+        if (storageProvider == null || !hasArtifact(artifact.repository(), artifact.gav())) {
+            return false;
+        }
+        final Map<Location, Set<Location>> versionFiles = getVersionFiles(artifact, metrics);
+        if (versionFiles == null) {
+            return false;
+        }
+        final Map<Location, VersionFingerprint> known = fingerprints.getOrDefault(artifact.id(), Map.of());
+        int unchanged = 0;
+        for (final Map.Entry<Location, Set<Location>> version : versionFiles.entrySet()) {
+            final Location pomLocation = version.getKey();
+            final VersionFingerprint fingerprint = fingerprint(storageProvider, pomLocation, version.getValue(), metrics);
+            final VersionFingerprint previous = known.get(pomLocation);
+            if (previous != null && (fingerprint == null || previous.equals(fingerprint))) {
+                unchanged++;
+            } else if (fingerprint != null && !quarantine.isQuarantined(artifact.id(), pomLocation, fingerprint.pom())) {
+                return true;
+            }
+        }
+        return unchanged < known.size();
+    }
+
+    /**
+     * Returns the {@link PomQuarantine} of poms that could not be read.
+     *
+     * @return The {@link PomQuarantine} of poms that could not be read.
+     */
+    public PomQuarantine getQuarantine() {
+        return quarantine;
+    }
+
+    /**
+     * Forgets a parent pom used for effective values, together with the values resolved with it.
+     * Only the extractions and pom fingerprints of the versions resolved with the pom or one of its children are
+     * forgotten, so the next read of their artifacts parses just these poms again.
+     *
+     * @param repository The repository the pom was deployed to.
+     * @param location   The location of the pom.
+     * @return The artifact config ids of the artifacts with versions resolved with the pom, empty if it is no known parent.
+     */
+    public Set<String> invalidateParent(final String repository, final Location location) {
+        final Map<ParentPomCache.Dependent, ExtractionCache.Key> invalidated = parentPomCache.invalidate(repository, location);
+        final Map<String, Set<Location>> poms = new HashMap<>();
+        invalidated.forEach((dependent, key) -> {
+            extractionCache.remove(key);
+            poms.computeIfAbsent(dependent.artifactConfigId(), id -> new HashSet<>()).add(dependent.pom());
+        });
+        poms.forEach((artifactConfigId, locations) -> fingerprints.computeIfPresent(artifactConfigId, (id, known) -> {
+            final Map<Location, VersionFingerprint> remaining = new HashMap<>(known);
+            remaining.keySet().removeAll(locations);
+            return remaining;
+        }));
+        return poms.keySet();
+    }
+
+    @Nullable
+    private Document readPom(final String repository, final Location location) {
+        final Result<ResolvedDocument, ErrorResponse> pomFile = mavenFacade.findFile(new LookupRequest(null, repository, location));
+        if (pomFile.isErr()) {
+            plugin.debug("Parent pom {} not found in repository \"{}\".", location, repository);
+            return null;
+        }
+        try (InputStream content = pomFile.get().getContent()) {
+            return getDocumentBuilder().parse(content);
+        } catch (SAXException | IOException | ParserConfigurationException exception) {
+            plugin.warn("Error while reading parent pom " + location + ". " + exception.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private PomVersionedEntry readEntry(final Artifact artifact, final StorageProvider storageProvider, final Location pomLocation,
+                                        @Nullable final PomFingerprint fingerprint, final DocumentBuilder documentBuilder,
+                                        final RebuildMetrics metrics) {
+        metrics.recordStorageCall();
         final Result<ResolvedDocument, ErrorResponse> pomFile = mavenFacade.findFile(new LookupRequest(null, artifact.repository(), pomLocation));
         if (pomFile.isErr()) {
-            plugin.warn(pomFile.getError().getMessage());
+            quarantine(artifact, pomLocation, fingerprint, pomFile.getError().getMessage(), true);
             return null;
         }
-        final Map<String, String> xPathVersions = new HashMap<>();
-        final XPath xPath = getXPath();
-        try {
-            final Document parse = documentBuilder.parse(pomFile.get().getContent());
-            for (final XPathEntry entry : artifact.versionXPath()) {
-                try {
-                    xPathVersions.put(entry.id(), entry.parse(xPath, parse));
-                } catch (final XPathExpressionException exception) {
-                    plugin.warn("Error while reading xPath \"" + entry.id() + "\" in artifact \"" + artifact.id() + "\" - " + exception.getMessage());
-                    plugin.getLogger().exception(exception);
+        Map<String, String> xPathVersions = new HashMap<>();
+        final MessageDigest digest = ExtractionCache.newDigest();
+        try (InputStream content = new DigestInputStream(pomFile.get().getContent(), digest)) {
+            final byte[] pom = content.readAllBytes();
+            metrics.recordBytesRead(pom.length);
+            final boolean effective = plugin.getConfig().get().isEffectiveValues();
+            final ExtractionCache.Key key = ExtractionCache.Key.of(artifact.versionXPath(), effective, artifact.repository(), digest);
+            final Map<String, String> extracted = extractionCache.get(key);
+            if (extracted == null) {
+                xPathVersions = extract(artifact, pom, effective ? key : null, documentBuilder, metrics);
+                if (xPathVersions.size() == artifact.versionXPath().size()) {
+                    xPathVersions = Map.copyOf(xPathVersions);
+                    extractionCache.put(key, xPathVersions);
                 }
+            } else {
+                metrics.recordIdentical();
+                xPathVersions = extracted;
+            }
+            if (effective) {
+                parentPomCache.track(key, artifact.id(), pomLocation);
             }
-        } catch (SAXException | IOException | IllegalStateException exception) {
-            plugin.warn("Error while generating pom mappings. " + exception.getMessage());
-            plugin.getLogger().exception(exception);
+        } catch (final IOException exception) {
+            quarantine(artifact, pomLocation, fingerprint, "Could not read pom: " + exception.getMessage(), true);
+            return null;
+        } catch (SAXException | IllegalStateException exception) {
+            quarantine(artifact, pomLocation, fingerprint, "Malformed pom: " + exception.getMessage(), false);
+            return null;
         }
+        quarantine.release(artifact.id(), pomLocation);
 
-        final Location jarLocation = pomLocation.replace(".pom", ".jar");
+        final Location jarLocation = jarLocationOf(pomLocation);
+        metrics.recordStorageCall();
+        final Result<? extends FileDetails, ErrorResponse> jarFile = storageProvider.getFileDetails(jarLocation);
+        final DocumentInfo jar = jarFile.isOk() && jarFile.get() instanceof final DocumentInfo document ? document : null;
+        if (jar != null && !artifact.jarEntries().isEmpty()) {
+            final Map<String, String> values = new HashMap<>(xPathVersions);
+            values.putAll(readJarValues(artifact, storageProvider, jarLocation, jar, metrics));
+            xPathVersions = values;
+        }
         final String groupVersion = pomLocation.getParent().getSimpleName();
         final String rawName = pomLocation.getSimpleName();
         final String mavenVersion = rawName.substring(rawName.indexOf('-') + 1, rawName.lastIndexOf('.'));
-        return new PomVersionedEntry(artifact, groupVersion, mavenVersion, xPathVersions, jarLocation);
+        final JarDetails jarDetails = jar == null ? null : readJarDetails(storageProvider, jarLocation, jar, metrics);
+        return new PomVersionedEntry(artifact, groupVersion, mavenVersion, xPathVersions, jarLocation, jarDetails);
+    }
+
+    private void quarantine(final Artifact artifact, final Location pomLocation, @Nullable final PomFingerprint fingerprint,
+                            final String reason, final boolean transientFailure) {
+        final PomQuarantine.QuarantinedPom pom = quarantine.quarantine(artifact.id(), pomLocation, fingerprint, reason, transientFailure);
+        final Supplier<String> message = () -> "Quarantined pom \"" + pomLocation + "\" of artifact \"" + artifact.id() + "\" (failure "
+                + pom.failures() + ")" + (pom.retryAt() == null ? " until it changes" : ", retrying at " + pom.retryAt()) + ". " + reason;
+        if (pom.failures() == 1) {
+            plugin.warn(message.get());
+        } else {
+            plugin.debug(message);
+        }
+    }
+
+    private JarDetails readJarDetails(final StorageProvider storageProvider, final Location jarLocation, final DocumentInfo jar,
+                                      final RebuildMetrics metrics) {
+        final FileTime lastModified = jar.getLastModifiedTime();
+        return new JarDetails(jar.getContentLength(), lastModified == null ? -1 : lastModified.toMillis(),
+                readChecksum(storageProvider, Location.of(jarLocation + ".sha1"), metrics),
+                readChecksum(storageProvider, Location.of(jarLocation + ".sha256"), metrics));
+    }
+
+    @Nullable
+    private String readChecksum(final StorageProvider storageProvider, final Location checksumLocation, final RebuildMetrics metrics) {
+        metrics.recordStorageCall();
+        final Result<InputStream, ErrorResponse> checksumFile = storageProvider.getFile(checksumLocation);
+        if (checksumFile.isErr()) {
+            return null;
+        }
+        try (InputStream content = checksumFile.get()) {
+            final byte[] checksum = content.readNBytes(MAX_CHECKSUM_SIZE);
+            metrics.recordBytesRead(checksum.length);
+            return JarDetails.checksum(new String(checksum, StandardCharsets.US_ASCII));
+        } catch (final IOException exception) {
+            plugin.debug("Could not read checksum \"{}\": {}", checksumLocation, exception.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, String> readJarValues(final Artifact artifact, final StorageProvider storageProvider, final Location jarLocation,
+                                              final DocumentInfo jar, final RebuildMetrics metrics) {
+        final Map<String, String> values = new HashMap<>();
+        final Map<String, byte[]> files;
+        try {
+            final Set<String> paths = artifact.jarEntries().stream().map(JarPathEntry::path).collect(Collectors.toSet());
+            files = new JarEntryReader(storageProvider, metrics).read(jarLocation, jar.getContentLength(), paths);
+        } catch (final IOException exception) {
+            plugin.warnRateLimited("jar:" + artifact.id(), () -> "Error while reading jar \"" + jarLocation + "\" in artifact \""
+                    + artifact.id() + "\" - " + exception.getMessage());
+            return values;
+        }
+        for (final JarPathEntry entry : artifact.jarEntries()) {
+            final byte[] content = files.get(entry.path());
+            try {
+                values.put(entry.id(), content == null ? "" : entry.parse(content));
+            } catch (final IOException exception) {
+                plugin.warnRateLimited("jar-entry:" + artifact.id() + ":" + entry.id(), () -> "Error while reading jar entry \"" + entry.id()
+                        + "\" in artifact \"" + artifact.id() + "\" - " + exception.getMessage());
+            }
+        }
+        return values;
+    }
+
+    private Map<String, String> extract(final Artifact artifact, final byte[] pom, @Nullable final ExtractionCache.Key effectiveExtraction,
+                                        final DocumentBuilder documentBuilder, final RebuildMetrics metrics) throws SAXException, IOException {
+        final Map<String, String> xPathVersions = new HashMap<>();
+        final XPath xPath = parsers.xPath();
+        final long start = System.nanoTime();
+        final Document parse = documentBuilder.parse(new ByteArrayInputStream(pom));
+        final PomModel model = effectiveExtraction == null ? null : parentPomCache.model(artifact.repository(), parse, effectiveExtraction);
+        for (final XPathEntry entry : artifact.versionXPath()) {
+            try {
+                xPathVersions.put(entry.id(), model == null ? entry.parse(xPath, parse) : model.evaluate(entry, xPath));
+            } catch (final XPathExpressionException exception) {
+                plugin.warnRateLimited("xpath:" + artifact.id() + ":" + entry.id(), () -> "Error while reading xPath \"" + entry.id()
+                        + "\" in artifact \"" + artifact.id() + "\" - " + exception.getMessage());
+            }
+        }
+        metrics.recordParsed(System.nanoTime() - start);
+        return xPathVersions;
+    }
+
+    private Location jarLocationOf(final Location pomLocation) {
+        return pomLocation.replace(".pom", ".jar");
     }
 }
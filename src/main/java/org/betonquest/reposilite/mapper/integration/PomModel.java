@@ -0,0 +1,166 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed pom with the context inherited from its parent poms.
+ * <p>
+ * Values an xpath does not find in the pom itself are looked up in its parents, nearest first,
+ * and {@code ${property}} placeholders are interpolated with the properties of the pom and its parents.
+ * Parent models are shared between threads, so their documents are only accessed while holding their lock.
+ */
+public final class PomModel {
+
+    /**
+     * The placeholder of a property.
+     */
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * The maximum number of interpolation passes for properties referencing other properties.
+     */
+    private static final int MAX_INTERPOLATION_DEPTH = 8;
+
+    /**
+     * The parsed pom.
+     */
+    private final Document document;
+
+    /**
+     * The model of the parent pom or null if it has none or it is unavailable.
+     */
+    @Nullable
+    private final PomModel parent;
+
+    /**
+     * The properties of the pom merged with the properties of its parents.
+     */
+    private final Map<String, String> properties;
+
+    /**
+     * Creates the model of a pom.
+     *
+     * @param document the parsed pom
+     * @param parent   the model of the parent pom or null
+     */
+    public PomModel(final Document document, @Nullable final PomModel parent) {
+        this.document = document;
+        this.parent = parent;
+        this.properties = parent == null ? new HashMap<>() : new HashMap<>(parent.properties);
+        collectProperties();
+    }
+
+    /**
+     * Returns the value of a child element of the project element.
+     *
+     * @param document the parsed pom
+     * @param path     the names of the nested elements below the project element
+     * @return the text of the element or null if it does not exist
+     */
+    @Nullable
+    public static String projectValue(final Document document, final String... path) {
+        Element element = document.getDocumentElement();
+        for (final String name : path) {
+            element = element == null ? null : child(element, name);
+        }
+        return element == null ? null : element.getTextContent().trim();
+    }
+
+    @Nullable
+    private static Element child(final Element parent, final String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof final Element element && name.equals(element.getTagName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private void collectProperties() {
+        final Element root = document.getDocumentElement();
+        final Element defined = root == null ? null : child(root, "properties");
+        if (defined != null) {
+            for (Node node = defined.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node instanceof final Element element) {
+                    properties.put(element.getTagName(), element.getTextContent().trim());
+                }
+            }
+        }
+        final String parentVersion = projectValue(document, "parent", "version");
+        final String groupId = firstNonNull(projectValue(document, "groupId"), projectValue(document, "parent", "groupId"));
+        final String version = firstNonNull(projectValue(document, "version"), parentVersion);
+        putIfPresent("project.groupId", groupId);
+        putIfPresent("project.artifactId", projectValue(document, "artifactId"));
+        putIfPresent("project.version", version);
+        putIfPresent("pom.version", version);
+        putIfPresent("version", version);
+        putIfPresent("project.parent.version", parentVersion);
+    }
+
+    @Nullable
+    private static String firstNonNull(@Nullable final String first, @Nullable final String second) {
+        return first == null ? second : first;
+    }
+
+    private void putIfPresent(final String key, @Nullable final String value) {
+        if (value != null) {
+            properties.put(key, value);
+        }
+    }
+
+    /**
+     * Evaluates an xpath entry on the pom, falling back to its parents, and interpolates the result.
+     *
+     * @param entry the xpath entry to evaluate
+     * @param xPath the xpath instance to use
+     * @return the effective value
+     * @throws XPathExpressionException if the xpath expression is invalid
+     */
+    public String evaluate(final XPathEntry entry, final XPath xPath) throws XPathExpressionException {
+        String value = entry.parse(xPath, document);
+        for (PomModel ancestor = parent; value.isEmpty() && ancestor != null; ancestor = ancestor.parent) {
+            synchronized (ancestor) {
+                value = entry.parse(xPath, ancestor.document);
+            }
+        }
+        return interpolate(value);
+    }
+
+    /**
+     * Replaces all {@code ${property}} placeholders with the effective properties. Unknown properties are kept.
+     *
+     * @param value the value to interpolate
+     * @return the interpolated value
+     */
+    public String interpolate(final String value) {
+        String result = value;
+        for (int depth = 0; depth < MAX_INTERPOLATION_DEPTH && result.contains("${"); depth++) {
+            final Matcher matcher = PLACEHOLDER.matcher(result);
+            final StringBuilder builder = new StringBuilder();
+            boolean replaced = false;
+            while (matcher.find()) {
+                final String property = properties.get(matcher.group(1));
+                replaced |= property != null;
+                matcher.appendReplacement(builder, Matcher.quoteReplacement(property == null ? matcher.group() : property));
+            }
+            matcher.appendTail(builder);
+            result = builder.toString();
+            if (!replaced) {
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathFactoryConfigurationException;
+
+/**
+ * Hardened parsers for poms uploaded by users, reused per thread.
+ * <p>
+ * Poms never need a document type declaration, so any DOCTYPE is rejected, which rules out external entities,
+ * entity expansion and DTD fetches. External access, XInclude, validation and comments are disabled as well.
+ * A {@link DocumentBuilder} is expensive to create and not thread-safe, so each thread reuses its own instance.
+ */
+public class PomParserPool {
+
+    /**
+     * The Xerces feature rejecting documents with a DOCTYPE.
+     */
+    private static final String DISALLOW_DOCTYPE = "http://apache.org/xml/features/disallow-doctype-decl";
+
+    /**
+     * The SAX feature including external general entities.
+     */
+    private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+
+    /**
+     * The SAX feature including external parameter entities.
+     */
+    private static final String EXTERNAL_PARAMETER_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+
+    /**
+     * The Xerces feature loading the external DTD of non-validating parsers.
+     */
+    private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+    /**
+     * The JDK property limiting the number of entity expansions.
+     */
+    private static final String ENTITY_EXPANSION_LIMIT = "jdk.xml.entityExpansionLimit";
+
+    /**
+     * The maximum number of entity expansions, only the predefined entities remain possible without a DOCTYPE.
+     */
+    private static final String MAX_ENTITY_EXPANSIONS = "100";
+
+    /**
+     * The error handler failing on errors without printing them to the standard error stream.
+     */
+    private static final ErrorHandler ERROR_HANDLER = new ErrorHandler() {
+        @Override
+        public void warning(final SAXParseException exception) {
+            // Warnings do not affect the parsed document
+        }
+
+        @Override
+        public void error(final SAXParseException exception) throws SAXParseException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(final SAXParseException exception) throws SAXParseException {
+            throw exception;
+        }
+    };
+
+    /**
+     * The hardened {@link DocumentBuilderFactory}.
+     */
+    private final DocumentBuilderFactory documentBuilderFactory;
+
+    /**
+     * The {@link XPathFactory} with secure processing.
+     */
+    private final XPathFactory xPathFactory;
+
+    /**
+     * The {@link DocumentBuilder} of each thread.
+     */
+    private final ThreadLocal<DocumentBuilder> documentBuilders;
+
+    /**
+     * The {@link XPath} of each thread.
+     */
+    private final ThreadLocal<XPath> xPaths;
+
+    /**
+     * Constructor for the PomParserPool.
+     *
+     * @throws IllegalStateException if the XML implementation does not support the hardened configuration
+     */
+    public PomParserPool() {
+        this.documentBuilderFactory = newDocumentBuilderFactory();
+        this.xPathFactory = newXPathFactory();
+        this.documentBuilders = new ThreadLocal<>();
+        this.xPaths = ThreadLocal.withInitial(xPathFactory::newXPath);
+    }
+
+    /**
+     * Creates the hardened {@link DocumentBuilderFactory}.
+     *
+     * @return the hardened factory
+     * @throws IllegalStateException if the XML implementation does not support the hardened configuration
+     */
+    public static DocumentBuilderFactory newDocumentBuilderFactory() {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(DISALLOW_DOCTYPE, true);
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+            factory.setFeature(LOAD_EXTERNAL_DTD, false);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            factory.setAttribute(ENTITY_EXPANSION_LIMIT, MAX_ENTITY_EXPANSIONS);
+        } catch (final ParserConfigurationException | IllegalArgumentException exception) {
+            throw new IllegalStateException("The XML parser does not support the hardened pom configuration", exception);
+        }
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+        factory.setNamespaceAware(false);
+        factory.setValidating(false);
+        factory.setIgnoringComments(true);
+        return factory;
+    }
+
+    private static XPathFactory newXPathFactory() {
+        final XPathFactory factory = XPathFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (final XPathFactoryConfigurationException exception) {
+            throw new IllegalStateException("The XPath implementation does not support secure processing", exception);
+        }
+        return factory;
+    }
+
+    /**
+     * Returns the {@link DocumentBuilder} of the current thread, reset to its initial state.
+     * It must not be passed to other threads.
+     *
+     * @return the document builder of the current thread
+     * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly
+     */
+    public DocumentBuilder documentBuilder() throws ParserConfigurationException {
+        DocumentBuilder documentBuilder = documentBuilders.get();
+        if (documentBuilder == null) {
+            documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setErrorHandler(ERROR_HANDLER);
+            documentBuilders.set(documentBuilder);
+        } else {
+            documentBuilder.reset();
+            documentBuilder.setErrorHandler(ERROR_HANDLER);
+        }
+        return documentBuilder;
+    }
+
+    /**
+     * Returns the {@link XPath} of the current thread, reset to its initial state.
+     * It must not be passed to other threads.
+     *
+     * @return the xpath of the current thread
+     */
+    public XPath xPath() {
+        final XPath xPath = xPaths.get();
+        xPath.reset();
+        return xPath;
+    }
+}
@@ -0,0 +1,136 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Poms that could not be read, skipped by later rebuilds instead of being read and failing again.
+ * <p>
+ * Malformed poms stay quarantined until their {@link PomFingerprint} changes.
+ * Poms that failed because of the storage are retried with an exponential backoff, or as soon as their fingerprint changes.
+ */
+public class PomQuarantine {
+
+    /**
+     * The backoff after the first transient failure.
+     */
+    private static final Duration INITIAL_BACKOFF = Duration.ofMinutes(1);
+
+    /**
+     * The maximum backoff between retries of transient failures.
+     */
+    private static final Duration MAX_BACKOFF = Duration.ofHours(6);
+
+    /**
+     * The maximum exponent of the backoff, protecting against overflows.
+     */
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    /**
+     * The quarantined poms by the artifact config id and the location of the pom.
+     */
+    private final Map<String, Map<Location, QuarantinedPom>> quarantined;
+
+    /**
+     * Constructor for the PomQuarantine.
+     */
+    public PomQuarantine() {
+        this.quarantined = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks if a pom should be skipped.
+     *
+     * @param artifactConfigId the artifact config id the pom belongs to
+     * @param location         the location of the pom
+     * @param fingerprint      the current fingerprint of the pom or null if unknown
+     * @return true if the pom is quarantined, did not change and is not due for a retry
+     */
+    public boolean isQuarantined(final String artifactConfigId, final Location location, @Nullable final PomFingerprint fingerprint) {
+        final QuarantinedPom pom = quarantined.getOrDefault(artifactConfigId, Map.of()).get(location);
+        if (pom == null || !Objects.equals(pom.fingerprint(), fingerprint)) {
+            return false;
+        }
+        return pom.retryAt() == null || Instant.now().isBefore(pom.retryAt());
+    }
+
+    /**
+     * Quarantines a pom that could not be read.
+     *
+     * @param artifactConfigId the artifact config id the pom belongs to
+     * @param location         the location of the pom
+     * @param fingerprint      the fingerprint of the pom or null if unknown
+     * @param reason           the reason the pom could not be read
+     * @param transientFailure whether the failure may resolve itself without the pom changing
+     * @return the quarantined pom, with more than one failure if it was quarantined with the same fingerprint before
+     */
+    public QuarantinedPom quarantine(final String artifactConfigId, final Location location, @Nullable final PomFingerprint fingerprint,
+                                     final String reason, final boolean transientFailure) {
+        return quarantined.computeIfAbsent(artifactConfigId, id -> new ConcurrentHashMap<>()).compute(location, (key, previous) -> {
+            final int failures = previous != null && Objects.equals(previous.fingerprint(), fingerprint) ? previous.failures() + 1 : 1;
+            final Instant retryAt = transientFailure ? Instant.now().plus(backoff(failures)) : null;
+            return new QuarantinedPom(location, fingerprint, reason, failures, retryAt);
+        });
+    }
+
+    private static Duration backoff(final int failures) {
+        final Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(failures - 1, MAX_BACKOFF_EXPONENT));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    /**
+     * Releases a pom from the quarantine after it was read successfully.
+     *
+     * @param artifactConfigId the artifact config id the pom belongs to
+     * @param location         the location of the pom
+     */
+    public void release(final String artifactConfigId, final Location location) {
+        final Map<Location, QuarantinedPom> poms = quarantined.get(artifactConfigId);
+        if (poms != null) {
+            poms.remove(location);
+        }
+    }
+
+    /**
+     * Releases all poms of an artifact.
+     *
+     * @param artifactConfigId the artifact config id
+     */
+    public void forget(final String artifactConfigId) {
+        quarantined.remove(artifactConfigId);
+    }
+
+    /**
+     * Returns the quarantined poms of an artifact.
+     *
+     * @param artifactConfigId the artifact config id
+     * @return the quarantined poms ordered by location
+     */
+    public List<QuarantinedPom> get(final String artifactConfigId) {
+        final List<QuarantinedPom> poms = new ArrayList<>(quarantined.getOrDefault(artifactConfigId, Map.of()).values());
+        poms.sort(Comparator.comparing(pom -> pom.location().toString()));
+        return poms;
+    }
+
+    /**
+     * A pom that could not be read.
+     *
+     * @param location    the location of the pom
+     * @param fingerprint the fingerprint of the pom when it failed or null if unknown
+     * @param reason      the reason the pom could not be read
+     * @param failures    the number of consecutive failures with this fingerprint
+     * @param retryAt     the earliest time of the next attempt or null if only a change of the pom releases it
+     */
+    public record QuarantinedPom(Location location, @Nullable PomFingerprint fingerprint, String reason, int failures,
+                                 @Nullable Instant retryAt) {
+    }
+}
@@ -0,0 +1,167 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from extracted pom values to the versions declaring them.
+ * <p>
+ * For each artifact the postings are grouped by the id of the xpath entry and the extracted value and hold the
+ * {@link VersionIdentity identities} of the matching versions, not the versions themselves. A lookup resolves them
+ * against the artifact's current {@link VersionIndex}, so the versions of a {@link MappedVersionIndex} stay outside
+ * the heap and are only decoded for the versions a lookup returns.
+ * <p>
+ * The postings are built from the whole index only on the first seed or restore of an artifact. Afterward they are
+ * updated by the added, updated and removed versions the {@link ArtifactsVersionsCache} reports for every new index.
+ */
+public class PomValueIndex implements VersionsCacheListener {
+
+    /**
+     * The postings by artifact config id.
+     */
+    private final Map<String, Postings> postings;
+
+    /**
+     * Default Constructor for the PomValueIndex.
+     */
+    public PomValueIndex() {
+        this.postings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns all versions of an artifact that extracted the given value for the given xpath entry.
+     *
+     * @param artifactConfigId the artifact config id to look up
+     * @param key              the id of the xpath entry
+     * @param value            the extracted value
+     * @return the matching versions in ascending order
+     */
+    public List<PomVersionedEntry> lookup(final String artifactConfigId, final String key, final String value) {
+        final Postings artifactPostings = postings.get(artifactConfigId);
+        if (artifactPostings == null) {
+            return List.of();
+        }
+        final Set<VersionIdentity> identities = artifactPostings.values.getOrDefault(key, Map.of()).get(value);
+        if (identities == null) {
+            return List.of();
+        }
+        final VersionIndex index = artifactPostings.index;
+        final int[] positions = identities.stream().mapToInt(index::indexOf).filter(position -> position >= 0).toArray();
+        Arrays.sort(positions);
+        final List<PomVersionedEntry> entries = index.entries();
+        final List<PomVersionedEntry> result = new ArrayList<>(positions.length);
+        for (final int position : positions) {
+            result.add(entries.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the postings of an artifact that is no longer cached.
+     *
+     * @param artifactConfigId the artifact config id to drop
+     */
+    public void remove(final String artifactConfigId) {
+        postings.remove(artifactConfigId);
+    }
+
+    @Override
+    public void onVersionsAdded(final String artifactConfigId, final List<PomVersionedEntry> added) {
+        final Postings artifactPostings = postings.get(artifactConfigId);
+        if (artifactPostings != null) {
+            added.forEach(entry -> artifactPostings.add(VersionIdentity.of(entry), entry.pom()));
+        }
+    }
+
+    @Override
+    public void onVersionsRemoved(final String artifactConfigId, final List<PomVersionedEntry> removed) {
+        final Postings artifactPostings = postings.get(artifactConfigId);
+        if (artifactPostings != null) {
+            removed.forEach(entry -> artifactPostings.remove(VersionIdentity.of(entry), entry.pom()));
+        }
+    }
+
+    @Override
+    public void onVersionsUpdated(final String artifactConfigId, final List<VersionUpdate> updated) {
+        final Postings artifactPostings = postings.get(artifactConfigId);
+        if (artifactPostings != null) {
+            for (final VersionUpdate update : updated) {
+                artifactPostings.remove(VersionIdentity.of(update.previous()), update.previous().pom());
+                artifactPostings.add(VersionIdentity.of(update.current()), update.current().pom());
+            }
+        }
+    }
+
+    @Override
+    public void onVersionsCached(final String artifactConfigId, final VersionIndex index, final boolean local) {
+        postings.compute(artifactConfigId, (id, existing) -> {
+            if (existing == null) {
+                return Postings.of(index);
+            }
+            existing.index = index;
+            return existing;
+        });
+    }
+
+    /**
+     * The postings of a single artifact.
+     */
+    private static final class Postings {
+
+        /**
+         * The identities of the matching versions by xpath entry id and extracted value.
+         */
+        private final Map<String, Map<String, Set<VersionIdentity>>> values;
+
+        /**
+         * The index the identities are resolved against.
+         */
+        private volatile VersionIndex index;
+
+        private Postings(final VersionIndex index) {
+            this.values = new ConcurrentHashMap<>();
+            this.index = index;
+        }
+
+        /**
+         * Builds the postings of all versions in an index, reading the values slot by slot.
+         *
+         * @param index the index to build the postings of
+         * @return the postings
+         */
+        private static Postings of(final VersionIndex index) {
+            final Postings postings = new Postings(index);
+            for (int position = 0; position < index.size(); position++) {
+                final VersionIdentity identity = new VersionIdentity(index.group(position), index.maven(position));
+                index.forEachValue(position, (key, value) -> postings.add(key, value, identity));
+            }
+            return postings;
+        }
+
+        private void add(final VersionIdentity identity, final Map<String, String> pom) {
+            pom.forEach((key, value) -> add(key, value, identity));
+        }
+
+        private void add(final String key, final String value, final VersionIdentity identity) {
+            values.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet())
+                    .add(identity);
+        }
+
+        private void remove(final VersionIdentity identity, final Map<String, String> pom) {
+            pom.forEach((key, value) -> {
+                final Map<String, Set<VersionIdentity>> byValue = values.get(key);
+                if (byValue != null) {
+                    byValue.computeIfPresent(value, (v, identities) -> {
+                        identities.remove(identity);
+                        return identities.isEmpty() ? null : identities;
+                    });
+                }
+            });
+        }
+    }
+}
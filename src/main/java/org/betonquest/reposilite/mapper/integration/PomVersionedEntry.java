@@ -3,6 +3,7 @@ package org.betonquest.reposilite.mapper.integration;
 import com.reposilite.storage.api.Location;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
@@ -14,9 +15,10 @@ import java.util.Map;
  * @param maven       the maven version
  * @param pom         the versions defined in the pom and extracted from the artifact by xpaths
  * @param jarLocation the location of the jar file related to the pom
+ * @param jar         the details of the jar file or null if it does not exist
  */
 public record PomVersionedEntry(Artifact artifact, String group, String maven, Map<String, String> pom,
-                                Location jarLocation) {
+                                Location jarLocation, @Nullable JarDetails jar) {
 
     /**
      * Checks if the group version is a snapshot version.
@@ -0,0 +1,178 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected while rebuilding the cache of a single artifact.
+ */
+public class RebuildMetrics {
+
+    /**
+     * The number of poms read and parsed.
+     */
+    private final AtomicInteger versionsParsed;
+
+    /**
+     * The number of versions reused because the fingerprint of their pom did not change.
+     */
+    private final AtomicInteger versionsReused;
+
+    /**
+     * The number of versions whose pom was identical to an already extracted pom.
+     */
+    private final AtomicInteger versionsIdentical;
+
+    /**
+     * The number of versions skipped because their pom is quarantined or failed to be read.
+     */
+    private final AtomicInteger versionsQuarantined;
+
+    /**
+     * The number of calls to the storage.
+     */
+    private final AtomicLong storageCalls;
+
+    /**
+     * The number of pom and jar bytes read from the storage.
+     */
+    private final AtomicLong bytesRead;
+
+    /**
+     * The time spent parsing poms and evaluating xpaths in nanoseconds.
+     */
+    private final AtomicLong parseNanos;
+
+    /**
+     * Constructor for the RebuildMetrics.
+     */
+    public RebuildMetrics() {
+        this.versionsParsed = new AtomicInteger();
+        this.versionsReused = new AtomicInteger();
+        this.versionsIdentical = new AtomicInteger();
+        this.versionsQuarantined = new AtomicInteger();
+        this.storageCalls = new AtomicLong();
+        this.bytesRead = new AtomicLong();
+        this.parseNanos = new AtomicLong();
+    }
+
+    /**
+     * Records a call to the storage.
+     */
+    public void recordStorageCall() {
+        storageCalls.incrementAndGet();
+    }
+
+    /**
+     * Records multiple calls to the storage.
+     *
+     * @param count the number of calls
+     */
+    public void recordStorageCalls(final int count) {
+        storageCalls.addAndGet(count);
+    }
+
+    /**
+     * Records bytes of a pom or jar read from the storage.
+     *
+     * @param bytes the number of bytes read
+     */
+    public void recordBytesRead(final long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    /**
+     * Records a parsed pom.
+     *
+     * @param nanos the time spent parsing the pom in nanoseconds
+     */
+    public void recordParsed(final long nanos) {
+        versionsParsed.incrementAndGet();
+        parseNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records a version reused without reading its pom.
+     */
+    public void recordReused() {
+        versionsReused.incrementAndGet();
+    }
+
+    /**
+     * Records a version whose pom was identical to an already extracted pom and was not parsed.
+     */
+    public void recordIdentical() {
+        versionsIdentical.incrementAndGet();
+    }
+
+    /**
+     * Records a version skipped because its pom is quarantined or failed to be read.
+     */
+    public void recordQuarantined() {
+        versionsQuarantined.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of poms read and parsed.
+     *
+     * @return the number of parsed versions
+     */
+    public int getVersionsParsed() {
+        return versionsParsed.get();
+    }
+
+    /**
+     * Returns the number of versions reused because their pom did not change.
+     *
+     * @return the number of reused versions
+     */
+    public int getVersionsReused() {
+        return versionsReused.get();
+    }
+
+    /**
+     * Returns the number of versions whose pom was identical to an already extracted pom.
+     *
+     * @return the number of identical versions
+     */
+    public int getVersionsIdentical() {
+        return versionsIdentical.get();
+    }
+
+    /**
+     * Returns the number of versions skipped because their pom is quarantined or failed to be read.
+     *
+     * @return the number of quarantined versions
+     */
+    public int getVersionsQuarantined() {
+        return versionsQuarantined.get();
+    }
+
+    /**
+     * Returns the number of calls to the storage.
+     *
+     * @return the number of storage calls
+     */
+    public long getStorageCalls() {
+        return storageCalls.get();
+    }
+
+    /**
+     * Returns the number of pom bytes read from the storage.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * Returns the time spent parsing poms and evaluating xpaths.
+     *
+     * @return the parse time
+     */
+    public Duration getParseTime() {
+        return Duration.ofNanos(parseNanos.get());
+    }
+}
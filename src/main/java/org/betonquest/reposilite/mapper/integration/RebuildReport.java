@@ -0,0 +1,73 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The report of a cache rebuild covering multiple artifacts.
+ *
+ * @param entries     the report of each rebuilt artifact
+ * @param parallelism the number of artifacts rebuilt in parallel
+ * @param wallTime    the total time of the rebuild
+ */
+public record RebuildReport(List<Entry> entries, int parallelism, Duration wallTime) {
+
+    /**
+     * The number of bytes in a kibibyte.
+     */
+    private static final double KIBIBYTE = 1024.0;
+
+    /**
+     * Formats the report as human-readable lines, one per artifact and a summary.
+     *
+     * @return the formatted lines
+     */
+    public List<String> format() {
+        final List<String> lines = new ArrayList<>();
+        long storageCalls = 0;
+        long bytesRead = 0;
+        int succeeded = 0;
+        for (final Entry entry : entries) {
+            lines.add(entry.format());
+            storageCalls += entry.metrics().getStorageCalls();
+            bytesRead += entry.metrics().getBytesRead();
+            if (entry.success()) {
+                succeeded++;
+            }
+        }
+        lines.add("Updated " + succeeded + "/" + entries.size() + " artifacts in " + wallTime.toMillis() + " ms with parallelism "
+                + parallelism + ": " + storageCalls + " storage calls, " + formatBytes(bytesRead) + " read.");
+        return lines;
+    }
+
+    private static String formatBytes(final long bytes) {
+        return String.format(Locale.ROOT, "%.1f KiB", bytes / KIBIBYTE);
+    }
+
+    /**
+     * The report of a single rebuilt artifact.
+     *
+     * @param artifactConfigId the config id of the artifact
+     * @param success          whether the rebuild succeeded
+     * @param versions         the number of cached versions after the rebuild
+     * @param metrics          the counters collected during the rebuild
+     * @param wallTime         the total time of the rebuild
+     */
+    public record Entry(String artifactConfigId, boolean success, int versions, RebuildMetrics metrics, Duration wallTime) {
+
+        /**
+         * Formats the entry as a human-readable line.
+         *
+         * @return the formatted line
+         */
+        public String format() {
+            return "  > \"" + artifactConfigId + "\" " + (success ? "updated" : "failed") + ": " + versions + " versions ("
+                    + metrics.getVersionsParsed() + " parsed, " + metrics.getVersionsIdentical() + " identical, "
+                    + metrics.getVersionsReused() + " unchanged, " + metrics.getVersionsQuarantined() + " quarantined), "
+                    + metrics.getStorageCalls() + " storage calls, " + formatBytes(metrics.getBytesRead()) + " read, "
+                    + "parse " + metrics.getParseTime().toMillis() + " ms, total " + wallTime.toMillis() + " ms";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cheap fingerprint of all files a cached version is read from: the pom, the jar and the jar's checksum files.
+ * A version is only reused from the cache if none of them was added, removed or changed since it was read,
+ * so a jar or checksum uploaded after the pom is picked up.
+ *
+ * @param pom    the fingerprint of the pom
+ * @param jar    the fingerprint of the jar or null if absent
+ * @param sha1   the fingerprint of the jar's sha1 checksum file or null if absent
+ * @param sha256 the fingerprint of the jar's sha256 checksum file or null if absent
+ */
+public record VersionFingerprint(PomFingerprint pom, @Nullable PomFingerprint jar, @Nullable PomFingerprint sha1,
+                                 @Nullable PomFingerprint sha256) {
+}
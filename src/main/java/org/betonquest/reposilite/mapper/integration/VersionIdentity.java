@@ -0,0 +1,20 @@
+package org.betonquest.reposilite.mapper.integration;
+
+/**
+ * The identity of a version across rebuilds.
+ *
+ * @param group the group version
+ * @param maven the maven version
+ */
+record VersionIdentity(String group, String maven) {
+
+    /**
+     * Returns the identity of a version.
+     *
+     * @param entry the version
+     * @return the identity
+     */
+    static VersionIdentity of(final PomVersionedEntry entry) {
+        return new VersionIdentity(entry.group(), entry.maven());
+    }
+}
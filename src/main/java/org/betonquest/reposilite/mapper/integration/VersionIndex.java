@@ -0,0 +1,296 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.Restriction;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable index of all versions of an artifact, parsed and sorted once at ingest.
+ * <p>
+ * Versions are sorted ascending by their group version and then by their maven version,
+ * so range queries on the group version are resolved by binary search.
+ * Subclasses may keep the versions outside the heap, see {@link MappedVersionIndex}.
+ */
+public class VersionIndex {
+
+    /**
+     * The empty index.
+     */
+    public static final VersionIndex EMPTY = new VersionIndex(List.of(), 0);
+
+    /**
+     * The generation of the cache this index was created in.
+     */
+    private final long generation;
+
+    /**
+     * All versions in ascending order.
+     */
+    private final List<PomVersionedEntry> entries;
+
+    /**
+     * The parsed group version of each entry, in the same order as {@link #entries}, or null if parsed on demand.
+     */
+    @Nullable
+    private final DefaultArtifactVersion[] groups;
+
+    /**
+     * Creates a new index from unordered versions. Null values are ignored.
+     *
+     * @param versions   the versions to index
+     * @param generation the generation of the cache this index is created in
+     */
+    public VersionIndex(final List<PomVersionedEntry> versions, final long generation) {
+        this.generation = generation;
+        final List<Parsed> parsed = versions.stream()
+                .filter(Objects::nonNull)
+                .map(entry -> new Parsed(entry, new DefaultArtifactVersion(entry.group()), new DefaultArtifactVersion(entry.maven())))
+                .sorted(Comparator.comparing(Parsed::group).thenComparing(Parsed::maven))
+                .toList();
+        this.entries = parsed.stream().map(Parsed::entry).toList();
+        this.groups = parsed.stream().map(Parsed::group).toArray(DefaultArtifactVersion[]::new);
+    }
+
+    /**
+     * Creates a new index from versions that are already sorted, parsing group versions on demand.
+     *
+     * @param generation     the generation of the cache this index is created in
+     * @param sortedVersions the versions in ascending order
+     */
+    protected VersionIndex(final long generation, final List<PomVersionedEntry> sortedVersions) {
+        this.generation = generation;
+        this.entries = sortedVersions;
+        this.groups = null;
+    }
+
+    /**
+     * Parses a version range in maven syntax. A single version without brackets is interpreted as exact version.
+     *
+     * @param spec the range specification, like {@code [2.0,3.0)} or {@code [1.12,1.13),[2.0,)}
+     * @return the parsed range
+     * @throws InvalidVersionSpecificationException if the syntax is invalid
+     */
+    public static VersionRange parseRange(final String spec) throws InvalidVersionSpecificationException {
+        final String trimmed = spec.trim();
+        final boolean bracketed = trimmed.startsWith("[") || trimmed.startsWith("(");
+        return VersionRange.createFromVersionSpec(bracketed ? trimmed : "[" + trimmed + "]");
+    }
+
+    /**
+     * Returns all versions in ascending order.
+     *
+     * @return all versions
+     */
+    public List<PomVersionedEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * Returns the generation of the cache this index was created in.
+     * Every rebuild of an artifact's cache creates a new index with a higher generation.
+     *
+     * @return the generation
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of versions.
+     *
+     * @return the number of versions
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of distinct group versions.
+     *
+     * @return the number of groups
+     */
+    public int groupCount() {
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            if (i == 0 || !group(i).equals(group(i - 1))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the group version of the entry at the given position without decoding the whole entry.
+     *
+     * @param position the position in the index
+     * @return the group version
+     */
+    public String group(final int position) {
+        return entries.get(position).group();
+    }
+
+    /**
+     * Returns the maven version of the entry at the given position without decoding the whole entry.
+     *
+     * @param position the position in the index
+     * @return the maven version
+     */
+    public String maven(final int position) {
+        return entries.get(position).maven();
+    }
+
+    /**
+     * Passes each extracted value of the entry at the given position to the consumer without decoding the whole entry.
+     *
+     * @param position the position in the index
+     * @param consumer the consumer of the xpath entry id and the extracted value
+     */
+    public void forEachValue(final int position, final BiConsumer<String, String> consumer) {
+        entries.get(position).pom().forEach(consumer);
+    }
+
+    /**
+     * Returns the position of a version by binary search on its group version.
+     *
+     * @param identity the group and maven version of the version
+     * @return the position in the index or -1 if the version is not indexed
+     */
+    /*default*/ int indexOf(final VersionIdentity identity) {
+        final ArtifactVersion group = new DefaultArtifactVersion(identity.group());
+        for (int position = firstIndexNotBelow(group); position < size() && groupAt(position).compareTo(group) == 0; position++) {
+            if (identity.group().equals(group(position)) && identity.maven().equals(maven(position))) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the parsed group version of the entry at the given position.
+     *
+     * @param position the position in the index
+     * @return the parsed group version
+     */
+    protected ArtifactVersion groupAt(final int position) {
+        return groups == null ? new DefaultArtifactVersion(entries.get(position).group()) : groups[position];
+    }
+
+    /**
+     * Returns all versions whose group version is contained in the given range, in ascending order.
+     *
+     * @param range the range to resolve
+     * @return the matching versions
+     */
+    public List<PomVersionedEntry> range(final VersionRange range) {
+        return range(range, null);
+    }
+
+    /**
+     * Returns all versions whose group version is contained in the given range and that are newer than the given
+     * version as defined by {@link PomVersionedEntry#isNewerThan(String)}, in ascending order.
+     * <p>
+     * Both bounds are resolved by binary search. Only the versions of the group equal to the given version
+     * are compared by their maven version.
+     *
+     * @param range the range to resolve or null for all versions
+     * @param since the version the returned versions must be newer than or null for all versions
+     * @return the matching versions
+     */
+    public List<PomVersionedEntry> range(@Nullable final VersionRange range, @Nullable final String since) {
+        final ArtifactVersion sinceVersion = since == null ? null : new DefaultArtifactVersion(since);
+        final int sinceIndex = sinceVersion == null ? 0 : firstIndexNotBelow(sinceVersion);
+        if (range == null) {
+            return slice(sinceIndex, entries.size(), sinceVersion);
+        }
+        final List<PomVersionedEntry> result = new ArrayList<>();
+        for (final Restriction restriction : range.getRestrictions()) {
+            final int from = Math.max(sinceIndex, lowerIndex(restriction.getLowerBound(), restriction.isLowerBoundInclusive()));
+            final int until = upperIndex(restriction.getUpperBound(), restriction.isUpperBoundInclusive());
+            result.addAll(slice(from, until, sinceVersion));
+        }
+        return result;
+    }
+
+    private List<PomVersionedEntry> slice(final int from, final int until, @Nullable final ArtifactVersion since) {
+        if (from >= until) {
+            return List.of();
+        }
+        if (since == null) {
+            return entries.subList(from, until);
+        }
+        int start = from;
+        final List<PomVersionedEntry> sameGroup = new ArrayList<>();
+        while (start < until && groupAt(start).compareTo(since) == 0) {
+            if (new DefaultArtifactVersion(maven(start)).compareTo(since) > 0) {
+                sameGroup.add(entries.get(start));
+            }
+            start++;
+        }
+        if (sameGroup.isEmpty()) {
+            return entries.subList(start, until);
+        }
+        sameGroup.addAll(entries.subList(start, until));
+        return sameGroup;
+    }
+
+    private int lowerIndex(@Nullable final ArtifactVersion bound, final boolean inclusive) {
+        if (bound == null) {
+            return 0;
+        }
+        return inclusive ? firstIndexNotBelow(bound) : firstIndexAbove(bound);
+    }
+
+    private int upperIndex(@Nullable final ArtifactVersion bound, final boolean inclusive) {
+        if (bound == null) {
+            return entries.size();
+        }
+        return inclusive ? firstIndexAbove(bound) : firstIndexNotBelow(bound);
+    }
+
+    private int firstIndexNotBelow(final ArtifactVersion bound) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            final int mid = low + high >>> 1;
+            if (groupAt(mid).compareTo(bound) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstIndexAbove(final ArtifactVersion bound) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            final int mid = low + high >>> 1;
+            if (groupAt(mid).compareTo(bound) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A version with its parsed versions used for sorting.
+     *
+     * @param entry the version
+     * @param group the parsed group version
+     * @param maven the parsed maven version
+     */
+    private record Parsed(PomVersionedEntry entry, DefaultArtifactVersion group, DefaultArtifactVersion maven) {
+    }
+}
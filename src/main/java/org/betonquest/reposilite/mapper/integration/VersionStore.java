@@ -0,0 +1,36 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides where the {@link VersionIndex} of each artifact in the {@link ArtifactsVersionsCache} is kept.
+ */
+public interface VersionStore {
+
+    /**
+     * Stores a newly built index.
+     *
+     * @param artifact the artifact the index belongs to
+     * @param index    the newly built index on the heap
+     * @return the index to serve, either the given one or one backed by the store
+     */
+    VersionIndex store(Artifact artifact, VersionIndex index);
+
+    /**
+     * Loads the index of an artifact stored by a previous run.
+     *
+     * @param artifact   the artifact to load the index for
+     * @param generation the generation of the cache the index is loaded in
+     * @return the stored index or null if none is stored for the current definition of the artifact
+     */
+    @Nullable
+    VersionIndex load(Artifact artifact, long generation);
+
+    /**
+     * Deletes the stored index of an artifact.
+     *
+     * @param artifactConfigId the artifact config id to delete the index of
+     */
+    void delete(String artifactConfigId);
+}
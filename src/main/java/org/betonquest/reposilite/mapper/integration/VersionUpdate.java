@@ -0,0 +1,10 @@
+package org.betonquest.reposilite.mapper.integration;
+
+/**
+ * A version that stayed cached across a rebuild but whose extracted values changed.
+ *
+ * @param previous the version as cached before the rebuild
+ * @param current  the version as cached after the rebuild
+ */
+public record VersionUpdate(PomVersionedEntry previous, PomVersionedEntry current) {
+}
@@ -0,0 +1,52 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.List;
+
+/**
+ * Listener notified by the {@link ArtifactsVersionsCache} whenever versions of an artifact were ingested.
+ */
+@FunctionalInterface
+public interface VersionsCacheListener {
+
+    /**
+     * Called after the cache of an artifact was updated and contains versions that were not cached before.
+     * Versions are identified by their group and maven version. The first build of an artifact's cache reports
+     * no changes, it is only passed to {@link #onVersionsCached(String, VersionIndex, boolean)}.
+     *
+     * @param artifactConfigId The artifact config id the versions belong to.
+     * @param added            The newly ingested versions.
+     */
+    void onVersionsAdded(String artifactConfigId, List<PomVersionedEntry> added);
+
+    /**
+     * Called after the cache of an artifact was updated and no longer contains versions that were cached before.
+     *
+     * @param artifactConfigId The artifact config id the versions belonged to.
+     * @param removed          The versions no longer cached.
+     */
+    default void onVersionsRemoved(final String artifactConfigId, final List<PomVersionedEntry> removed) {
+        // Empty
+    }
+
+    /**
+     * Called after the cache of an artifact was updated and contains versions that were cached before
+     * with different extracted values.
+     *
+     * @param artifactConfigId The artifact config id the versions belong to.
+     * @param updated          The changed versions.
+     */
+    default void onVersionsUpdated(final String artifactConfigId, final List<VersionUpdate> updated) {
+        // Empty
+    }
+
+    /**
+     * Called after the cache of an artifact was replaced.
+     *
+     * @param artifactConfigId The artifact config id the versions belong to.
+     * @param index            The index of all versions now cached for the artifact.
+     * @param local            True if the versions were read by this node, false if loaded from a peer's snapshot.
+     */
+    default void onVersionsCached(final String artifactConfigId, final VersionIndex index, final boolean local) {
+        // Empty
+    }
+}
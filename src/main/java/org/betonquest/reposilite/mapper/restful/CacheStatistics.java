@@ -0,0 +1,130 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.adapter.ExecutorMetrics;
+import org.betonquest.reposilite.mapper.integration.ArtifactStatus;
+import org.betonquest.reposilite.mapper.integration.ArtifactsVersionsCache;
+import org.betonquest.reposilite.mapper.integration.MemoryEstimator;
+import org.betonquest.reposilite.mapper.integration.PomQuarantine;
+import org.betonquest.reposilite.mapper.integration.VersionIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A point in time view of the size and efficiency of the pommapper caches, used to size the heap of a node.
+ *
+ * @param artifacts           the statistics of each known artifact, largest first
+ * @param responseCacheSize   the number of cached responses
+ * @param responseCacheBytes  the total size of the cached responses in bytes
+ * @param responseCacheHits   the number of response cache hits of all artifacts
+ * @param responseCacheMisses the number of response cache misses of all artifacts
+ * @param executors           the load of the plugin executors
+ */
+public record CacheStatistics(List<ArtifactStatistics> artifacts, int responseCacheSize, long responseCacheBytes, long responseCacheHits,
+                              long responseCacheMisses, List<ExecutorMetrics> executors) {
+
+    /**
+     * The number of bytes in a kibibyte.
+     */
+    private static final double KIBIBYTE = 1024.0;
+
+    /**
+     * Collects the current statistics.
+     *
+     * @param artifactsVersionsCache the cache of all versions
+     * @param responseCache          the cache of serialized responses
+     * @param quarantine             the poms that could not be read
+     * @param executors              the load of the plugin executors
+     * @return the statistics
+     */
+    public static CacheStatistics collect(final ArtifactsVersionsCache artifactsVersionsCache, final ResponseCache responseCache,
+                                          final PomQuarantine quarantine, final List<ExecutorMetrics> executors) {
+        final List<ArtifactStatistics> artifacts = new ArrayList<>();
+        for (final Map.Entry<String, ArtifactStatus> entry : artifactsVersionsCache.getStatuses().entrySet()) {
+            final String id = entry.getKey();
+            final VersionIndex index = artifactsVersionsCache.getIndex(id);
+            artifacts.add(new ArtifactStatistics(id, entry.getValue(), index.size(), index.groupCount(),
+                    MemoryEstimator.estimate(index), responseCache.getHits(id), responseCache.getMisses(id),
+                    quarantine.get(id)));
+        }
+        artifacts.sort(Comparator.comparingLong(ArtifactStatistics::retainedBytes).reversed()
+                .thenComparing(ArtifactStatistics::id));
+        return new CacheStatistics(artifacts, responseCache.size(), responseCache.bytes(), responseCache.getHits(),
+                responseCache.getMisses(), executors);
+    }
+
+    /**
+     * Calculates the ratio of hits to all lookups.
+     *
+     * @param hits   the number of hits
+     * @param misses the number of misses
+     * @return the hit ratio between 0 and 1, 0 if there were no lookups
+     */
+    public static double hitRatio(final long hits, final long misses) {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the estimated heap retained by the versions of all artifacts.
+     *
+     * @return the estimated size in bytes
+     */
+    public long retainedBytes() {
+        return artifacts.stream().mapToLong(ArtifactStatistics::retainedBytes).sum();
+    }
+
+    /**
+     * Formats the statistics as human-readable lines, one per artifact, a summary and one per executor.
+     *
+     * @return the formatted lines
+     */
+    public List<String> format() {
+        final List<String> lines = new ArrayList<>();
+        for (final ArtifactStatistics artifact : artifacts) {
+            lines.add(String.format(Locale.ROOT, "  > \"%s\" %s: %d versions in %d groups, ~%.1f KiB, response cache hit ratio %.2f, last rebuild %s (%d ms)",
+                    artifact.id(), artifact.status().state().name().toLowerCase(Locale.ROOT), artifact.versions(), artifact.groups(),
+                    artifact.retainedBytes() / KIBIBYTE, artifact.hitRatio(), artifact.status().lastRebuild(),
+                    artifact.status().lastRebuildDuration().toMillis()));
+            for (final PomQuarantine.QuarantinedPom pom : artifact.quarantined()) {
+                lines.add(String.format(Locale.ROOT, "    quarantined \"%s\" after %d failures, %s: %s", pom.location(), pom.failures(),
+                        pom.retryAt() == null ? "until it changes" : "retry at " + pom.retryAt(), pom.reason()));
+            }
+        }
+        lines.add(String.format(Locale.ROOT, "%d artifacts retain ~%.1f KiB, %d cached responses with ~%.1f KiB and hit ratio %.2f.",
+                artifacts.size(), retainedBytes() / KIBIBYTE, responseCacheSize, responseCacheBytes / KIBIBYTE, hitRatio(responseCacheHits, responseCacheMisses)));
+        for (final ExecutorMetrics executor : executors) {
+            lines.add(String.format(Locale.ROOT, "  > executor \"%s\": %d active, %d queued, %d completed",
+                    executor.name(), executor.active(), executor.queued(), executor.completed()));
+        }
+        return lines;
+    }
+
+    /**
+     * The statistics of a single artifact.
+     *
+     * @param id            the artifact config id
+     * @param status        the rebuild status
+     * @param versions      the number of cached versions
+     * @param groups        the number of distinct group versions
+     * @param retainedBytes the estimated heap retained by the cached versions
+     * @param hits          the number of response cache hits
+     * @param misses        the number of response cache misses
+     * @param quarantined   the poms that could not be read
+     */
+    public record ArtifactStatistics(String id, ArtifactStatus status, int versions, int groups, long retainedBytes,
+                                     long hits, long misses, List<PomQuarantine.QuarantinedPom> quarantined) {
+
+        /**
+         * Returns the response cache hit ratio.
+         *
+         * @return the hit ratio between 0 and 1
+         */
+        public double hitRatio() {
+            return CacheStatistics.hitRatio(hits, misses);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor pointing into the sorted version index of an artifact.
+ * A cursor is only valid for the generation of the index and the query it was created for.
+ * Generations start at a random epoch, so a cursor of another node or of a previous run is rejected as outdated.
+ *
+ * @param generation the generation of the index the cursor was created for
+ * @param position   the exclusive upper position in the index the next page starts below
+ * @param queryHash  the hash of the filter query the cursor was created for
+ */
+public record PageCursor(long generation, int position, int queryHash) {
+
+    /**
+     * The separator between the encoded values.
+     */
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Decodes a cursor token.
+     *
+     * @param token the token to decode
+     * @return the decoded cursor or null if the token is malformed
+     */
+    @Nullable
+    public static PageCursor decode(final String token) {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] parts = decoded.split(SEPARATOR);
+            if (parts.length != 3) {
+                return null;
+            }
+            final PageCursor cursor = new PageCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            return cursor.position() < 0 ? null : cursor;
+        } catch (final IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes this cursor to an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        final String raw = generation + SEPARATOR + position + SEPARATOR + queryHash;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a version to include in a response.
+ * Names may reference result keys like {@value RestfulDefinitions#RESULT_JSON_KEY_JAR_PATH}
+ * or ids of xpath entries included in {@value RestfulDefinitions#RESULT_JSON_KEY_ENTRIES}.
+ *
+ * @param fields the names of all included fields or null to include everything
+ */
+public record Projection(@Nullable Set<String> fields) {
+
+    /**
+     * The projection including everything.
+     */
+    public static final Projection ALL = new Projection(null);
+
+    /**
+     * Parses a comma separated list of field names.
+     *
+     * @param fields the comma separated list or null
+     * @return the projection, {@link #ALL} if no fields are given
+     */
+    public static Projection parse(@Nullable final String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        return new Projection(Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * Checks if the given field is included.
+     *
+     * @param field the name of the field
+     * @return true if the field is included
+     */
+    public boolean includes(final String field) {
+        return fields == null || fields.contains(field);
+    }
+}
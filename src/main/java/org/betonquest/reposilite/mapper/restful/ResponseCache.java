@@ -0,0 +1,260 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.mapper.integration.ExtractionCache;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Least-recently-used cache of serialized responses, bounded by their number and the total size of their bodies.
+ * <p>
+ * Keys contain the cache generation of the artifact's index, so entries of outdated generations are never hit again
+ * and are evicted over time.
+ */
+public class ResponseCache {
+
+    /**
+     * The number of digest bytes used in entity tags.
+     */
+    private static final int ETAG_BYTES = 16;
+
+    /**
+     * The cached responses in access order.
+     */
+    private final Map<String, CachedResponse> entries;
+
+    /**
+     * Supplies the maximum number of cached responses.
+     */
+    private final IntSupplier maxSize;
+
+    /**
+     * Supplies the maximum total size of the cached bodies in bytes.
+     */
+    private final IntSupplier maxBytes;
+
+    /**
+     * The number of cache hits.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * The total size of the cached bodies in bytes, guarded by {@link #entries}.
+     */
+    private long bytes;
+
+    /**
+     * The number of cache misses.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * The number of cache hits and misses by artifact config id.
+     */
+    private final Map<String, Counters> countersById;
+
+    /**
+     * Constructor for the ResponseCache.
+     *
+     * @param maxSize  supplies the maximum number of cached responses, a value below one disables the cache
+     * @param maxBytes supplies the maximum total size of the cached bodies in bytes, a value below one disables the cache
+     */
+    public ResponseCache(final IntSupplier maxSize, final IntSupplier maxBytes) {
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.countersById = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the cache key for a request.
+     *
+     * @param route      the name of the route
+     * @param format     the format of the response
+     * @param id         the artifact config id
+     * @param generation the generation of the artifact's index
+     * @param query      the query parameters of the request
+     * @return the cache key
+     */
+    public static String key(final String route, final ResponseFormat format, final String id, final long generation, final Map<String, List<String>> query) {
+        return route + '|' + format + '|' + id + '|' + generation + '|' + new TreeMap<>(query);
+    }
+
+    /**
+     * Creates the entity tag of a response from its content, so equal responses have equal tags on every node and
+     * across restarts, while any change of the content changes the tag.
+     *
+     * @param body        the serialized body
+     * @param contentType the content type of the body
+     * @param nextCursor  the cursor of the next page or null
+     * @return the quoted entity tag
+     */
+    public static String etag(final byte[] body, final String contentType, @Nullable final String nextCursor) {
+        final MessageDigest digest = ExtractionCache.newDigest();
+        digest.update(contentType.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (nextCursor != null) {
+            digest.update(nextCursor.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        digest.update(body);
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, ETAG_BYTES) + "\"";
+    }
+
+    /**
+     * Returns the cached response for a key.
+     *
+     * @param id  the artifact config id the key belongs to
+     * @param key the cache key
+     * @return the cached response or null
+     */
+    @Nullable
+    public CachedResponse get(final String id, final String key) {
+        final CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+        }
+        final Counters counters = countersById.computeIfAbsent(id, ignored -> new Counters(new AtomicLong(), new AtomicLong()));
+        if (response == null) {
+            misses.incrementAndGet();
+            counters.misses().incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+            counters.hits().incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * Caches a response, evicting the least recently used responses until both bounds are met.
+     * A response larger than the byte bound is not cached.
+     *
+     * @param key      the cache key
+     * @param response the response to cache
+     */
+    public void put(final String key, final CachedResponse response) {
+        final int limit = maxSize.getAsInt();
+        final int byteLimit = maxBytes.getAsInt();
+        if (limit < 1 || byteLimit < 1 || response.body().length > byteLimit) {
+            return;
+        }
+        synchronized (entries) {
+            final CachedResponse replaced = entries.put(key, response);
+            if (replaced != null) {
+                bytes -= replaced.body().length;
+            }
+            bytes += response.body().length;
+            while (entries.size() > limit || bytes > byteLimit) {
+                final Iterator<CachedResponse> eldest = entries.values().iterator();
+                bytes -= eldest.next().body().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of cached responses
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached bodies.
+     *
+     * @return the size in bytes
+     */
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of cache hits for an artifact.
+     *
+     * @param id the artifact config id
+     * @return the number of hits
+     */
+    public long getHits(final String id) {
+        final Counters counters = countersById.get(id);
+        return counters == null ? 0 : counters.hits().get();
+    }
+
+    /**
+     * Returns the number of cache misses for an artifact.
+     *
+     * @param id the artifact config id
+     * @return the number of misses
+     */
+    public long getMisses(final String id) {
+        final Counters counters = countersById.get(id);
+        return counters == null ? 0 : counters.misses().get();
+    }
+
+    /**
+     * The hit and miss counters of an artifact.
+     *
+     * @param hits   the number of hits
+     * @param misses the number of misses
+     */
+    private record Counters(AtomicLong hits, AtomicLong misses) {
+    }
+
+    /**
+     * A serialized response.
+     *
+     * @param body        the serialized body
+     * @param contentType the content type of the body
+     * @param nextCursor  the cursor of the next page or null
+     * @param etag        the quoted entity tag derived from the content
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public record CachedResponse(byte[] body, String contentType, @Nullable String nextCursor, String etag) {
+
+        /**
+         * Creates a response, deriving its entity tag from the content.
+         *
+         * @param body        the serialized body
+         * @param contentType the content type of the body
+         * @param nextCursor  the cursor of the next page or null
+         */
+        public CachedResponse(final byte[] body, final String contentType, @Nullable final String nextCursor) {
+            this(body, contentType, nextCursor, ResponseCache.etag(body, contentType, nextCursor));
+        }
+    }
+}
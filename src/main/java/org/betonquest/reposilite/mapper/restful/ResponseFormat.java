@@ -0,0 +1,282 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.javalin.http.ContentType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The encodings a response can be served in, negotiated via the {@code Accept} header.
+ * All formats encode the same JSON tree, JSON is the default.
+ * <p>
+ * CBOR is written from the same tree as JSON, so it costs the same to build on the server.
+ * Its only gain is a smaller payload and cheaper parsing on the client.
+ */
+public enum ResponseFormat {
+
+    /**
+     * JSON as produced by Gson.
+     */
+    JSON(ContentType.APPLICATION_JSON.getMimeType()) {
+        @Override
+        public byte[] encode(final Gson gson, final JsonElement element) {
+            return gson.toJson(element).getBytes(StandardCharsets.UTF_8);
+        }
+    },
+
+    /**
+     * Concise Binary Object Representation as defined in RFC 8949.
+     */
+    CBOR("application/cbor") {
+        @Override
+        public byte[] encode(final Gson gson, final JsonElement element) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeCbor(out, element);
+            return out.toByteArray();
+        }
+    };
+
+    /**
+     * CBOR major type of unsigned integers.
+     */
+    private static final int MAJOR_UNSIGNED = 0;
+
+    /**
+     * CBOR major type of negative integers.
+     */
+    private static final int MAJOR_NEGATIVE = 1;
+
+    /**
+     * CBOR major type of text strings.
+     */
+    private static final int MAJOR_TEXT = 3;
+
+    /**
+     * CBOR major type of arrays.
+     */
+    private static final int MAJOR_ARRAY = 4;
+
+    /**
+     * CBOR major type of maps.
+     */
+    private static final int MAJOR_MAP = 5;
+
+    /**
+     * CBOR initial byte of false.
+     */
+    private static final int SIMPLE_FALSE = 0xF4;
+
+    /**
+     * CBOR initial byte of true.
+     */
+    private static final int SIMPLE_TRUE = 0xF5;
+
+    /**
+     * CBOR initial byte of null.
+     */
+    private static final int SIMPLE_NULL = 0xF6;
+
+    /**
+     * CBOR initial byte of a double precision float.
+     */
+    private static final int FLOAT_64 = 0xFB;
+
+    /**
+     * The mime type of the format.
+     */
+    private final String mimeType;
+
+    ResponseFormat(final String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * Selects the format for the given {@code Accept} header.
+     * <p>
+     * Each format gets the quality of the most specific media range matching it, a quality of 0 excludes it.
+     * The format with the highest quality is selected, ties are broken by the server preference in declaration order.
+     * If no format is acceptable, the first format the header does not mention is used, {@link #JSON} otherwise.
+     *
+     * @param accept the value of the accept header or null
+     * @return the negotiated format
+     */
+    public static ResponseFormat negotiate(@Nullable final String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        final List<MediaRange> ranges = Arrays.stream(accept.split(","))
+                .map(MediaRange::parse)
+                .filter(Objects::nonNull)
+                .toList();
+        ResponseFormat best = null;
+        double bestQuality = 0;
+        ResponseFormat unmentioned = null;
+        for (final ResponseFormat format : values()) {
+            final MediaRange match = ranges.stream()
+                    .filter(range -> range.matches(format.mimeType))
+                    .max(Comparator.comparingInt(MediaRange::specificity))
+                    .orElse(null);
+            if (match == null) {
+                if (unmentioned == null) {
+                    unmentioned = format;
+                }
+            } else if (match.quality() > bestQuality) {
+                best = format;
+                bestQuality = match.quality();
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return unmentioned == null ? JSON : unmentioned;
+    }
+
+    private static void writeCbor(final ByteArrayOutputStream out, final JsonElement element) {
+        if (element.isJsonNull()) {
+            out.write(SIMPLE_NULL);
+        } else if (element.isJsonObject()) {
+            final JsonObject object = element.getAsJsonObject();
+            writeHead(out, MAJOR_MAP, object.size());
+            for (final Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeText(out, entry.getKey());
+                writeCbor(out, entry.getValue());
+            }
+        } else if (element.isJsonArray()) {
+            final JsonArray array = element.getAsJsonArray();
+            writeHead(out, MAJOR_ARRAY, array.size());
+            array.forEach(child -> writeCbor(out, child));
+        } else {
+            writePrimitive(out, element.getAsJsonPrimitive());
+        }
+    }
+
+    private static void writePrimitive(final ByteArrayOutputStream out, final JsonPrimitive primitive) {
+        if (primitive.isBoolean()) {
+            out.write(primitive.getAsBoolean() ? SIMPLE_TRUE : SIMPLE_FALSE);
+        } else if (primitive.isNumber()) {
+            final BigDecimal number = primitive.getAsBigDecimal();
+            if (number.scale() <= 0 && number.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+                final long value = number.longValueExact();
+                if (value < 0) {
+                    writeHead(out, MAJOR_NEGATIVE, -1 - value);
+                } else {
+                    writeHead(out, MAJOR_UNSIGNED, value);
+                }
+            } else {
+                out.write(FLOAT_64);
+                writeLong(out, Double.doubleToLongBits(number.doubleValue()), Long.BYTES);
+            }
+        } else {
+            writeText(out, primitive.getAsString());
+        }
+    }
+
+    private static void writeText(final ByteArrayOutputStream out, final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeHead(out, MAJOR_TEXT, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+    private static void writeHead(final ByteArrayOutputStream out, final int majorType, final long argument) {
+        final int major = majorType << 5;
+        if (argument < 24) {
+            out.write(major | (int) argument);
+        } else if (argument <= 0xFF) {
+            out.write(major | 24);
+            writeLong(out, argument, 1);
+        } else if (argument <= 0xFFFF) {
+            out.write(major | 25);
+            writeLong(out, argument, 2);
+        } else if (argument <= 0xFFFF_FFFFL) {
+            out.write(major | 26);
+            writeLong(out, argument, 4);
+        } else {
+            out.write(major | 27);
+            writeLong(out, argument, 8);
+        }
+    }
+
+    private static void writeLong(final ByteArrayOutputStream out, final long value, final int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift) & 0xFF);
+        }
+    }
+
+    /**
+     * Returns the mime type of the format.
+     *
+     * @return the mime type
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Encodes the given JSON tree.
+     *
+     * @param gson    the gson instance used for JSON encoding
+     * @param element the tree to encode
+     * @return the encoded bytes
+     */
+    public abstract byte[] encode(Gson gson, JsonElement element);
+
+    /**
+     * A media range of an {@code Accept} header.
+     *
+     * @param type    the lower case type or {@code *}
+     * @param subtype the lower case subtype or {@code *}
+     * @param quality the quality between 0 and 1
+     */
+    private record MediaRange(String type, String subtype, double quality) {
+
+        /**
+         * The wildcard matching any type or subtype.
+         */
+        private static final String WILDCARD = "*";
+
+        @Nullable
+        private static MediaRange parse(final String value) {
+            final String[] parameters = value.split(";");
+            final String[] mediaType = parameters[0].trim().toLowerCase(Locale.ROOT).split("/");
+            if (mediaType.length != 2 || mediaType[0].isEmpty() || mediaType[1].isEmpty()) {
+                return null;
+            }
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                final String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Math.max(0, Math.min(1, Double.parseDouble(parameter.substring(2).trim())));
+                    } catch (final NumberFormatException exception) {
+                        return null;
+                    }
+                }
+            }
+            return new MediaRange(mediaType[0], mediaType[1], quality);
+        }
+
+        private boolean matches(final String mimeType) {
+            final String[] mediaType = mimeType.split("/");
+            return (WILDCARD.equals(type) || type.equals(mediaType[0]))
+                    && (WILDCARD.equals(subtype) || subtype.equals(mediaType[1]));
+        }
+
+        private int specificity() {
+            return (WILDCARD.equals(type) ? 0 : 1) + (WILDCARD.equals(subtype) ? 0 : 1);
+        }
+    }
+}
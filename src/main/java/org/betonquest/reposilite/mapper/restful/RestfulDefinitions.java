@@ -68,6 +68,16 @@ public interface RestfulDefinitions {
      */
     String SERVICE_REPOSITORY_QPARAM_DEFAULT_SINCE = "0.0.1";
 
+    /**
+     * The query parameter for the version range of the direct repository service.
+     */
+    String SERVICE_REPOSITORY_QPARAM_NAME_RANGE = "range";
+
+    /**
+     * The query parameter for the projection of the direct repository service.
+     */
+    String SERVICE_REPOSITORY_QPARAM_NAME_FIELDS = "fields";
+
     // ------------------- Service: accessor -------------------
 
     /**
@@ -125,6 +135,109 @@ public interface RestfulDefinitions {
      */
     String SERVICE_ID_QPARAM_DEFAULT_SINCE = "0.0.1";
 
+    /**
+     * The query parameter for the group version range in maven syntax of the id service.
+     */
+    String SERVICE_ID_QPARAM_NAME_RANGE = "range";
+
+    /**
+     * The query parameter for the page size of the id service. Enables cursor based pagination.
+     */
+    String SERVICE_ID_QPARAM_NAME_PAGE_SIZE = "pageSize";
+
+    /**
+     * The default value of the page size query parameter for the id service, disabling pagination.
+     */
+    int SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE = -1;
+
+    /**
+     * The page size used if only a cursor but no page size is given.
+     */
+    int SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE_FALLBACK = 100;
+
+    /**
+     * The query parameter for the cursor of the id service, as returned by the previous page.
+     */
+    String SERVICE_ID_QPARAM_NAME_CURSOR = "cursor";
+
+    /**
+     * The query parameter for the projection of the id service, a comma separated list of xpath entry ids and result keys.
+     */
+    String SERVICE_ID_QPARAM_NAME_FIELDS = "fields";
+
+    /**
+     * The response header containing the cursor of the next page.
+     */
+    String SERVICE_ID_HEADER_NEXT_CURSOR = "X-PomMapper-Next-Cursor";
+
+    // ------------------- Service: readiness -------------------
+
+    /**
+     * The full path of the readiness service.
+     */
+    String SERVICE_READY_PATH = ROOT + "ready";
+
+    /**
+     * The path of the readiness service with open api syntax.
+     */
+    String SERVICE_READY_PATH_REPOSILITE = SERVICE_READY_PATH;
+
+    /**
+     * The response header telling whether the served versions may be outdated because a rebuild is running or failed.
+     */
+    String HEADER_STALE = "X-PomMapper-Stale";
+
+    /**
+     * The number of seconds clients are asked to wait before retrying a request for an artifact not cached yet.
+     */
+    int RETRY_AFTER_SECONDS = 5;
+
+    // ------------------- Service: reverse lookup -------------------
+
+    /**
+     * The full path of the reverse lookup service.
+     */
+    String SERVICE_WHERE_PATH = SERVICE_ID_PATH + "/where";
+
+    /**
+     * The path of the reverse lookup service with open api syntax.
+     */
+    String SERVICE_WHERE_PATH_REPOSILITE = SERVICE_WHERE_PATH;
+
+    /**
+     * The query parameter for the xpath entry id of the reverse lookup service.
+     */
+    String SERVICE_WHERE_QPARAM_NAME_KEY = "key";
+
+    /**
+     * The query parameter for the extracted value of the reverse lookup service.
+     */
+    String SERVICE_WHERE_QPARAM_NAME_VALUE = "value";
+
+    // ------------------- Service: events -------------------
+
+    /**
+     * The full path of the event stream service.
+     */
+    String SERVICE_EVENTS_PATH = SERVICE_ID_PATH + "/events";
+
+    /**
+     * The path of the event stream service with open api syntax.
+     */
+    String SERVICE_EVENTS_PATH_REPOSILITE = SERVICE_EVENTS_PATH;
+
+    // ------------------- Service: statistics -------------------
+
+    /**
+     * The full path of the cache statistics service.
+     */
+    String SERVICE_STATS_PATH = ROOT + "stats";
+
+    /**
+     * The path of the cache statistics service with open api syntax.
+     */
+    String SERVICE_STATS_PATH_REPOSILITE = SERVICE_STATS_PATH;
+
     // ------------------- Rest API Results -------------------
 
     /**
@@ -142,6 +255,26 @@ public interface RestfulDefinitions {
      */
     String RESULT_JSON_KEY_JAR_PATH = "jar";
 
+    /**
+     * The key for the size in bytes of the artifact's jar in the JSON result, absent if unknown.
+     */
+    String RESULT_JSON_KEY_JAR_SIZE = "jarSize";
+
+    /**
+     * The key for the last modification time of the artifact's jar in the JSON result, absent if unknown.
+     */
+    String RESULT_JSON_KEY_JAR_LAST_MODIFIED = "jarLastModified";
+
+    /**
+     * The key for the sha1 checksum of the artifact's jar in the JSON result, absent if unknown.
+     */
+    String RESULT_JSON_KEY_JAR_SHA1 = "jarSha1";
+
+    /**
+     * The key for the sha256 checksum of the artifact's jar in the JSON result, absent if unknown.
+     */
+    String RESULT_JSON_KEY_JAR_SHA256 = "jarSha256";
+
     /**
      * The key for all entries filtered using xPaths from the artifact's pom.xml in the JSON result.
      */
@@ -151,4 +284,109 @@ public interface RestfulDefinitions {
      * The key for the artifact's maven version group in the JSON result.
      */
     String RESULT_JSON_KEY_GROUP = "group";
+
+    /**
+     * The key for the overall readiness in the JSON result of the readiness service.
+     */
+    String RESULT_JSON_KEY_READY = "ready";
+
+    /**
+     * The key for the per artifact states in the JSON result of the readiness service.
+     */
+    String RESULT_JSON_KEY_ARTIFACTS = "artifacts";
+
+    /**
+     * The key for an artifact's cache state in the JSON result of the readiness service.
+     */
+    String RESULT_JSON_KEY_STATE = "state";
+
+    /**
+     * The key for the time of an artifact's last rebuild in the JSON result of the readiness service.
+     */
+    String RESULT_JSON_KEY_LAST_REBUILD = "lastRebuild";
+
+    /**
+     * The key for the duration in milliseconds of an artifact's last rebuild in the JSON result of the readiness service.
+     */
+    String RESULT_JSON_KEY_LAST_REBUILD_MILLIS = "lastRebuildMillis";
+
+    /**
+     * The key for the number of cached versions in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_VERSION_COUNT = "versionCount";
+
+    /**
+     * The key for the number of group versions in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_GROUP_COUNT = "groupCount";
+
+    /**
+     * The key for the estimated retained heap in bytes in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_RETAINED_BYTES = "retainedBytes";
+
+    /**
+     * The key for the response cache hit ratio in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_HIT_RATIO = "hitRatio";
+
+    /**
+     * The key for the response cache in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_RESPONSE_CACHE = "responseCache";
+
+    /**
+     * The key for the number of cached responses in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_SIZE = "size";
+
+    /**
+     * The key for the total size of the cached responses in bytes in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_BYTES = "bytes";
+
+    /**
+     * The key for an artifact's quarantined poms in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_QUARANTINED = "quarantined";
+
+    /**
+     * The key for the location of a quarantined pom in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_LOCATION = "location";
+
+    /**
+     * The key for the reason a pom is quarantined in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_REASON = "reason";
+
+    /**
+     * The key for the number of consecutive failures of a quarantined pom in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_FAILURES = "failures";
+
+    /**
+     * The key for the time of the next attempt to read a quarantined pom in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_RETRY_AT = "retryAt";
+
+    /**
+     * The key for the plugin executors in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_EXECUTORS = "executors";
+
+    /**
+     * The key for the number of running tasks of an executor in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_ACTIVE = "active";
+
+    /**
+     * The key for the number of waiting tasks of an executor in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_QUEUED = "queued";
+
+    /**
+     * The key for the number of completed tasks of an executor in the JSON result of the statistics service.
+     */
+    String RESULT_JSON_KEY_COMPLETED = "completed";
 }
@@ -11,26 +11,42 @@ import com.reposilite.web.api.ReposiliteRoute;
 import io.javalin.community.routing.Route;
 import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.http.Header;
 import io.javalin.http.HttpStatus;
+import io.javalin.http.sse.SseHandler;
 import io.javalin.openapi.HttpMethod;
 import io.javalin.openapi.OpenApi;
 import io.javalin.openapi.OpenApiContent;
 import io.javalin.openapi.OpenApiParam;
 import io.javalin.openapi.OpenApiResponse;
 import kotlin.Unit;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.betonquest.reposilite.adapter.ExecutorMetrics;
+import org.betonquest.reposilite.mapper.integration.ArtifactStatus;
 import org.betonquest.reposilite.mapper.integration.ArtifactsVersionsCache;
+import org.betonquest.reposilite.mapper.integration.CacheState;
+import org.betonquest.reposilite.mapper.integration.JarDetails;
 import org.betonquest.reposilite.mapper.integration.PomMapperFacade;
+import org.betonquest.reposilite.mapper.integration.PomQuarantine;
 import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.integration.VersionIndex;
+import org.betonquest.reposilite.mapper.restful.ResponseCache.CachedResponse;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Contains and handles all routes for the Restful API.
@@ -42,6 +58,10 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
 
     private final PomMapperFacade baseFacade;
 
+    private final VersionEventBroadcaster eventBroadcaster;
+
+    private final ResponseCache responseCache;
+
     @OpenApi(
             path = SERVICE_ID_PATH,
             methods = HttpMethod.GET,
@@ -53,16 +73,26 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_ID_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, description = "The maximum amount of elements per group to return. " + SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS + " by default.", example = "10", type = Integer.class),
-                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3")
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RANGE, description = "Only return versions whose group version is within the given maven version range.", example = "[2.0,3.0)"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_PAGE_SIZE, description = "The number of versions per page, newest first. The cursor of the next page is returned in the " + SERVICE_ID_HEADER_NEXT_CURSOR + " header. Disabled by default.", example = "100", type = Integer.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_CURSOR, description = "The cursor of the page to return, as returned by the previous page."),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_FIELDS, description = "Comma separated xpath entry ids and result keys to include. The version is always included. Everything by default.", example = "jar,api-version")
             },
             responses = {
-                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths, sizes, modification times and checksums", content = {@OpenApiContent(from = String.class, type = ContentType.JSON), @OpenApiContent(from = byte[].class, type = "application/cbor")}),
                     @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
-                    @OpenApiResponse(status = "404", description = "Internal id not found")
+                    @OpenApiResponse(status = "304", description = "The response matching the entity tag did not change"),
+                    @OpenApiResponse(status = "400", description = "Invalid version range or cursor"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "503", description = "Internal id not cached yet"),
+                    @OpenApiResponse(status = "410", description = "The cursor belongs to an outdated cache generation")
             }
     )
     private final ReposiliteRoute<Void> serviceAccess = new ReposiliteRoute<>(SERVICE_ID_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
-        serviceAccessHandler(context);
+        final ServerTiming timing = startTiming();
+        serviceAccessHandler(context, timing);
+        timing.apply(context.getCtx());
         return Unit.INSTANCE;
     });
 
@@ -80,16 +110,103 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_REPOSITORY_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_REPOSITORY_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_LIMIT_VERSIONS, description = "The maximum amount of elements per group to return. " + SERVICE_REPOSITORY_QPARAM_DEFAULT_LIMIT_VERSIONS + " by default.", example = "10", type = Integer.class),
-                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3")
+                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3"),
+                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_RANGE, description = "Only return versions whose group version is within the given maven version range.", example = "[2.0,3.0)"),
+                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_FIELDS, description = "Comma separated xpath entry ids and result keys to include. The version is always included. Everything by default.", example = "jar,api-version")
             },
             responses = {
-                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths, sizes, modification times and checksums", content = {@OpenApiContent(from = String.class, type = ContentType.JSON), @OpenApiContent(from = byte[].class, type = "application/cbor")}),
                     @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
                     @OpenApiResponse(status = "404", description = "Target not found")
             }
     )
     private final ReposiliteRoute<Void> serviceDirect = new ReposiliteRoute<>(SERVICE_REPOSITORY_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
-        serviceDirectHandler(context);
+        final ServerTiming timing = startTiming();
+        serviceDirectHandler(context, timing);
+        timing.apply(context.getCtx());
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_READY_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Reports the cache state of all artifacts.",
+            description = "The state is one of cold, building, ready or failed. Includes time and duration of the last rebuild. "
+                    + "The node is ready while every artifact serves versions, even if a rebuild of it is running or failed.",
+            responses = {
+                    @OpenApiResponse(status = "200", description = "All artifacts are served", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "503", description = "At least one artifact was never cached", content = @OpenApiContent(from = String.class, type = ContentType.JSON))
+            }
+    )
+    private final ReposiliteRoute<Void> serviceReady = new ReposiliteRoute<>(SERVICE_READY_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
+        final ServerTiming timing = startTiming();
+        serviceReadyHandler(context, timing);
+        timing.apply(context.getCtx());
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_WHERE_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns all versions by internal id that extracted the given value for an xpath entry.",
+            description = "Answered from an inverted index without scanning all versions.",
+            pathParams = @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+            queryParams = {
+                    @OpenApiParam(name = SERVICE_WHERE_QPARAM_NAME_KEY, description = "The id of the xpath entry.", required = true, example = "api-version"),
+                    @OpenApiParam(name = SERVICE_WHERE_QPARAM_NAME_VALUE, description = "The extracted value.", required = true, example = "1.20"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_ID_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, description = "The maximum amount of elements per group to return. " + SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS + " by default.", example = "10", type = Integer.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_FIELDS, description = "Comma separated xpath entry ids and result keys to include. The version is always included. Everything by default.", example = "jar,api-version")
+            },
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all matching versions with their jar paths, sizes, modification times and checksums", content = {@OpenApiContent(from = String.class, type = ContentType.JSON), @OpenApiContent(from = byte[].class, type = "application/cbor")}),
+                    @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
+                    @OpenApiResponse(status = "400", description = "Key or value missing"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceWhere = new ReposiliteRoute<>(SERVICE_WHERE_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
+        final ServerTiming timing = startTiming();
+        serviceWhereHandler(context, timing);
+        timing.apply(context.getCtx());
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_EVENTS_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Streams newly ingested versions by internal id as server-sent events.",
+            description = "Each event named \"" + VersionEventBroadcaster.EVENT_VERSION + "\" contains a single version entry including its group. Slow consumers are disconnected.",
+            pathParams = @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Event stream of newly ingested versions", content = @OpenApiContent(from = String.class, type = "text/event-stream")),
+                    @OpenApiResponse(status = "404", description = "Internal id not found")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceEvents = new ReposiliteRoute<>(SERVICE_EVENTS_PATH_REPOSILITE, new Route[]{Route.GET}, context -> {
+        serviceEventsHandler(context);
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_STATS_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Reports the size and efficiency of the caches per artifact.",
+            description = "Includes version and group counts, the estimated retained heap, the response cache hit ratio, the last rebuild, the quarantined poms and the load of the plugin executors. Requires a manager token.",
+            responses = {
+                    @OpenApiResponse(status = "200", description = "The cache statistics, largest artifacts first", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "401", description = "Not a manager token")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceStats = new ReposiliteRoute<>(SERVICE_STATS_PATH_REPOSILITE, new Route[]{Route.GET}, context -> {
+        final ServerTiming timing = startTiming();
+        serviceStatsHandler(context, timing);
+        timing.apply(context.getCtx());
         return Unit.INSTANCE;
     });
 
@@ -102,24 +219,37 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
     public RestfulRoutes(final MavenFacade mavenFacade, final PomMapperFacade baseFacade) {
         super(mavenFacade);
         this.baseFacade = baseFacade;
+        this.eventBroadcaster = new VersionEventBroadcaster(this::serializeEvent,
+                () -> baseFacade.getPlugin().getConfig().get().getEventStreamBufferSize(),
+                baseFacade.getPlugin().getExecutors().getVirtualExecutor(), baseFacade.getPlugin().getExecutors().getScheduler());
+        this.responseCache = new ResponseCache(() -> baseFacade.getPlugin().getConfig().get().getResponseCacheSize(),
+                () -> baseFacade.getPlugin().getConfig().get().getResponseCacheBytes());
+    }
+
+    private ServerTiming startTiming() {
+        return ServerTiming.start(baseFacade.getPlugin().getConfig().get().isServerTiming());
     }
 
-    private void debug(final String message) {
-        baseFacade.getPlugin().debug("RestAPI > " + message);
+    private void debug(final Supplier<String> message) {
+        if (baseFacade.getPlugin().isDebugEnabled()) {
+            baseFacade.getPlugin().debug("RestAPI > " + message.get());
+        }
     }
 
-    private void serviceDirectHandler(final ContextDsl<Void> context) {
+    private void serviceDirectHandler(final ContextDsl<Void> context, final ServerTiming timing) {
         context.accessed(token -> {
+            timing.mark(ServerTiming.AUTH);
             requireGav(context, gav -> {
                 final String repository = context.requireParameter("repository");
                 final Context ctx = context.getCtx();
                 final Artifact artifact = baseFacade.findArtifact(repository, gav);
+                timing.mark(ServerTiming.LOOKUP);
                 if (artifact == null) {
                     ctx.status(HttpStatus.NOT_FOUND);
-                    debug("Artifact not found for gav \"" + gav + "\" in repository \"" + repository + "\".");
+                    debug(() -> "Artifact not found for gav \"" + gav + "\" in repository \"" + repository + "\".");
                     return Unit.INSTANCE;
                 }
-                debug("Trying to redirect to accessor for gav \"" + gav + "\" in repository \"" + repository + "\".");
+                debug(() -> "Trying to redirect to accessor for gav \"" + gav + "\" in repository \"" + repository + "\".");
                 String query = ctx.queryString();
                 if (query == null || query.isBlank()) {
                     query = "";
@@ -133,40 +263,299 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
         });
     }
 
-    private void serviceAccessHandler(final ContextDsl<Void> context) {
+    private void serviceAccessHandler(final ContextDsl<Void> context, final ServerTiming timing) {
         context.accessed(token -> {
+            timing.mark(ServerTiming.AUTH);
             final Context ctx = context.getCtx();
             final String id = context.requireParameter("id");
             final ArtifactsVersionsCache artifactsVersionsCache = baseFacade.getArtifactsVersionsCache();
 
-            if (!artifactsVersionsCache.hasEntry(id)) {
-                ctx.status(HttpStatus.NOT_FOUND);
-                debug("Artifact not found for id \"" + id + "\"");
+            if (!checkAvailability(ctx, id)) {
                 return null;
             }
 
-            final List<PomVersionedEntry> entries = artifactsVersionsCache.getVersions(id);
+            final VersionIndex index = artifactsVersionsCache.getIndex(id);
+            if (index.size() == 0) {
+                ctx.status(HttpStatus.NO_CONTENT).result("No entries found.");
+                debug(() -> "No entries found for id \"" + id + "\"");
+                return null;
+            }
+
+            final ResponseFormat format = ResponseFormat.negotiate(ctx.header(Header.ACCEPT));
+            final String cacheKey = ResponseCache.key(SERVICE_ID_PATH, format, id, index.generation(), ctx.queryParamMap());
+            ctx.header(Header.VARY, Header.ACCEPT);
+            CachedResponse response = responseCache.get(id, cacheKey);
+            timing.mark(ServerTiming.CACHE);
+            if (response == null) {
+                response = buildAccessResponse(ctx, id, index, format, timing);
+                if (response == null) {
+                    return null;
+                }
+                responseCache.put(cacheKey, response);
+            } else {
+                debug(() -> "Serving cached response for id \"" + id + "\"");
+            }
+            ctx.header(Header.ETAG, response.etag());
+            if (response.etag().equals(ctx.header(Header.IF_NONE_MATCH))) {
+                ctx.status(HttpStatus.NOT_MODIFIED);
+                return null;
+            }
+            if (response.nextCursor() != null) {
+                ctx.header(SERVICE_ID_HEADER_NEXT_CURSOR, response.nextCursor());
+            }
+            ctx.status(HttpStatus.OK).contentType(response.contentType()).result(response.body());
+            timing.mark(ServerTiming.WRITE);
+            return null;
+        });
+    }
+
+    @Nullable
+    private CachedResponse buildAccessResponse(final Context ctx, final String id, final VersionIndex index, final ResponseFormat format,
+                                               final ServerTiming timing) {
+        final boolean considerSnapshots = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SNAPSHOT, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT);
+        final boolean considerReleases = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_RELEASE, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_RELEASE);
+        final int limit = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, Integer.class, SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS);
+        final String since = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SINCE, String.class, SERVICE_ID_QPARAM_DEFAULT_SINCE);
+        final String range = ctx.queryParam(SERVICE_ID_QPARAM_NAME_RANGE);
+        final Projection projection = Projection.parse(ctx.queryParam(SERVICE_ID_QPARAM_NAME_FIELDS));
+
+        final List<PomVersionedEntry> entries;
+        try {
+            entries = index.range(range == null || range.isBlank() ? null : VersionIndex.parseRange(range), since);
+        } catch (final InvalidVersionSpecificationException exception) {
+            ctx.status(HttpStatus.BAD_REQUEST).result("Invalid version range: " + exception.getMessage());
+            debug(() -> "Invalid version range \"" + range + "\" for id \"" + id + "\"");
+            return null;
+        }
+
+        debug(() -> "Found " + entries.size() + " entries for id \"" + id + "\"");
+        debug(() -> "filter with: snapshots=\"" + considerSnapshots + "\", releases=\"" + considerReleases + "\", limit=\"" + limit + "\", since=\"" + since + "\", range=\"" + range + "\"");
+
+        final Predicate<PomVersionedEntry> filterTypes = version ->
+                considerSnapshots && version.isSnapshot() || considerReleases && !version.isSnapshot();
+
+        final int pageSize = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_PAGE_SIZE, Integer.class, SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE);
+        final String cursor = ctx.queryParam(SERVICE_ID_QPARAM_NAME_CURSOR);
+        if (pageSize > 0 || cursor != null) {
+            final int queryHash = Objects.hash(considerSnapshots, considerReleases, since, range);
+            return buildPage(ctx, index.generation(), entries, filterTypes, pageSize, cursor, queryHash, projection, format, timing);
+        }
+
+        final JsonArray result = resolve(entries, filterTypes, limit, projection);
+        timing.mark(ServerTiming.RESOLVE);
+        final byte[] body = format.encode(gson, result);
+        timing.mark(ServerTiming.ENCODE);
+        return new CachedResponse(body, format.getMimeType(), null);
+    }
+
+    @Nullable
+    private CachedResponse buildPage(final Context ctx, final long generation, final List<PomVersionedEntry> entries, final Predicate<PomVersionedEntry> filter,
+                                     final int pageSize, @Nullable final String token, final int queryHash, final Projection projection,
+                                     final ResponseFormat format, final ServerTiming timing) {
+        int position = entries.size();
+        if (token != null) {
+            final PageCursor cursor = PageCursor.decode(token);
+            if (cursor == null || cursor.queryHash() != queryHash || cursor.position() > entries.size()) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Invalid cursor.");
+                return null;
+            }
+            if (cursor.generation() != generation) {
+                ctx.status(HttpStatus.GONE).result("The cursor belongs to an outdated cache generation, restart without cursor.");
+                return null;
+            }
+            position = cursor.position();
+        }
+        final int size = pageSize > 0 ? pageSize : SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE_FALLBACK;
+        final List<PomVersionedEntry> page = new ArrayList<>(Math.min(size, position));
+        while (position > 0 && page.size() < size) {
+            position--;
+            final PomVersionedEntry entry = entries.get(position);
+            if (filter.test(entry)) {
+                page.add(entry);
+            }
+        }
+        final int nextPosition = position;
+        debug(() -> "Serving page of " + page.size() + " entries, next position " + nextPosition);
+        final String nextCursor = position > 0 ? new PageCursor(generation, position, queryHash).encode() : null;
+        Collections.reverse(page);
+        final JsonArray result = resolve(page, entry -> true, -1, projection);
+        timing.mark(ServerTiming.RESOLVE);
+        final byte[] body = format.encode(gson, result);
+        timing.mark(ServerTiming.ENCODE);
+        return new CachedResponse(body, format.getMimeType(), nextCursor);
+    }
+
+    private void serviceWhereHandler(final ContextDsl<Void> context, final ServerTiming timing) {
+        context.accessed(token -> {
+            timing.mark(ServerTiming.AUTH);
+            final Context ctx = context.getCtx();
+            final String id = context.requireParameter("id");
+            final ArtifactsVersionsCache artifactsVersionsCache = baseFacade.getArtifactsVersionsCache();
+            if (!checkAvailability(ctx, id)) {
+                return null;
+            }
+            final String key = ctx.queryParam(SERVICE_WHERE_QPARAM_NAME_KEY);
+            final String value = ctx.queryParam(SERVICE_WHERE_QPARAM_NAME_VALUE);
+            if (key == null || value == null) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Query parameters \"" + SERVICE_WHERE_QPARAM_NAME_KEY + "\" and \"" + SERVICE_WHERE_QPARAM_NAME_VALUE + "\" are required.");
+                return null;
+            }
+            final List<PomVersionedEntry> entries = artifactsVersionsCache.getValueIndex().lookup(id, key, value);
+            timing.mark(ServerTiming.CACHE);
+            debug(() -> "Reverse lookup of " + key + "=\"" + value + "\" for id \"" + id + "\" found " + entries.size() + " entries");
             if (entries.isEmpty()) {
                 ctx.status(HttpStatus.NO_CONTENT).result("No entries found.");
-                debug("No entries found for id \"" + id + "\"");
                 return null;
             }
 
             final boolean considerSnapshots = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SNAPSHOT, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT);
             final boolean considerReleases = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_RELEASE, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_RELEASE);
             final int limit = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, Integer.class, SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS);
-            final String since = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SINCE, String.class, SERVICE_ID_QPARAM_DEFAULT_SINCE);
-
-            debug("Found " + entries.size() + " entries for id \"" + id + "\"");
-            debug("filter with: snapshots=\"" + considerSnapshots + "\", releases=\"" + considerReleases + "\", limit=\"" + limit + "\", since=\"" + since + "\"");
-
             final Predicate<PomVersionedEntry> filterTypes = version ->
                     considerSnapshots && version.isSnapshot() || considerReleases && !version.isSnapshot();
-            final Predicate<PomVersionedEntry> filterSince = version -> version.isNewerThan(since);
 
-            final JsonArray result = resolve(entries, filterTypes.and(filterSince), limit);
+            final Projection projection = Projection.parse(ctx.queryParam(SERVICE_ID_QPARAM_NAME_FIELDS));
+            final ResponseFormat format = ResponseFormat.negotiate(ctx.header(Header.ACCEPT));
+            ctx.header(Header.VARY, Header.ACCEPT);
+            final JsonArray result = resolve(entries, filterTypes, limit, projection);
+            timing.mark(ServerTiming.RESOLVE);
+            final byte[] body = format.encode(gson, result);
+            timing.mark(ServerTiming.ENCODE);
+            ctx.status(HttpStatus.OK).contentType(format.getMimeType()).result(body);
+            timing.mark(ServerTiming.WRITE);
+            return null;
+        });
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void serviceEventsHandler(final ContextDsl<Void> context) {
+        context.accessed(token -> {
+            final Context ctx = context.getCtx();
+            final String id = context.requireParameter("id");
+            if (!checkAvailability(ctx, id)) {
+                return null;
+            }
+            try {
+                new SseHandler(0L, client -> eventBroadcaster.subscribe(id, client)).handle(ctx);
+            } catch (final Exception exception) {
+                baseFacade.getPlugin().warn("Could not open event stream for id \"" + id + "\" - " + exception.getMessage());
+                ctx.status(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return null;
+        });
+    }
+
+    private String serializeEvent(final PomVersionedEntry entry) {
+        final JsonObject event = buildPomEntries(entry, Projection.ALL);
+        event.addProperty(RESULT_JSON_KEY_GROUP, entry.group());
+        return gson.toJson(event);
+    }
+
+    /**
+     * Checks if the versions of an artifact can be served and sets the staleness header.
+     * Responds with 404 for unknown ids and with 503 for artifacts whose first rebuild did not finish yet.
+     *
+     * @param ctx the context of the request
+     * @param id  the artifact config id
+     * @return true if the versions can be served
+     */
+    private boolean checkAvailability(final Context ctx, final String id) {
+        final ArtifactsVersionsCache artifactsVersionsCache = baseFacade.getArtifactsVersionsCache();
+        final ArtifactStatus status = artifactsVersionsCache.getStatus(id);
+        if (artifactsVersionsCache.hasEntry(id)) {
+            ctx.header(HEADER_STALE, String.valueOf(status != null && status.isStale()));
+            return true;
+        }
+        if (status == null) {
+            ctx.status(HttpStatus.NOT_FOUND);
+            debug(() -> "Artifact not found for id \"" + id + "\"");
+            return false;
+        }
+        ctx.header(Header.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        ctx.status(HttpStatus.SERVICE_UNAVAILABLE).result("Artifact cache is " + status.state().name().toLowerCase(Locale.ROOT) + ".");
+        debug(() -> "Artifact not cached yet for id \"" + id + "\", state " + status.state());
+        return false;
+    }
+
+    private void serviceReadyHandler(final ContextDsl<Void> context, final ServerTiming timing) {
+        context.accessed(token -> {
+            timing.mark(ServerTiming.AUTH);
+            final Context ctx = context.getCtx();
+            final ArtifactsVersionsCache artifactsVersionsCache = baseFacade.getArtifactsVersionsCache();
+            final JsonObject artifacts = new JsonObject();
+            boolean ready = true;
+            for (final Map.Entry<String, ArtifactStatus> entry : new TreeMap<>(artifactsVersionsCache.getStatuses()).entrySet()) {
+                final ArtifactStatus status = entry.getValue();
+                final Instant lastRebuild = status.lastRebuild();
+                ready &= status.state() == CacheState.READY || artifactsVersionsCache.hasEntry(entry.getKey());
+                final JsonObject artifact = new JsonObject();
+                artifact.addProperty(RESULT_JSON_KEY_STATE, status.state().name().toLowerCase(Locale.ROOT));
+                artifact.addProperty(RESULT_JSON_KEY_LAST_REBUILD, lastRebuild == null ? null : lastRebuild.toString());
+                artifact.addProperty(RESULT_JSON_KEY_LAST_REBUILD_MILLIS, status.lastRebuildDuration().toMillis());
+                artifacts.add(entry.getKey(), artifact);
+            }
+            final JsonObject result = new JsonObject();
+            result.addProperty(RESULT_JSON_KEY_READY, ready);
+            result.add(RESULT_JSON_KEY_ARTIFACTS, artifacts);
+            timing.mark(ServerTiming.RESOLVE);
+            final String body = gson.toJson(result);
+            timing.mark(ServerTiming.ENCODE);
+            ctx.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).contentType(ContentType.APPLICATION_JSON).result(body);
+            timing.mark(ServerTiming.WRITE);
+            return null;
+        });
+    }
 
-            ctx.status(HttpStatus.OK).result(gson.toJson(result));
+    private void serviceStatsHandler(final ContextDsl<Void> context, final ServerTiming timing) {
+        context.managerOnly(token -> {
+            timing.mark(ServerTiming.AUTH);
+            final CacheStatistics statistics = getStatistics();
+            timing.mark(ServerTiming.CACHE);
+            final JsonObject artifacts = new JsonObject();
+            for (final CacheStatistics.ArtifactStatistics artifactStatistics : statistics.artifacts()) {
+                final Instant lastRebuild = artifactStatistics.status().lastRebuild();
+                final JsonObject artifact = new JsonObject();
+                artifact.addProperty(RESULT_JSON_KEY_STATE, artifactStatistics.status().state().name().toLowerCase(Locale.ROOT));
+                artifact.addProperty(RESULT_JSON_KEY_VERSION_COUNT, artifactStatistics.versions());
+                artifact.addProperty(RESULT_JSON_KEY_GROUP_COUNT, artifactStatistics.groups());
+                artifact.addProperty(RESULT_JSON_KEY_RETAINED_BYTES, artifactStatistics.retainedBytes());
+                artifact.addProperty(RESULT_JSON_KEY_HIT_RATIO, artifactStatistics.hitRatio());
+                artifact.addProperty(RESULT_JSON_KEY_LAST_REBUILD, lastRebuild == null ? null : lastRebuild.toString());
+                artifact.addProperty(RESULT_JSON_KEY_LAST_REBUILD_MILLIS, artifactStatistics.status().lastRebuildDuration().toMillis());
+                final JsonArray quarantined = new JsonArray();
+                for (final PomQuarantine.QuarantinedPom pom : artifactStatistics.quarantined()) {
+                    final JsonObject quarantinedPom = new JsonObject();
+                    quarantinedPom.addProperty(RESULT_JSON_KEY_LOCATION, pom.location().toString());
+                    quarantinedPom.addProperty(RESULT_JSON_KEY_REASON, pom.reason());
+                    quarantinedPom.addProperty(RESULT_JSON_KEY_FAILURES, pom.failures());
+                    quarantinedPom.addProperty(RESULT_JSON_KEY_RETRY_AT, pom.retryAt() == null ? null : pom.retryAt().toString());
+                    quarantined.add(quarantinedPom);
+                }
+                artifact.add(RESULT_JSON_KEY_QUARANTINED, quarantined);
+                artifacts.add(artifactStatistics.id(), artifact);
+            }
+            final JsonObject responses = new JsonObject();
+            responses.addProperty(RESULT_JSON_KEY_SIZE, statistics.responseCacheSize());
+            responses.addProperty(RESULT_JSON_KEY_BYTES, statistics.responseCacheBytes());
+            responses.addProperty(RESULT_JSON_KEY_HIT_RATIO, CacheStatistics.hitRatio(statistics.responseCacheHits(), statistics.responseCacheMisses()));
+            final JsonObject executors = new JsonObject();
+            for (final ExecutorMetrics executorMetrics : statistics.executors()) {
+                final JsonObject executor = new JsonObject();
+                executor.addProperty(RESULT_JSON_KEY_ACTIVE, executorMetrics.active());
+                executor.addProperty(RESULT_JSON_KEY_QUEUED, executorMetrics.queued());
+                executor.addProperty(RESULT_JSON_KEY_COMPLETED, executorMetrics.completed());
+                executors.add(executorMetrics.name(), executor);
+            }
+            final JsonObject result = new JsonObject();
+            result.addProperty(RESULT_JSON_KEY_RETAINED_BYTES, statistics.retainedBytes());
+            result.add(RESULT_JSON_KEY_RESPONSE_CACHE, responses);
+            result.add(RESULT_JSON_KEY_ARTIFACTS, artifacts);
+            result.add(RESULT_JSON_KEY_EXECUTORS, executors);
+            timing.mark(ServerTiming.RESOLVE);
+            final String body = gson.toJson(result);
+            timing.mark(ServerTiming.ENCODE);
+            context.getCtx().status(HttpStatus.OK).contentType(ContentType.APPLICATION_JSON).result(body);
+            timing.mark(ServerTiming.WRITE);
             return null;
         });
     }
@@ -175,52 +564,107 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
         return ctx.queryParamAsClass(param, result).getOrDefault(defaultValue);
     }
 
-    private JsonArray resolve(final List<PomVersionedEntry> versions, final Predicate<PomVersionedEntry> queryParamFilter, final int limit) {
-        final Map<String, List<Map.Entry<DefaultArtifactVersion, JsonObject>>> groups = new HashMap<>();
-        extractGroups(versions, queryParamFilter).forEach(group -> groups.put(group, new ArrayList<>()));
-        versions.stream().filter(queryParamFilter).forEach(version ->
-                groups.get(version.group()).add(Map.entry(new DefaultArtifactVersion(version.maven()), buildPomEntries(version))));
+    /**
+     * Groups versions by their group version, both in descending order.
+     *
+     * @param versions         the versions in ascending order, as kept by the {@link VersionIndex}
+     * @param queryParamFilter the filter versions must pass
+     * @param limit            the maximum number of versions per group or a non-positive value for all
+     * @param projection       the fields to include
+     * @return the grouped versions
+     */
+    private JsonArray resolve(final List<PomVersionedEntry> versions, final Predicate<PomVersionedEntry> queryParamFilter, final int limit, final Projection projection) {
+        final Map<String, JsonArray> groups = new LinkedHashMap<>();
+        for (final ListIterator<PomVersionedEntry> iterator = versions.listIterator(versions.size()); iterator.hasPrevious();) {
+            final PomVersionedEntry version = iterator.previous();
+            if (!queryParamFilter.test(version)) {
+                continue;
+            }
+            final JsonArray group = groups.computeIfAbsent(version.group(), tag -> new JsonArray());
+            if (limit <= 0 || group.size() < limit) {
+                group.add(buildPomEntries(version, projection));
+            }
+        }
 
-        debug("Resolved " + groups.size() + " maven version groups.");
+        debug(() -> "Resolved " + groups.size() + " maven version groups.");
 
-        final Comparator<Map.Entry<DefaultArtifactVersion, JsonObject>> comp = Map.Entry.comparingByKey();
-        final List<Map.Entry<DefaultArtifactVersion, JsonObject>> objects = new ArrayList<>();
+        final JsonArray parent = new JsonArray();
         groups.forEach((tag, entries) -> {
             final JsonObject group = new JsonObject();
-            entries.sort(comp.reversed());
-            if (limit > 0 && limit < entries.size()) {
-                entries.subList(limit, entries.size()).clear();
-            }
             group.addProperty(RESULT_JSON_KEY_GROUP, tag);
-            group.add(RESULT_JSON_KEY_VERSIONS, entries.stream().map(Map.Entry::getValue).collect(JsonArray::new, JsonArray::add, JsonArray::addAll));
-            objects.add(Map.entry(new DefaultArtifactVersion(tag), group));
+            group.add(RESULT_JSON_KEY_VERSIONS, entries);
+            parent.add(group);
         });
-        objects.sort(comp.reversed());
-
-        final JsonArray parent = new JsonArray();
-        objects.forEach(pair -> parent.add(pair.getValue()));
         return parent;
     }
 
-    private List<String> extractGroups(final List<PomVersionedEntry> versions, final Predicate<PomVersionedEntry> queryParamFilter) {
-        return versions.stream()
-                .filter(queryParamFilter)
-                .map(PomVersionedEntry::group)
-                .toList();
-    }
-
-    private JsonObject buildPomEntries(final PomVersionedEntry entry) {
+    private JsonObject buildPomEntries(final PomVersionedEntry entry, final Projection projection) {
         final JsonObject parent = new JsonObject();
         final JsonObject pomVersions = new JsonObject();
-        entry.pom().forEach(pomVersions::addProperty);
+        for (final Map.Entry<String, String> value : entry.pom().entrySet()) {
+            if (projection.includes(value.getKey())) {
+                pomVersions.addProperty(value.getKey(), value.getValue());
+            }
+        }
         parent.addProperty(RESULT_JSON_KEY_MVN_VERSION, entry.maven());
-        parent.addProperty(RESULT_JSON_KEY_JAR_PATH, entry.jarLocation().toString());
-        parent.add(RESULT_JSON_KEY_ENTRIES, pomVersions);
+        if (projection.includes(RESULT_JSON_KEY_JAR_PATH)) {
+            parent.addProperty(RESULT_JSON_KEY_JAR_PATH, entry.jarLocation().toString());
+        }
+        final JarDetails jar = entry.jar();
+        if (jar != null) {
+            addJarDetails(parent, jar, projection);
+        }
+        if (projection.includes(RESULT_JSON_KEY_ENTRIES) || !pomVersions.isEmpty()) {
+            parent.add(RESULT_JSON_KEY_ENTRIES, pomVersions);
+        }
         return parent;
     }
 
+    private void addJarDetails(final JsonObject parent, final JarDetails jar, final Projection projection) {
+        if (projection.includes(RESULT_JSON_KEY_JAR_SIZE)) {
+            parent.addProperty(RESULT_JSON_KEY_JAR_SIZE, jar.size());
+        }
+        if (jar.lastModified() >= 0 && projection.includes(RESULT_JSON_KEY_JAR_LAST_MODIFIED)) {
+            parent.addProperty(RESULT_JSON_KEY_JAR_LAST_MODIFIED, Instant.ofEpochMilli(jar.lastModified()).toString());
+        }
+        if (jar.sha1() != null && projection.includes(RESULT_JSON_KEY_JAR_SHA1)) {
+            parent.addProperty(RESULT_JSON_KEY_JAR_SHA1, jar.sha1());
+        }
+        if (jar.sha256() != null && projection.includes(RESULT_JSON_KEY_JAR_SHA256)) {
+            parent.addProperty(RESULT_JSON_KEY_JAR_SHA256, jar.sha256());
+        }
+    }
+
+    /**
+     * Collects the current statistics of the version cache and the response cache.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatistics getStatistics() {
+        return CacheStatistics.collect(baseFacade.getArtifactsVersionsCache(), responseCache, baseFacade.getQuarantine(),
+                baseFacade.getPlugin().getExecutors().getMetrics());
+    }
+
+    /**
+     * Returns the cache of serialized responses.
+     *
+     * @return the response cache
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the broadcaster pushing new versions to the event stream service subscribers.
+     *
+     * @return the event broadcaster
+     */
+    public VersionEventBroadcaster getEventBroadcaster() {
+        return eventBroadcaster;
+    }
+
     @Override
     public Set<ReposiliteRoute<?>> getRoutes() {
-        return Set.of(serviceDirect, serviceAccess);
+        return Set.of(serviceDirect, serviceAccess, serviceReady, serviceWhere, serviceEvents, serviceStats);
     }
 }
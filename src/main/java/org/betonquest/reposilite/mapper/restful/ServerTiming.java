@@ -0,0 +1,139 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import io.javalin.http.Context;
+
+import java.util.Locale;
+
+/**
+ * Measures the phases of a request and reports them in the {@value #HEADER} response header.
+ * <p>
+ * Each {@link #mark(String)} records the time since the previous mark under the given phase.
+ * A disabled timing is a shared instance doing nothing, so routes can mark their phases unconditionally.
+ */
+public final class ServerTiming {
+
+    /**
+     * The name of the response header.
+     */
+    public static final String HEADER = "Server-Timing";
+
+    /**
+     * The phase authenticating the request.
+     */
+    public static final String AUTH = "auth";
+
+    /**
+     * The phase looking up the artifact.
+     */
+    public static final String LOOKUP = "lookup";
+
+    /**
+     * The phase looking up cached versions and responses.
+     */
+    public static final String CACHE = "cache";
+
+    /**
+     * The phase filtering versions and building the result.
+     */
+    public static final String RESOLVE = "resolve";
+
+    /**
+     * The phase encoding the result.
+     */
+    public static final String ENCODE = "encode";
+
+    /**
+     * The phase handing the encoded body and its headers to the server.
+     * The body is sent to the client afterward, so sending is not part of any phase.
+     */
+    public static final String WRITE = "write";
+
+    /**
+     * The phase covering the whole request.
+     */
+    public static final String TOTAL = "total";
+
+    /**
+     * The shared timing doing nothing.
+     */
+    private static final ServerTiming DISABLED = new ServerTiming(0);
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * The time the request started.
+     */
+    private final long start;
+
+    /**
+     * The recorded phases in the header format.
+     */
+    private final StringBuilder metrics;
+
+    /**
+     * The time of the previous mark.
+     */
+    private long previous;
+
+    private ServerTiming(final long start) {
+        this.start = start;
+        this.previous = start;
+        this.metrics = new StringBuilder();
+    }
+
+    /**
+     * Starts the timing of a request.
+     *
+     * @param enabled whether the timing is reported
+     * @return a new timing or a timing doing nothing if disabled
+     */
+    public static ServerTiming start(final boolean enabled) {
+        return enabled ? new ServerTiming(System.nanoTime()) : DISABLED;
+    }
+
+    /**
+     * Records the time since the previous mark under the given phase.
+     *
+     * @param phase the name of the phase that just ended
+     */
+    public void mark(final String phase) {
+        if (this == DISABLED) {
+            return;
+        }
+        final long now = System.nanoTime();
+        append(phase, now - previous);
+        previous = now;
+    }
+
+    /**
+     * Sets the response header with all recorded phases and the total duration.
+     *
+     * @param ctx the context of the request
+     */
+    public void apply(final Context ctx) {
+        if (this == DISABLED) {
+            return;
+        }
+        ctx.header(HEADER, finish());
+    }
+
+    /**
+     * Records the total duration and returns the value of the response header.
+     *
+     * @return the recorded phases in the header format
+     */
+    /*default*/ String finish() {
+        append(TOTAL, System.nanoTime() - start);
+        return metrics.toString();
+    }
+
+    private void append(final String phase, final long nanos) {
+        if (!metrics.isEmpty()) {
+            metrics.append(", ");
+        }
+        metrics.append(phase).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI));
+    }
+}
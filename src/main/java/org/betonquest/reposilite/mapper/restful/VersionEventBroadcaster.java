@@ -0,0 +1,246 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import io.javalin.http.sse.SseClient;
+import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.integration.VersionsCacheListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Pushes newly ingested {@link PomVersionedEntry}s to all server-sent event subscribers of an artifact.
+ * <p>
+ * Idle subscribers hold no thread and no buffer memory. Every subscriber has a bounded buffer;
+ * a subscriber that cannot keep up and overflows its buffer is disconnected.
+ * All writes to a client, events and heartbeats, go through the drain lane of its subscriber,
+ * so a client is never written by two threads at the same time.
+ */
+public class VersionEventBroadcaster implements VersionsCacheListener {
+
+    /**
+     * The name of the event sent for each new version.
+     */
+    public static final String EVENT_VERSION = "version";
+
+    /**
+     * The interval in seconds in which a heartbeat comment is sent to detect dead connections.
+     */
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 30;
+
+    /**
+     * All subscribers grouped by the artifact config id they subscribed to.
+     */
+    private final Map<String, Set<Subscriber>> subscribers;
+
+    /**
+     * Serializes a {@link PomVersionedEntry} to the payload sent to the subscribers.
+     */
+    private final Function<PomVersionedEntry, String> serializer;
+
+    /**
+     * Supplies the maximum number of pending events per subscriber.
+     */
+    private final IntSupplier bufferSize;
+
+    /**
+     * The executor writing pending events to the subscribers.
+     */
+    private final ExecutorService dispatcher;
+
+    /**
+     * The periodic task sending heartbeats to all subscribers.
+     */
+    private final ScheduledFuture<?> heartbeat;
+
+    /**
+     * Constructor for the VersionEventBroadcaster.
+     *
+     * @param serializer the serializer for the event payload
+     * @param bufferSize the supplier for the maximum number of pending events per subscriber
+     * @param dispatcher the executor writing pending events to the subscribers
+     * @param scheduler  the scheduler sending heartbeats to all subscribers
+     */
+    public VersionEventBroadcaster(final Function<PomVersionedEntry, String> serializer, final IntSupplier bufferSize,
+                                   final ExecutorService dispatcher, final ScheduledExecutorService scheduler) {
+        this.subscribers = new ConcurrentHashMap<>();
+        this.serializer = serializer;
+        this.bufferSize = bufferSize;
+        this.dispatcher = dispatcher;
+        this.heartbeat = scheduler.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribes the given client to all new versions of the given artifact.
+     * The connection is kept open until the client disconnects or is too slow.
+     * <p>
+     * {@link SseClient#keepAlive()} does not block: it hands the request a future that only completes when the client
+     * is closed, so the request thread returns to the pool and an idle subscriber holds no thread.
+     *
+     * @param artifactConfigId the artifact config id to subscribe to
+     * @param client           the client to subscribe
+     */
+    public void subscribe(final String artifactConfigId, final SseClient client) {
+        final Subscriber subscriber = new Subscriber(artifactConfigId, client);
+        client.onClose(() -> unsubscribe(subscriber));
+        subscribers.computeIfAbsent(artifactConfigId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        client.keepAlive();
+    }
+
+    /**
+     * Returns the number of currently connected subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void onVersionsAdded(final String artifactConfigId, final List<PomVersionedEntry> added) {
+        final Set<Subscriber> targets = subscribers.get(artifactConfigId);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        final List<String> payloads = added.stream().map(serializer).toList();
+        for (final Subscriber subscriber : targets) {
+            subscriber.offer(payloads);
+        }
+    }
+
+    /**
+     * Disconnects all subscribers and stops the heartbeats.
+     */
+    public void shutdown() {
+        heartbeat.cancel(false);
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        subscribers.clear();
+    }
+
+    private void unsubscribe(final Subscriber subscriber) {
+        final Set<Subscriber> set = subscribers.get(subscriber.artifactConfigId);
+        if (set != null) {
+            set.remove(subscriber);
+            if (set.isEmpty()) {
+                subscribers.remove(subscriber.artifactConfigId, set);
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.client.terminated()) {
+                unsubscribe(subscriber);
+            } else {
+                subscriber.heartbeat();
+            }
+        }));
+    }
+
+    /**
+     * A single connected client with its bounded buffer of pending events.
+     */
+    private final class Subscriber {
+
+        /**
+         * The artifact config id the client subscribed to.
+         */
+        private final String artifactConfigId;
+
+        /**
+         * The connected client.
+         */
+        private final SseClient client;
+
+        /**
+         * The events not yet written to the client.
+         */
+        private final Queue<String> buffer;
+
+        /**
+         * The number of events in the buffer.
+         */
+        private final AtomicInteger pending;
+
+        /**
+         * Whether a dispatcher thread is currently writing to the client.
+         */
+        private final AtomicBoolean draining;
+
+        private Subscriber(final String artifactConfigId, final SseClient client) {
+            this.artifactConfigId = artifactConfigId;
+            this.client = client;
+            this.buffer = new ConcurrentLinkedQueue<>();
+            this.pending = new AtomicInteger();
+            this.draining = new AtomicBoolean();
+        }
+
+        private void offer(final List<String> payloads) {
+            final int limit = bufferSize.getAsInt();
+            for (final String payload : payloads) {
+                if (pending.incrementAndGet() > limit) {
+                    close();
+                    return;
+                }
+                buffer.add(payload);
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(false));
+            }
+        }
+
+        /**
+         * Sends a heartbeat through the drain lane. If the lane is busy, the events being written already show
+         * whether the connection is alive, so the heartbeat is skipped.
+         */
+        private void heartbeat() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(true));
+            }
+        }
+
+        /**
+         * Writes the pending events to the client. Must only be called by the thread that set {@link #draining}.
+         *
+         * @param heartbeat whether to send a heartbeat comment if no event is pending
+         */
+        private void drain(final boolean heartbeat) {
+            try {
+                if (heartbeat && buffer.isEmpty() && !client.terminated()) {
+                    client.sendComment("heartbeat");
+                }
+                String payload = buffer.poll();
+                while (payload != null) {
+                    pending.decrementAndGet();
+                    if (client.terminated()) {
+                        return;
+                    }
+                    client.sendEvent(EVENT_VERSION, payload);
+                    payload = buffer.poll();
+                }
+            } finally {
+                draining.set(false);
+                if (!buffer.isEmpty() && !client.terminated() && draining.compareAndSet(false, true)) {
+                    dispatcher.execute(() -> drain(false));
+                }
+            }
+        }
+
+        private void close() {
+            unsubscribe(this);
+            buffer.clear();
+            client.close();
+        }
+    }
+}
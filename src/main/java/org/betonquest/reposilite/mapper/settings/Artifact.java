@@ -9,19 +9,27 @@ import org.betonquest.reposilite.mapper.integration.PomMapperFacade;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Artifact to be used in {@link com.reposilite.configuration.shared.api.SharedSettings}.
  * Represents an artifact as defined in the settings of reposilite.
+ * <p>
+ * The groupId and artifactId may contain the wildcard {@value #WILDCARD} to define a pattern,
+ * which matches any number of characters. A pattern is never cached itself,
+ * instead all matching artifacts in the repository are discovered, see {@link #concretize(String, String)}.
  *
  * @param id           The ID of the entry
  * @param repository   The repository the artifact is sourced from
  * @param groupId      The groupId of the artifact
  * @param artifactId   The ID of the artifact
  * @param versionXPath The xpath leading to an artifact version in pom.xml
+ * @param jarEntries   The values read from files inside the artifact's jar
  */
 @SuppressWarnings("PMD.ShortVariable")
 @Doc(title = "Artifact", description = "An artifact to be considered for listing requests")
@@ -30,7 +38,8 @@ public record Artifact(
         @Doc(title = "Repository", description = "The repository the artifact is sourced from") String repository,
         @Doc(title = "GroupId", description = "The groupId of the artifact") String groupId,
         @Doc(title = "ArtifactId", description = "The Id of the artifact") String artifactId,
-        @Doc(title = "xPaths", description = "The xpaths leading to an artifact version in pom.xml") List<XPathEntry> versionXPath) {
+        @Doc(title = "xPaths", description = "The xpaths leading to an artifact version in pom.xml") List<XPathEntry> versionXPath,
+        @Doc(title = "Jar Entries", description = "The values read from files inside the jar, like plugin.yml or META-INF/MANIFEST.MF") List<JarPathEntry> jarEntries) {
 
     /**
      * Regex for artifactId to check naming conventions as defined by Apache Maven.
@@ -42,15 +51,77 @@ public record Artifact(
      */
     public static final String GROUP_ID = "^[a-z][a-z0-9_.]*$";
 
-    private static boolean validateId(final String targetRegex, final String value) {
+    /**
+     * Regex for artifactId patterns to check naming conventions as defined by Apache Maven.
+     */
+    public static final String ARTIFACT_ID_PATTERN = "^[a-z0-9*-]+$";
+
+    /**
+     * Regex for groupId patterns to check naming conventions as defined by Apache Maven.
+     */
+    public static final String GROUP_ID_PATTERN = "^[a-z*][a-z0-9_.*]*$";
+
+    /**
+     * The wildcard used in groupId and artifactId patterns.
+     */
+    public static final String WILDCARD = "*";
+
+    /**
+     * Compiled {@link #ARTIFACT_ID}.
+     */
+    private static final Pattern ARTIFACT_ID_COMPILED = Pattern.compile(ARTIFACT_ID);
+
+    /**
+     * Compiled {@link #GROUP_ID}.
+     */
+    private static final Pattern GROUP_ID_COMPILED = Pattern.compile(GROUP_ID);
+
+    /**
+     * Compiled {@link #ARTIFACT_ID_PATTERN}.
+     */
+    private static final Pattern ARTIFACT_ID_PATTERN_COMPILED = Pattern.compile(ARTIFACT_ID_PATTERN);
+
+    /**
+     * Compiled {@link #GROUP_ID_PATTERN}.
+     */
+    private static final Pattern GROUP_ID_PATTERN_COMPILED = Pattern.compile(GROUP_ID_PATTERN);
+
+    /**
+     * Compiled glob patterns shared across all artifacts, by their glob.
+     */
+    private static final Map<String, Pattern> GLOBS = new ConcurrentHashMap<>();
+
+    private static boolean validateId(final Pattern pattern, final String value) {
         if (value == null || value.isBlank()) {
             return false;
         }
-        final Pattern pattern = Pattern.compile(targetRegex);
         final Matcher matcher = pattern.matcher(value);
         return matcher.matches();
     }
 
+    /**
+     * Returns the values read from files inside the artifact's jar.
+     *
+     * @return the jar entries or an empty list if none are configured
+     */
+    @Override
+    public List<JarPathEntry> jarEntries() {
+        return jarEntries == null ? List.of() : jarEntries;
+    }
+
+    /**
+     * Returns the definitions of all values extracted per version by their id, in a stable order:
+     * the xpath of each xpath entry followed by the {@link JarPathEntry#definition()} of each jar entry.
+     *
+     * @return the definitions of the extracted values
+     */
+    public Map<String, String> extractedValues() {
+        final Map<String, String> definitions = new LinkedHashMap<>();
+        versionXPath().forEach(entry -> definitions.put(entry.id(), entry.xpath()));
+        jarEntries().forEach(entry -> definitions.put(entry.id(), entry.definition()));
+        return definitions;
+    }
+
     /**
      * Returns the {@link Location} of the artifact with the given version and extension.
      * Used to generate a path directly to an artifact's entry and file.
@@ -63,8 +134,61 @@ public record Artifact(
         return gav().resolve(version).resolve(artifactId() + "-" + version + "." + extension);
     }
 
+    private static Pattern compileGlob(final String glob) {
+        return GLOBS.computeIfAbsent(glob, key -> Pattern.compile(globToRegex(key)));
+    }
+
+    private static String globToRegex(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        for (final String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Checks if this artifact is a pattern matching multiple artifacts.
+     *
+     * @return true if the groupId or artifactId contains a wildcard
+     */
+    public boolean isPattern() {
+        return groupId != null && groupId.contains(WILDCARD) || artifactId != null && artifactId.contains(WILDCARD);
+    }
+
+    /**
+     * Checks if the given coordinates match this artifact or pattern.
+     *
+     * @param groupId    the groupId to check
+     * @param artifactId the artifactId to check
+     * @return true if the coordinates match
+     */
+    public boolean matches(final String groupId, final String artifactId) {
+        if (groupId() == null || artifactId() == null) {
+            return false;
+        }
+        return compileGlob(groupId()).matcher(groupId).matches() && compileGlob(artifactId()).matcher(artifactId).matches();
+    }
+
+    /**
+     * Creates the concrete artifact for coordinates matching this pattern.
+     * The id of the concrete artifact is this pattern's id followed by the artifactId,
+     * or by groupId and artifactId if the groupId is a pattern as well.
+     *
+     * @param groupId    the discovered groupId
+     * @param artifactId the discovered artifactId
+     * @return the concrete artifact sharing repository, xPaths and jar entries with this pattern
+     */
+    public Artifact concretize(final String groupId, final String artifactId) {
+        final String suffix = groupId().contains(WILDCARD) ? groupId + ":" + artifactId : artifactId;
+        return new Artifact(id() + ":" + suffix, repository(), groupId, artifactId, versionXPath(), jarEntries());
+    }
+
     /**
      * Returns the raw/root {@link Location} of the artifact.
+     * For patterns this is the deepest location without wildcards, below which matching artifacts are located.
      *
      * @return the raw/root {@link Location} of the artifact
      */
@@ -75,6 +199,9 @@ public record Artifact(
         if (groupId.isBlank() || artifactId.isBlank()) {
             return Location.empty();
         }
+        if (isPattern()) {
+            return patternRoot();
+        }
         final String combined = groupId().replace('.', '%') + '%' + artifactId();
         final int firstPartIndex = combined.indexOf('%');
         final String first = combined.substring(0, firstPartIndex);
@@ -82,8 +209,19 @@ public record Artifact(
         return Location.of(Path.of(first, remaining.split("%")));
     }
 
+    private Location patternRoot() {
+        final List<String> segments = new ArrayList<>(List.of(groupId().split("\\.")));
+        segments.add(artifactId());
+        final List<String> literal = segments.stream().takeWhile(segment -> !segment.contains(WILDCARD)).toList();
+        if (literal.isEmpty()) {
+            return Location.empty();
+        }
+        return Location.of(Path.of(literal.get(0), literal.subList(1, literal.size()).toArray(String[]::new)));
+    }
+
     /**
      * Checks if the artifact exists in the given repository.
+     * For patterns, the deepest location without wildcards must exist.
      *
      * @param facade the facade to use for existence check
      * @return the validation result
@@ -96,7 +234,7 @@ public record Artifact(
             error = true;
         }
         if (!facade.hasArtifact(repository(), gav())) {
-            errors.add("Artifact not found in path: \"" + repository() + "/" + gav() + "\"");
+            errors.add((isPattern() ? "Pattern root" : "Artifact") + " not found in path: \"" + repository() + "/" + gav() + "\"");
             error = true;
         }
         return new ValidationResult("Entry \"" + id() + "\"" + (error ? " has issues:" : "'s artifact can be found and accessed."), error ? ValidationType.ERROR : ValidationType.SUCCESS, errors);
@@ -109,8 +247,9 @@ public record Artifact(
      */
     public ValidationResult validateNamingConvention() {
         final List<String> errors = new ArrayList<>();
-        final boolean validatedArtifactId = validateId(ARTIFACT_ID, artifactId());
-        final boolean validatedGroupId = validateId(GROUP_ID, groupId());
+        final boolean pattern = isPattern();
+        final boolean validatedArtifactId = validateId(pattern ? ARTIFACT_ID_PATTERN_COMPILED : ARTIFACT_ID_COMPILED, artifactId());
+        final boolean validatedGroupId = validateId(pattern ? GROUP_ID_PATTERN_COMPILED : GROUP_ID_COMPILED, groupId());
         if (!validatedArtifactId || !validatedGroupId) {
             if (!validatedGroupId) {
                 errors.add("Poor 'groupId': \"" + groupId() + "\"");
@@ -0,0 +1,76 @@
+package org.betonquest.reposilite.mapper.settings;
+
+import com.reposilite.configuration.shared.api.Doc;
+import com.reposilite.configuration.shared.api.Min;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.jar.Manifest;
+
+/**
+ * Represents a value read from a file inside the artifact's jar in the settings.
+ *
+ * @param id   The ID of the entry
+ * @param path The path of the file inside the jar
+ * @param key  The key of the value in the file
+ */
+@SuppressWarnings("PMD.ShortVariable")
+@Doc(title = "JarPathEntry", description = "A list of all values read from files inside the jar")
+public record JarPathEntry(
+        @Min(min = 1) @Doc(title = "id", description = "The ID of the entry")
+        String id,
+        @Doc(title = "path", description = "The path of the file inside the jar, like plugin.yml or META-INF/MANIFEST.MF")
+        String path,
+        @Doc(title = "key", description = "The main attribute of a manifest, the key of a properties file or the top-level key of a yaml file. Empty to read the whole file")
+        String key) {
+
+    /**
+     * Parses the given file content and returns the value of the key.
+     *
+     * @param content The content of the file.
+     * @return The value of the key or an empty string if it is not defined.
+     * @throws IOException If the content could not be parsed.
+     */
+    public String parse(final byte[] content) throws IOException {
+        final String text = new String(content, StandardCharsets.UTF_8);
+        if (key == null || key.isEmpty()) {
+            return text.trim();
+        }
+        if (path.endsWith("MANIFEST.MF")) {
+            final String value = new Manifest(new ByteArrayInputStream(content)).getMainAttributes().getValue(key);
+            return value == null ? "" : value;
+        }
+        if (path.endsWith(".properties")) {
+            final Properties properties = new Properties();
+            properties.load(new StringReader(text));
+            return properties.getProperty(key, "");
+        }
+        return topLevelYamlValue(text);
+    }
+
+    private String topLevelYamlValue(final String text) {
+        final String prefix = key + ":";
+        for (final String line : text.split("\\R")) {
+            if (line.startsWith(prefix)) {
+                final String value = line.substring(prefix.length()).trim();
+                if (value.length() > 1 && (value.startsWith("\"") && value.endsWith("\"") || value.startsWith("'") && value.endsWith("'"))) {
+                    return value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns the definition of the entry, identifying where its value is read from.
+     *
+     * @return the path and key of the entry
+     */
+    public String definition() {
+        return "jar:" + path + "#" + (key == null ? "" : key);
+    }
+}
@@ -47,6 +47,97 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
      */
     /*default*/ ValidationLogLevel validationLogLevel = ValidationLogLevel.ALL;
 
+    /**
+     * See {@link #getEventStreamBufferSize()}.
+     *
+     * @see #getEventStreamBufferSize()
+     */
+    /*default*/ int eventStreamBufferSize = 64;
+
+    /**
+     * See {@link #getResponseCacheSize()}.
+     *
+     * @see #getResponseCacheSize()
+     */
+    /*default*/ int responseCacheSize = 512;
+
+    /**
+     * See {@link #getResponseCacheBytes()}.
+     *
+     * @see #getResponseCacheBytes()
+     */
+    /*default*/ int responseCacheBytes = 16 * 1024 * 1024;
+
+    /**
+     * See {@link #isServerTiming()}.
+     *
+     * @see #isServerTiming()
+     */
+    /*default*/ boolean serverTiming;
+
+    /**
+     * See {@link #isDebug()}.
+     *
+     * @see #isDebug()
+     */
+    /*default*/ boolean debug = true;
+
+    /**
+     * See {@link #getExtractionCacheSize()}.
+     *
+     * @see #getExtractionCacheSize()
+     */
+    /*default*/ int extractionCacheSize = 4096;
+
+    /**
+     * See {@link #isEffectiveValues()}.
+     *
+     * @see #isEffectiveValues()
+     */
+    /*default*/ boolean effectiveValues;
+
+    /**
+     * See {@link #getCoherenceRepository()}.
+     *
+     * @see #getCoherenceRepository()
+     */
+    /*default*/ String coherenceRepository = "";
+
+    /**
+     * See {@link #getCoherenceInterval()}.
+     *
+     * @see #getCoherenceInterval()
+     */
+    /*default*/ int coherenceInterval = 15;
+
+    /**
+     * See {@link #getReconcileInterval()}.
+     *
+     * @see #getReconcileInterval()
+     */
+    /*default*/ int reconcileInterval = 300;
+
+    /**
+     * See {@link #getReconcileBudget()}.
+     *
+     * @see #getReconcileBudget()
+     */
+    /*default*/ int reconcileBudget = 500;
+
+    /**
+     * See {@link #getVersionStore()}.
+     *
+     * @see #getVersionStore()
+     */
+    /*default*/ VersionStoreType versionStore = VersionStoreType.HEAP;
+
+    /**
+     * See {@link #getVersionStoreDirectory()}.
+     *
+     * @see #getVersionStoreDirectory()
+     */
+    /*default*/ String versionStoreDirectory = "pommapper";
+
     /**
      * See {@link #getArtifacts()}.
      *
@@ -61,17 +152,23 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
     public PomMapperPluginSettings() {
     }
 
+    /**
+     * Validates all artifacts. Each artifact is validated in parallel, the results keep the order of the artifacts.
+     *
+     * @param facade the facade to use for existence checks
+     * @return the validation results
+     */
     @Override
     public List<ValidationResult> validate(final PomMapperFacade facade) {
         final List<Artifact> artifacts = getArtifacts();
         final List<ValidationResult> results = new ArrayList<>();
         if (isNamingConventionWarning() && getValidationLogLevel() != ValidationLogLevel.IGNORE_ALL) {
             results.add(new ValidationResult("Running syntax tests...", ValidationType.INFO, List.of()));
-            artifacts.stream().map(Artifact::validateNamingConvention).forEach(results::add);
+            results.addAll(artifacts.parallelStream().map(Artifact::validateNamingConvention).toList());
         }
         if (isRunExistenceChecks() && getValidationLogLevel() != ValidationLogLevel.IGNORE_ALL) {
             results.add(new ValidationResult("Running semantics tests...", ValidationType.INFO, List.of()));
-            artifacts.stream().map(artifact -> artifact.validateExistence(facade)).forEach(results::add);
+            results.addAll(artifacts.parallelStream().map(artifact -> artifact.validateExistence(facade)).toList());
         }
         return results;
     }
@@ -106,6 +203,153 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
         return validationLogLevel;
     }
 
+    /**
+     * The maximum number of pending events per event stream subscriber before it is disconnected as too slow.
+     *
+     * @return the buffer size
+     */
+    @Doc(title = "Event Stream Buffer", description = "The maximum number of pending events per event stream subscriber before it is disconnected as too slow.")
+    public int getEventStreamBufferSize() {
+        return eventStreamBufferSize;
+    }
+
+    /**
+     * The maximum number of serialized responses kept in memory.
+     *
+     * @return the maximum number of cached responses
+     */
+    @Doc(title = "Response Cache Size", description = "The maximum number of serialized responses kept in memory. 0 disables the response cache.")
+    public int getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /**
+     * The maximum total size in bytes of the serialized responses kept in memory.
+     *
+     * @return the maximum size of all cached responses in bytes
+     */
+    @Doc(title = "Response Cache Bytes", description = "The maximum total size in bytes of the serialized responses kept in memory. Larger responses are not cached. 0 disables the response cache.")
+    public int getResponseCacheBytes() {
+        return responseCacheBytes;
+    }
+
+    /**
+     * Whether responses of the REST API include a Server-Timing header with the duration of each phase of the request.
+     *
+     * @return true if the Server-Timing header is sent
+     */
+    @Doc(title = "Server Timing", description = """
+            Whether responses of the REST API include a Server-Timing header with the duration of each phase of the request: \
+            auth, lookup, cache, resolve, encode, write and total. Write covers handing the body to the server, \
+            sending it to the client happens after the headers and is not included.""")
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    /**
+     * Whether the plugin logs debug messages built on demand.
+     *
+     * @return true if debug messages built on demand are logged
+     */
+    @Doc(title = "Debug", description = """
+            Whether the plugin logs debug messages built on demand, like every REST API lookup. Disable to skip building them. \
+            Reposilite only shows debug messages if its log level includes them.""")
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * The maximum number of extractions of distinct pom contents kept in memory.
+     *
+     * @return the maximum number of cached extractions
+     */
+    @Doc(title = "Extraction Cache Size", description = "The maximum number of extractions of distinct pom contents kept in memory, so identical poms are not parsed again. 0 disables the extraction cache.")
+    public int getExtractionCacheSize() {
+        return extractionCacheSize;
+    }
+
+    /**
+     * Whether xpath values are resolved like the effective pom, inheriting from parent poms and interpolating properties.
+     *
+     * @return true if effective values are extracted
+     */
+    @Doc(title = "Effective Values", description = """
+            Whether xpath values are resolved like the effective pom. Values missing in a pom are inherited from its parent poms \
+            found in the same repository and ${property} placeholders are interpolated. Parent poms are parsed once and shared.""")
+    public boolean isEffectiveValues() {
+        return effectiveValues;
+    }
+
+    /**
+     * The private repository whose storage is shared by all nodes and used to exchange cache snapshots.
+     * An empty value disables the cache coherence between nodes.
+     *
+     * @return the repository name or an empty string
+     */
+    @Doc(title = "Coherence Repository", description = """
+            The private repository whose storage is shared by all Reposilite nodes and used to exchange cache snapshots.
+            Snapshots are written to its ".pommapper/coherence" directory, so use a repository without artifacts. Leave empty to disable.""")
+    public String getCoherenceRepository() {
+        return coherenceRepository;
+    }
+
+    /**
+     * The interval in seconds in which snapshots published by other nodes are checked.
+     *
+     * @return the interval in seconds
+     */
+    @Doc(title = "Coherence Interval", description = "The interval in seconds in which snapshots published by other nodes are checked.")
+    public int getCoherenceInterval() {
+        return coherenceInterval;
+    }
+
+    /**
+     * The average interval in seconds between two reconciliation scans, 0 disables them.
+     *
+     * @return the interval in seconds
+     */
+    @Doc(title = "Reconcile Interval", description = """
+            The average interval in seconds between two scans comparing the poms in the storage with the cache, \
+            to pick up changes made without a deploy event. Each interval varies by up to 20%. 0 disables the scans.""")
+    public int getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    /**
+     * The number of storage calls after which a reconciliation scan stops and continues with the next artifact next time.
+     *
+     * @return the budget of storage calls per scan
+     */
+    @Doc(title = "Reconcile Budget", description = """
+            The number of storage calls after which a reconciliation scan stops. The next scan continues with the next artifact, \
+            so all artifacts are covered over multiple scans. At least one artifact is scanned each time.""")
+    public int getReconcileBudget() {
+        return reconcileBudget;
+    }
+
+    /**
+     * Where the cached versions of all artifacts are kept. Applied on restart.
+     *
+     * @return the version store type
+     */
+    @Doc(title = "Version Store", description = """
+            Where the cached versions of all artifacts are kept. Applied on restart.
+            HEAP keeps them in memory. MAPPED keeps them in memory-mapped files outside the heap, which reduces garbage collection
+            pauses for artifacts with many versions and serves the versions of the previous run immediately on startup.""")
+    public VersionStoreType getVersionStore() {
+        return versionStore;
+    }
+
+    /**
+     * The directory of the memory-mapped files of the MAPPED version store.
+     *
+     * @return the directory
+     */
+    @Doc(title = "Version Store Directory", description = "The directory of the memory-mapped files of the MAPPED version store, relative to the directory Reposilite was started in.")
+    public String getVersionStoreDirectory() {
+        return versionStoreDirectory;
+    }
+
     /**
      * All artifacts that are considered for listing requests.
      *
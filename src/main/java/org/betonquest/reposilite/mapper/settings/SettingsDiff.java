@@ -0,0 +1,79 @@
+package org.betonquest.reposilite.mapper.settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The differences between two {@link PomMapperPluginSettings} relevant for the cache.
+ * Artifacts are compared by their id.
+ *
+ * @param added              artifacts that were not configured before
+ * @param removed            artifacts that are no longer configured
+ * @param changedXPaths      artifacts with the same source but changed xpath or jar entries, as configured now
+ * @param validationRequired whether the artifacts or the validation options changed
+ * @param extractionChanged  whether the way values are extracted from all poms changed
+ */
+public record SettingsDiff(List<Artifact> added, List<Artifact> removed, List<Artifact> changedXPaths,
+                           boolean validationRequired, boolean extractionChanged) {
+
+    /**
+     * Computes the differences between two settings.
+     * An artifact whose repository, groupId or artifactId changed is reported as removed and added.
+     *
+     * @param previous the previously applied settings
+     * @param current  the new settings
+     * @return the differences
+     */
+    public static SettingsDiff between(final PomMapperPluginSettings previous, final PomMapperPluginSettings current) {
+        final Map<String, Artifact> before = byId(previous.getArtifacts());
+        final Map<String, Artifact> after = byId(current.getArtifacts());
+        final List<Artifact> added = new ArrayList<>();
+        final List<Artifact> removed = new ArrayList<>();
+        final List<Artifact> changedXPaths = new ArrayList<>();
+        before.forEach((id, artifact) -> {
+            if (!after.containsKey(id)) {
+                removed.add(artifact);
+            }
+        });
+        after.forEach((id, artifact) -> {
+            final Artifact old = before.get(id);
+            if (old == null) {
+                added.add(artifact);
+            } else if (!sameSource(old, artifact)) {
+                removed.add(old);
+                added.add(artifact);
+            } else if (!Objects.equals(old.extractedValues(), artifact.extractedValues())) {
+                changedXPaths.add(artifact);
+            }
+        });
+        final boolean validationRequired = !added.isEmpty() || !removed.isEmpty() || !changedXPaths.isEmpty()
+                || previous.isNamingConventionWarning() != current.isNamingConventionWarning()
+                || previous.isRunExistenceChecks() != current.isRunExistenceChecks()
+                || previous.getValidationLogLevel() != current.getValidationLogLevel();
+        final boolean extractionChanged = previous.isEffectiveValues() != current.isEffectiveValues();
+        return new SettingsDiff(added, removed, changedXPaths, validationRequired, extractionChanged);
+    }
+
+    private static Map<String, Artifact> byId(final List<Artifact> artifacts) {
+        return artifacts.stream().collect(Collectors.toMap(Artifact::id, Function.identity(), (first, second) -> first));
+    }
+
+    private static boolean sameSource(final Artifact first, final Artifact second) {
+        return Objects.equals(first.repository(), second.repository())
+                && Objects.equals(first.groupId(), second.groupId())
+                && Objects.equals(first.artifactId(), second.artifactId());
+    }
+
+    /**
+     * Checks if the cache is affected by the differences.
+     *
+     * @return true if any artifact was added, removed or changed or the extraction changed
+     */
+    public boolean affectsCache() {
+        return !added.isEmpty() || !removed.isEmpty() || !changedXPaths.isEmpty() || extractionChanged;
+    }
+}
@@ -0,0 +1,16 @@
+package org.betonquest.reposilite.mapper.settings;
+
+/**
+ * Where the cached versions of all artifacts are kept.
+ */
+public enum VersionStoreType {
+
+    /**
+     * Keeps all versions on the heap.
+     */
+    HEAP,
+    /**
+     * Keeps all versions in memory-mapped files outside the heap, reused on restart.
+     */
+    MAPPED
+}
@@ -0,0 +1,71 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the rebuild states of the {@link ArtifactsVersionsCache}.
+ */
+class ArtifactsVersionsCacheTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin", List.of(), List.of());
+
+    private PomMapperFacade facade;
+
+    private ArtifactsVersionsCache cache;
+
+    private static PomVersionedEntry entry(final String version) {
+        return new PomVersionedEntry(ARTIFACT, version, version, Map.of(),
+                Location.of("org/example/plugin/" + version + "/plugin-" + version + ".jar"), null);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin = mock(PluginAdapter.class);
+        facade = mock(PomMapperFacade.class);
+        when(plugin.getPluginFacade()).thenReturn(facade);
+        cache = new ArtifactsVersionsCache(plugin);
+        cache.prepare(List.of(ARTIFACT));
+    }
+
+    @Test
+    void artifactWithoutVersionsIsReadyAndEmpty() throws Exception {
+        when(facade.getMappedVersions(eq(ARTIFACT), anyBoolean(), any())).thenReturn(List.of());
+
+        assertTrue(cache.attemptToCache(ARTIFACT));
+
+        assertEquals(CacheState.READY, cache.getStatus(ARTIFACT.id()).state());
+        assertTrue(cache.hasEntry(ARTIFACT.id()));
+        assertEquals(0, cache.getVersionsCount(ARTIFACT.id()));
+    }
+
+    @Test
+    void failedRebuildKeepsServingPreviousVersions() throws Exception {
+        final List<PomVersionedEntry> versions = List.of(entry("1.0.0"));
+        when(facade.getMappedVersions(eq(ARTIFACT), anyBoolean(), any())).thenReturn(versions);
+        cache.attemptToCache(ARTIFACT);
+        when(facade.getMappedVersions(eq(ARTIFACT), anyBoolean(), any())).thenReturn(null);
+
+        assertFalse(cache.attemptToCache(ARTIFACT));
+
+        assertEquals(CacheState.FAILED, cache.getStatus(ARTIFACT.id()).state());
+        assertEquals(versions, cache.getVersions(ARTIFACT.id()));
+    }
+}
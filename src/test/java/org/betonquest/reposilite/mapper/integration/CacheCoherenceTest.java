@@ -0,0 +1,119 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link CacheCoherence} of two plugin instances sharing one storage.
+ */
+class CacheCoherenceTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin", List.of(), List.of());
+
+    private Node first;
+
+    private Node second;
+
+    private static PomVersionedEntry entry(final String version, final String api) {
+        return new PomVersionedEntry(ARTIFACT, version, version, Map.of("api", api),
+                Location.of("org/example/plugin/" + version + "/plugin-" + version + ".jar"), null);
+    }
+
+    @BeforeEach
+    void setUp() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        first = new Node(storage, "first");
+        second = new Node(storage, "second");
+    }
+
+    @Test
+    void peerLoadsPublishedSnapshot() throws Exception {
+        final List<PomVersionedEntry> versions = List.of(entry("1.0.0", "1.19"), entry("1.1.0", "1.20"));
+        first.build(versions);
+
+        second.coherence.synchronize();
+
+        assertEquals(versions, second.cache.getVersions(ARTIFACT.id()));
+    }
+
+    @Test
+    void newerLocalBuildIsNotReplacedByOlderSnapshot() throws Exception {
+        first.build(List.of(entry("1.0.0", "1.19")));
+        second.coherence.synchronize();
+        final List<PomVersionedEntry> newer = List.of(entry("1.0.0", "1.19"), entry("1.1.0", "1.20"));
+        second.build(newer);
+
+        second.coherence.synchronize();
+        first.coherence.synchronize();
+
+        assertEquals(newer, second.cache.getVersions(ARTIFACT.id()));
+        assertEquals(newer, first.cache.getVersions(ARTIFACT.id()));
+    }
+
+    @Test
+    void concurrentBuildsConvergeOnOneSnapshot() throws Exception {
+        final List<PomVersionedEntry> firstVersions = List.of(entry("1.0.0", "1.19"));
+        final List<PomVersionedEntry> secondVersions = List.of(entry("1.0.0", "1.20"));
+        first.build(firstVersions);
+        second.build(secondVersions);
+
+        first.coherence.synchronize();
+        second.coherence.synchronize();
+
+        assertEquals(secondVersions, first.cache.getVersions(ARTIFACT.id()));
+        assertEquals(secondVersions, second.cache.getVersions(ARTIFACT.id()));
+    }
+
+    @Test
+    void closedNodeIsNoLongerLoaded() throws Exception {
+        first.build(List.of(entry("1.0.0", "1.19")));
+        first.coherence.close();
+
+        second.coherence.synchronize();
+
+        assertTrue(second.cache.getVersions(ARTIFACT.id()).isEmpty());
+    }
+
+    /**
+     * A single plugin instance with its own cache and coherence, whose builds return the given versions.
+     */
+    private static final class Node {
+
+        private final PomMapperFacade facade;
+
+        private final ArtifactsVersionsCache cache;
+
+        private final CacheCoherence coherence;
+
+        @SuppressWarnings("unchecked")
+        private Node(final InMemoryStorage storage, final String node) {
+            final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin = mock(PluginAdapter.class);
+            this.facade = mock(PomMapperFacade.class);
+            when(plugin.getPluginFacade()).thenReturn(facade);
+            when(facade.findArtifactById(ARTIFACT.id())).thenReturn(ARTIFACT);
+            this.cache = new ArtifactsVersionsCache(plugin);
+            this.coherence = new CacheCoherence(plugin, cache, new CacheSnapshotStore(storage.provider(), node));
+            cache.addListener(coherence);
+        }
+
+        private void build(final List<PomVersionedEntry> versions) throws Exception {
+            when(facade.getMappedVersions(eq(ARTIFACT), anyBoolean(), any())).thenReturn(versions);
+            assertTrue(cache.attemptToCache(ARTIFACT));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the {@link CacheSnapshotStore} with two nodes sharing one storage.
+ */
+class CacheSnapshotStoreTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin", List.of(), List.of());
+
+    private InMemoryStorage storage;
+
+    private CacheSnapshotStore first;
+
+    private CacheSnapshotStore second;
+
+    private static PomVersionedEntry entry(final String group, final String maven, final JarDetails jar) {
+        return new PomVersionedEntry(ARTIFACT, group, maven, Map.of("api", "1.20"),
+                Location.of("org/example/plugin/" + maven + "/plugin-" + maven + ".jar"), jar);
+    }
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage();
+        first = new CacheSnapshotStore(storage.provider(), "first");
+        second = new CacheSnapshotStore(storage.provider(), "second");
+    }
+
+    @Test
+    void snapshotRoundTripsThroughOtherNode() throws IOException {
+        final List<PomVersionedEntry> versions = List.of(
+                entry("1.0.0", "1.0.0", new JarDetails(42, 1000, "abc", null)),
+                entry("1.1.0-SNAPSHOT", "1.1.0-20240101.120000-1", null));
+
+        first.publish(ARTIFACT.id(), versions);
+
+        assertEquals(versions, second.readSnapshot("first", ARTIFACT));
+        assertNull(second.readSnapshot("second", ARTIFACT));
+    }
+
+    @Test
+    void concurrentPublicationsOfTwoNodesAreAllKept() throws Exception {
+        final int artifacts = 20;
+        final List<Callable<CacheSnapshotStore.Publication>> tasks = new ArrayList<>();
+        for (int i = 0; i < artifacts; i++) {
+            final String id = "artifact-" + i;
+            tasks.add(() -> first.publish(id, List.of(entry("1.0.0", "1.0.0", null))));
+            tasks.add(() -> second.publish(id, List.of(entry("2.0.0", "2.0.0", null))));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (final Future<CacheSnapshotStore.Publication> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final List<CacheSnapshotStore.Publication> publications = first.readPublications();
+        assertEquals(2 * artifacts, publications.size());
+        for (final String node : List.of("first", "second")) {
+            final Set<Long> generations = publications.stream().filter(publication -> node.equals(publication.node()))
+                    .map(CacheSnapshotStore.Publication::generation).collect(Collectors.toSet());
+            assertEquals(LongStream.rangeClosed(1, artifacts).boxed().collect(Collectors.toSet()), generations);
+        }
+    }
+
+    @Test
+    void withdrawnNodeIsNoLongerListed() throws IOException {
+        first.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+        second.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+
+        first.withdraw();
+
+        final List<CacheSnapshotStore.Publication> publications = second.readPublications();
+        assertEquals(1, publications.size());
+        assertEquals("second", publications.get(0).node());
+        assertNull(second.readSnapshot("first", ARTIFACT));
+    }
+
+    @Test
+    void publicationAfterReadingPeerIsOrderedAfterIt() throws IOException {
+        first.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+        first.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+        final CacheSnapshotStore.Publication read = second.readPublications().get(0);
+
+        final CacheSnapshotStore.Publication published = second.publish(ARTIFACT.id(), List.of(entry("1.1.0", "1.1.0", null)));
+
+        assertEquals(3, published.generation());
+        assertTrue(CacheSnapshotStore.Publication.RECENCY.compare(published, read) > 0);
+    }
+
+    @Test
+    void unreadableManifestIsSkipped() throws IOException {
+        first.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+        storage.put(CacheSnapshotStore.ROOT.resolve("nodes").resolve("partial.json"), "{\"node\":\"par".getBytes(StandardCharsets.UTF_8));
+
+        final List<CacheSnapshotStore.Publication> publications = second.readPublications();
+
+        assertEquals(1, publications.size());
+        assertEquals("first", publications.get(0).node());
+    }
+
+    @Test
+    void filesAreOnlyWrittenBelowRoot() throws IOException {
+        first.publish(ARTIFACT.id(), List.of(entry("1.0.0", "1.0.0", null)));
+
+        assertEquals(2, storage.locations().size());
+        assertTrue(storage.locations().stream().allMatch(location -> location.startsWith(CacheSnapshotStore.ROOT + "/")));
+    }
+
+    @Test
+    void recencyPrefersHigherGeneration() {
+        final CacheSnapshotStore.Publication older = new CacheSnapshotStore.Publication("b", "plugin", 1);
+        final CacheSnapshotStore.Publication newer = new CacheSnapshotStore.Publication("a", "plugin", 2);
+        assertTrue(CacheSnapshotStore.Publication.RECENCY.compare(newer, older) > 0);
+    }
+
+    @Test
+    void recencyBreaksTiesByNode() {
+        final CacheSnapshotStore.Publication a = new CacheSnapshotStore.Publication("a", "plugin", 2);
+        final CacheSnapshotStore.Publication b = new CacheSnapshotStore.Publication("b", "plugin", 2);
+        assertTrue(CacheSnapshotStore.Publication.RECENCY.compare(b, a) > 0);
+    }
+}
@@ -0,0 +1,44 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the keys of the {@link ExtractionCache}.
+ */
+class ExtractionCacheTest {
+
+    private static final List<XPathEntry> XPATHS = List.of(new XPathEntry("api", "/project/properties/api"));
+
+    private static final byte[] POM = "<project><parent/></project>".getBytes(StandardCharsets.UTF_8);
+
+    private static ExtractionCache.Key key(final boolean effective, final String repository) {
+        final MessageDigest digest = ExtractionCache.newDigest();
+        digest.update(POM);
+        return ExtractionCache.Key.of(XPATHS, effective, repository, digest);
+    }
+
+    @Test
+    void identicalContentIsSharedAcrossRepositories() {
+        assertEquals(key(false, "releases"), key(false, "snapshots"));
+    }
+
+    @Test
+    void effectiveValuesAreKeptPerRepository() {
+        final ExtractionCache cache = new ExtractionCache(() -> 16);
+        cache.put(key(true, "releases"), Map.of("api", "1.20"));
+
+        assertNotEquals(key(true, "releases"), key(true, "snapshots"));
+        assertNull(cache.get(key(true, "snapshots")));
+        assertEquals(Map.of("api", "1.20"), cache.get(key(true, "releases")));
+    }
+}
@@ -0,0 +1,25 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests for the file name encoding of {@link FileNames}.
+ */
+class FileNamesTest {
+
+    @Test
+    void distinctIdsKeepDistinctNames() {
+        assertNotEquals(FileNames.encode("bq:foo"), FileNames.encode("bq_foo"));
+        assertNotEquals(FileNames.encode("a%3Ab"), FileNames.encode("a:b"));
+    }
+
+    @Test
+    void namesStayInsideTheirDirectory() {
+        assertEquals("%2E%2E%2Fnodes", FileNames.encode("../nodes"));
+        assertEquals("plugin-api_1", FileNames.encode("plugin-api_1"));
+        assertEquals("%C3%BC", FileNames.encode("\u00fc"));
+    }
+}
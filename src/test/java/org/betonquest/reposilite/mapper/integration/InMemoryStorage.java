@@ -0,0 +1,87 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.shared.ErrorResponse;
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.Location;
+import kotlin.Unit;
+import panda.std.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A {@link StorageProvider} mock keeping its files in memory, shared by the nodes of a test.
+ */
+final class InMemoryStorage {
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    private final StorageProvider storageProvider = mock(StorageProvider.class);
+
+    /**
+     * Creates an empty storage.
+     */
+    /*default*/ InMemoryStorage() {
+        when(storageProvider.putFile(any(), any())).thenAnswer(invocation -> {
+            try (InputStream content = invocation.getArgument(1)) {
+                files.put(invocation.getArgument(0).toString(), content.readAllBytes());
+            }
+            return Result.ok(Unit.INSTANCE);
+        });
+        when(storageProvider.getFile(any())).thenAnswer(invocation -> {
+            final byte[] content = files.get(invocation.getArgument(0).toString());
+            return content == null ? Result.error(new ErrorResponse(404, "Not found")) : Result.ok(new ByteArrayInputStream(content));
+        });
+        when(storageProvider.getFiles(any())).thenAnswer(invocation -> {
+            final String prefix = invocation.getArgument(0).toString() + "/";
+            final List<Location> children = files.keySet().stream().filter(file -> file.startsWith(prefix))
+                    .map(file -> prefix + file.substring(prefix.length()).split("/", 2)[0])
+                    .distinct().map(Location::of).toList();
+            return children.isEmpty() ? Result.error(new ErrorResponse(404, "Not found")) : Result.ok(children);
+        });
+        when(storageProvider.removeFile(any())).thenAnswer(invocation -> {
+            final String location = invocation.getArgument(0).toString();
+            final boolean removed = files.keySet().removeIf(file -> file.equals(location) || file.startsWith(location + "/"));
+            return removed ? Result.ok(Unit.INSTANCE) : Result.error(new ErrorResponse(404, "Not found"));
+        });
+        when(storageProvider.exists(any())).thenAnswer(invocation -> {
+            final String location = invocation.getArgument(0).toString();
+            return files.keySet().stream().anyMatch(file -> file.equals(location) || file.startsWith(location + "/"));
+        });
+    }
+
+    /**
+     * Returns the mocked storage provider.
+     *
+     * @return the storage provider
+     */
+    /*default*/ StorageProvider provider() {
+        return storageProvider;
+    }
+
+    /**
+     * Overwrites a file with the given content.
+     *
+     * @param location the location of the file
+     * @param content  the new content
+     */
+    /*default*/ void put(final Location location, final byte[] content) {
+        files.put(location.toString(), content);
+    }
+
+    /**
+     * Returns the locations of all stored files.
+     *
+     * @return the stored locations
+     */
+    /*default*/ List<String> locations() {
+        return List.copyOf(files.keySet());
+    }
+}
@@ -0,0 +1,180 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.StorageProvider;
+import com.reposilite.storage.api.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import panda.std.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link JarEntryReader} reading single files from a jar in the storage.
+ */
+class JarEntryReaderTest {
+
+    private static final Location JAR = Location.of("org/example/plugin/1.0.0/plugin-1.0.0.jar");
+
+    private static final byte[] PLUGIN_YML = "name: plugin\napi-version: '1.20'\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] MANIFEST = "Manifest-Version: 1.0\nCreated-By: test\n".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    private StorageProvider storage;
+
+    private RebuildMetrics metrics;
+
+    private JarEntryReader reader;
+
+    private JarEntryReader forwardReader;
+
+    private static byte[] jar(final String comment) throws IOException {
+        final byte[] filler = new byte[2 * 1024 * 1024];
+        new Random(42).nextBytes(filler);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write(MANIFEST);
+            zip.closeEntry();
+            zip.putNextEntry(stored("org/example/Filler.class", filler));
+            zip.write(filler);
+            zip.closeEntry();
+            zip.putNextEntry(stored("plugin.yml", PLUGIN_YML));
+            zip.write(PLUGIN_YML);
+            zip.closeEntry();
+            zip.setComment(comment);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ZipEntry stored(final String name, final byte[] content) {
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        return entry;
+    }
+
+    private void serve(final byte[] content) {
+        when(storage.getFile(JAR)).thenAnswer(invocation -> Result.ok(new ByteArrayInputStream(content)));
+    }
+
+    @BeforeEach
+    void setUp() {
+        storage = mock(StorageProvider.class);
+        metrics = new RebuildMetrics();
+        reader = new JarEntryReader(storage, metrics, true);
+        forwardReader = new JarEntryReader(storage, metrics, false);
+    }
+
+    @Test
+    void readsStoredAndDeflatedEntries() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        final Map<String, byte[]> contents = reader.read(JAR, jar.length, List.of("plugin.yml", "META-INF/MANIFEST.MF"));
+
+        assertEquals(2, contents.size());
+        assertArrayEquals(PLUGIN_YML, contents.get("plugin.yml"));
+        assertArrayEquals(MANIFEST, contents.get("META-INF/MANIFEST.MF"));
+    }
+
+    @Test
+    void skipsFilesNotRequested() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        final Map<String, byte[]> contents = reader.read(JAR, jar.length, List.of("plugin.yml"));
+
+        assertEquals(1, contents.size());
+        assertArrayEquals(PLUGIN_YML, contents.get("plugin.yml"));
+        assertTrue(metrics.getBytesRead() < jar.length / 4, "read " + metrics.getBytesRead() + " of " + jar.length + " bytes");
+    }
+
+    @Test
+    void omitsMissingFiles() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        assertEquals(Map.of(), reader.read(JAR, jar.length, List.of("paper-plugin.yml")));
+    }
+
+    @Test
+    void findsCentralDirectoryBehindComment() throws IOException {
+        final byte[] jar = jar("built by a test ".repeat(100));
+        serve(jar);
+
+        assertArrayEquals(PLUGIN_YML, reader.read(JAR, jar.length, List.of("plugin.yml")).get("plugin.yml"));
+    }
+
+    @Test
+    void readsDirectoryAndTrailingEntriesInOneOpen() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        assertArrayEquals(PLUGIN_YML, reader.read(JAR, jar.length, List.of("plugin.yml")).get("plugin.yml"));
+
+        verify(storage, times(1)).getFile(JAR);
+    }
+
+    @Test
+    void forwardPassStopsAfterRequestedEntries() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        final Map<String, byte[]> contents = forwardReader.read(JAR, jar.length, List.of("META-INF/MANIFEST.MF"));
+
+        assertArrayEquals(MANIFEST, contents.get("META-INF/MANIFEST.MF"));
+        verify(storage, times(1)).getFile(JAR);
+        assertTrue(metrics.getBytesRead() < jar.length / 4, "read " + metrics.getBytesRead() + " of " + jar.length + " bytes");
+    }
+
+    @Test
+    void forwardPassReadsStoredAndDeflatedEntries() throws IOException {
+        final byte[] jar = jar("");
+        serve(jar);
+
+        final Map<String, byte[]> contents = forwardReader.read(JAR, jar.length, List.of("plugin.yml", "META-INF/MANIFEST.MF", "missing.yml"));
+
+        assertEquals(2, contents.size());
+        assertArrayEquals(PLUGIN_YML, contents.get("plugin.yml"));
+        assertArrayEquals(MANIFEST, contents.get("META-INF/MANIFEST.MF"));
+        verify(storage, times(1)).getFile(JAR);
+    }
+
+    @Test
+    void forwardPassRejectsFilesThatAreNoZip() {
+        final byte[] content = "<project/>".repeat(10).getBytes(StandardCharsets.UTF_8);
+        serve(content);
+
+        assertThrows(IOException.class, () -> forwardReader.read(JAR, content.length, List.of("plugin.yml")));
+    }
+
+    @Test
+    void rejectsFilesThatAreNoZip() {
+        final byte[] content = "<project/>".repeat(10).getBytes(StandardCharsets.UTF_8);
+        serve(content);
+
+        assertThrows(IOException.class, () -> reader.read(JAR, content.length, List.of("plugin.yml")));
+    }
+}
@@ -0,0 +1,109 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the {@link MappedVersionIndex} layout and its lazy decoding.
+ */
+class MappedVersionIndexTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin",
+            List.of(new XPathEntry("api", "/project/properties/api"), new XPathEntry("java", "/project/properties/java")),
+            List.of());
+
+    private static final List<PomVersionedEntry> VERSIONS = List.of(
+            entry("2.0.0", Map.of("api", "1.21", "java", "21"), new JarDetails(42, 1000, "abc", null)),
+            entry("1.0.0", Map.of("api", "1.20"), null),
+            entry("1.1.0", Map.of("api", "1.20", "java", "17"), new JarDetails(7, -1, null, "def")));
+
+    private static PomVersionedEntry entry(final String version, final Map<String, String> pom, final JarDetails jar) {
+        return new PomVersionedEntry(ARTIFACT, version, version, pom,
+                Location.of("org/example/plugin/" + version + "/plugin-" + version + ".jar"), jar);
+    }
+
+    private static MappedVersionIndex roundTrip(final VersionIndex index) throws IOException {
+        return MappedVersionIndex.open(index.generation(), ARTIFACT, MappedVersionIndex.encode(ARTIFACT, index));
+    }
+
+    @Test
+    void encodedIndexOpensWithEqualVersionsInOrder() throws IOException {
+        final VersionIndex index = new VersionIndex(VERSIONS, 3);
+
+        final MappedVersionIndex mapped = roundTrip(index);
+
+        assertNotNull(mapped);
+        assertEquals(3, mapped.generation());
+        assertEquals(index.entries(), mapped.entries());
+        assertEquals(index.groupCount(), mapped.groupCount());
+    }
+
+    @Test
+    void emptyIndexRoundTrips() throws IOException {
+        final MappedVersionIndex mapped = roundTrip(new VersionIndex(List.of(), 2));
+
+        assertNotNull(mapped);
+        assertEquals(0, mapped.size());
+        assertEquals(List.of(), mapped.entries());
+    }
+
+    @Test
+    void positionAccessorsMatchDecodedVersions() throws IOException {
+        final MappedVersionIndex mapped = roundTrip(new VersionIndex(VERSIONS, 1));
+        assertNotNull(mapped);
+
+        for (int position = 0; position < mapped.size(); position++) {
+            final PomVersionedEntry entry = mapped.entries().get(position);
+            final Map<String, String> values = new LinkedHashMap<>();
+            mapped.forEachValue(position, values::put);
+            assertEquals(entry.group(), mapped.group(position));
+            assertEquals(entry.maven(), mapped.maven(position));
+            assertEquals(entry.pom(), values);
+        }
+    }
+
+    @Test
+    void lazyValuesBehaveLikeMap() throws IOException {
+        final MappedVersionIndex mapped = roundTrip(new VersionIndex(VERSIONS, 1));
+        assertNotNull(mapped);
+
+        final Map<String, String> pom = mapped.entries().get(0).pom();
+
+        assertEquals(Map.of("api", "1.20"), pom);
+        assertEquals(Map.of("api", "1.20").hashCode(), pom.hashCode());
+        assertEquals("1.20", pom.get("api"));
+        assertNull(pom.get("java"));
+        assertFalse(pom.containsKey("java"));
+        assertEquals(1, pom.size());
+        assertThrows(UnsupportedOperationException.class, () -> pom.put("java", "17"));
+    }
+
+    @Test
+    void openReturnsNullForOtherExtractedValues() throws IOException {
+        final ByteBuffer buffer = MappedVersionIndex.encode(ARTIFACT, new VersionIndex(VERSIONS, 1));
+        final Artifact changed = new Artifact("plugin", "releases", "org.example", "plugin",
+                List.of(new XPathEntry("api", "/project/properties/minecraft"), new XPathEntry("java", "/project/properties/java")),
+                List.of());
+
+        assertNull(MappedVersionIndex.open(1, changed, buffer));
+    }
+
+    @Test
+    void openRejectsUnknownFormat() {
+        assertThrows(IOException.class, () -> MappedVersionIndex.open(1, ARTIFACT, ByteBuffer.allocate(64)));
+    }
+}
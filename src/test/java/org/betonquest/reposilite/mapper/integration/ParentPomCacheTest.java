@@ -0,0 +1,107 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the {@link ParentPomCache} invalidating only the versions resolved with a redeployed parent.
+ */
+class ParentPomCacheTest {
+
+    private static final String REPOSITORY = "releases";
+
+    private static final Location MODULE_A = Location.of("org/example/a/1.0.0/a-1.0.0.pom");
+
+    private static final Location MODULE_B = Location.of("org/example/b/1.0.0/b-1.0.0.pom");
+
+    private static final ExtractionCache.Key KEY_A = new ExtractionCache.Key(List.of(), true, REPOSITORY, "a");
+
+    private static final ExtractionCache.Key KEY_B = new ExtractionCache.Key(List.of(), true, REPOSITORY, "b");
+
+    private final Map<Location, Document> poms = new HashMap<>();
+
+    private final Map<Location, Integer> reads = new HashMap<>();
+
+    private ParentPomCache cache;
+
+    private static Location location(final String artifactId) {
+        return Location.of("org/example/" + artifactId + "/1/" + artifactId + "-1.pom");
+    }
+
+    private static Document pom(final String artifactId, final String parent) throws ParserConfigurationException, IOException, SAXException {
+        final String parentElement = parent == null ? ""
+                : "<parent><groupId>org.example</groupId><artifactId>" + parent + "</artifactId><version>1</version></parent>";
+        final String content = "<project>" + parentElement + "<artifactId>" + artifactId + "</artifactId></project>";
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        poms.put(location("root"), pom("root", null));
+        poms.put(location("parent"), pom("parent", "root"));
+        poms.put(location("other"), pom("other", null));
+        cache = new ParentPomCache((repository, location) -> {
+            reads.merge(location, 1, Integer::sum);
+            return poms.get(location);
+        });
+        cache.model(REPOSITORY, pom("a", "parent"), KEY_A);
+        cache.track(KEY_A, "a", MODULE_A);
+        cache.model(REPOSITORY, pom("b", "other"), KEY_B);
+        cache.track(KEY_B, "b", MODULE_B);
+    }
+
+    @Test
+    void invalidatesOnlyVersionsResolvedWithParent() {
+        assertEquals(Map.of(new ParentPomCache.Dependent("b", MODULE_B), KEY_B), cache.invalidate(REPOSITORY, location("other")));
+    }
+
+    @Test
+    void invalidatesVersionsResolvedWithChildrenOfParent() {
+        assertEquals(Map.of(new ParentPomCache.Dependent("a", MODULE_A), KEY_A), cache.invalidate(REPOSITORY, location("root")));
+    }
+
+    @Test
+    void unknownPomInvalidatesNothing() {
+        assertTrue(cache.invalidate(REPOSITORY, location("a")).isEmpty());
+        assertTrue(cache.invalidate("snapshots", location("other")).isEmpty());
+    }
+
+    @Test
+    void onlyInvalidatedParentsAreReadAgain() throws Exception {
+        cache.invalidate(REPOSITORY, location("root"));
+
+        cache.model(REPOSITORY, pom("a", "parent"), KEY_A);
+        cache.model(REPOSITORY, pom("b", "other"), KEY_B);
+
+        assertEquals(2, reads.get(location("root")));
+        assertEquals(2, reads.get(location("parent")));
+        assertEquals(1, reads.get(location("other")));
+    }
+
+    @Test
+    void deployedMissingParentInvalidatesItsVersions() throws Exception {
+        final ExtractionCache.Key key = new ExtractionCache.Key(List.of(), true, REPOSITORY, "c");
+        final Location module = Location.of("org/example/c/1.0.0/c-1.0.0.pom");
+        cache.model(REPOSITORY, pom("c", "missing"), key);
+        cache.track(key, "c", module);
+
+        assertEquals(Map.of(new ParentPomCache.Dependent("c", module), key), cache.invalidate(REPOSITORY, location("missing")));
+    }
+}
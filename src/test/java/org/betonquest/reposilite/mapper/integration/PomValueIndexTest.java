@@ -0,0 +1,85 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link PomValueIndex} kept up to date with the {@link ArtifactsVersionsCache}.
+ */
+class PomValueIndexTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin", List.of(), List.of());
+
+    private PomMapperFacade facade;
+
+    private ArtifactsVersionsCache cache;
+
+    private static PomVersionedEntry entry(final String version, final String api) {
+        return new PomVersionedEntry(ARTIFACT, version, version, Map.of("api", api),
+                Location.of("org/example/plugin/" + version + "/plugin-" + version + ".jar"), null);
+    }
+
+    private static List<String> versions(final List<PomVersionedEntry> entries) {
+        return entries.stream().map(PomVersionedEntry::maven).toList();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final PluginAdapter<PomMapperFacade, PomMapperPluginSettings> plugin = mock(PluginAdapter.class);
+        facade = mock(PomMapperFacade.class);
+        when(plugin.getPluginFacade()).thenReturn(facade);
+        cache = new ArtifactsVersionsCache(plugin);
+    }
+
+    private void build(final PomVersionedEntry... versions) throws Exception {
+        when(facade.getMappedVersions(eq(ARTIFACT), anyBoolean(), any())).thenReturn(List.of(versions));
+        cache.attemptToCache(ARTIFACT);
+    }
+
+    private List<String> lookup(final String api) {
+        return versions(cache.getValueIndex().lookup(ARTIFACT.id(), "api", api));
+    }
+
+    @Test
+    void seedIndexesAllVersionsInOrder() throws Exception {
+        build(entry("1.1.0", "1.20"), entry("1.0.0", "1.20"), entry("2.0.0", "1.21"));
+
+        assertEquals(List.of("1.0.0", "1.1.0"), lookup("1.20"));
+        assertEquals(List.of("2.0.0"), lookup("1.21"));
+        assertEquals(List.of(), lookup("1.19"));
+    }
+
+    @Test
+    void changesAreAppliedToThePostings() throws Exception {
+        build(entry("1.0.0", "1.20"), entry("1.1.0", "1.20"), entry("2.0.0", "1.21"));
+
+        build(entry("0.9.0", "1.20"), entry("1.0.0", "1.20"), entry("2.0.0", "1.20"));
+
+        assertEquals(List.of("0.9.0", "1.0.0", "2.0.0"), lookup("1.20"));
+        assertEquals(List.of(), lookup("1.21"));
+    }
+
+    @Test
+    void removedArtifactHasNoPostings() throws Exception {
+        build(entry("1.0.0", "1.20"));
+
+        cache.remove(ARTIFACT.id());
+
+        assertEquals(List.of(), lookup("1.20"));
+    }
+}
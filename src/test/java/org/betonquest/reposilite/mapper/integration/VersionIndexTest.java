@@ -0,0 +1,50 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the range and since queries of the {@link VersionIndex}.
+ */
+class VersionIndexTest {
+
+    private static final Artifact ARTIFACT = new Artifact("plugin", "releases", "org.example", "plugin", List.of(), List.of());
+
+    private static final VersionIndex INDEX = new VersionIndex(List.of(
+            entry("2.0.0-SNAPSHOT", "2.0.0-20240102.120000-2"),
+            entry("1.0.0", "1.0.0"),
+            entry("2.0.0-SNAPSHOT", "2.0.0-20240101.120000-1"),
+            entry("1.1.0", "1.1.0"),
+            entry("1.2.0", "1.2.0")), 1);
+
+    private static PomVersionedEntry entry(final String group, final String maven) {
+        return new PomVersionedEntry(ARTIFACT, group, maven, Map.of(),
+                Location.of("org/example/plugin/" + group + "/plugin-" + maven + ".jar"), null);
+    }
+
+    private static List<String> mavenVersions(final List<PomVersionedEntry> entries) {
+        return entries.stream().map(PomVersionedEntry::maven).toList();
+    }
+
+    @Test
+    void sinceMatchesIsNewerThan() {
+        for (final String since : List.of("0.0.1", "1.0.0", "1.1.0", "2.0.0-SNAPSHOT", "2.0.0-20240101.120000-1", "3.0.0")) {
+            final List<PomVersionedEntry> expected = INDEX.entries().stream().filter(entry -> entry.isNewerThan(since)).toList();
+            assertEquals(expected, INDEX.range(null, since), since);
+        }
+    }
+
+    @Test
+    void rangeIsCombinedWithSince() throws InvalidVersionSpecificationException {
+        assertEquals(List.of("1.1.0", "1.2.0"), mavenVersions(INDEX.range(VersionIndex.parseRange("[1.0.0,1.2.0]"), "1.0.0")));
+        assertEquals(List.of("1.0.0", "1.2.0"), mavenVersions(INDEX.range(VersionIndex.parseRange("[1.0.0],[1.2.0]"), null)));
+        assertEquals(List.of(), INDEX.range(VersionIndex.parseRange("(,1.1.0]"), "1.2.0"));
+    }
+}
@@ -0,0 +1,35 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the encoding of the {@link PageCursor}.
+ */
+class PageCursorTest {
+
+    private static String token(final String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        final PageCursor cursor = new PageCursor(0x7123_4567_0000_002AL, 17, -123_456);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertNull(PageCursor.decode("not base64!"));
+        assertNull(PageCursor.decode(token("1:2")));
+        assertNull(PageCursor.decode(token("1:2:3:4")));
+        assertNull(PageCursor.decode(token("a:2:3")));
+        assertNull(PageCursor.decode(token("1:-1:3")));
+    }
+}
@@ -0,0 +1,33 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the parsing of a {@link Projection}.
+ */
+class ProjectionTest {
+
+    @Test
+    void missingOrBlankFieldsIncludeEverything() {
+        assertSame(Projection.ALL, Projection.parse(null));
+        assertSame(Projection.ALL, Projection.parse(" "));
+        assertTrue(Projection.ALL.includes("anything"));
+    }
+
+    @Test
+    void fieldsAreTrimmedAndEmptyOnesIgnored() {
+        final Projection projection = Projection.parse(" jarPath, api ,,");
+
+        assertEquals(Set.of("jarPath", "api"), projection.fields());
+        assertTrue(projection.includes("jarPath"));
+        assertTrue(projection.includes("api"));
+        assertFalse(projection.includes("jarSize"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.mapper.restful.ResponseCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the {@link ResponseCache}.
+ */
+class ResponseCacheTest {
+
+    private static CachedResponse response(final String body, final String nextCursor) {
+        return new CachedResponse(body.getBytes(StandardCharsets.UTF_8), "application/json", nextCursor);
+    }
+
+    @Test
+    void etagDependsOnlyOnContent() {
+        assertEquals(response("[1]", null).etag(), response("[1]", null).etag());
+        assertNotEquals(response("[1]", null).etag(), response("[2]", null).etag());
+        assertNotEquals(response("[1]", null).etag(), response("[1]", "next").etag());
+        assertNotEquals(response("[1]", null).etag(),
+                new CachedResponse("[1]".getBytes(StandardCharsets.UTF_8), "application/cbor", null).etag());
+    }
+
+    @Test
+    void leastRecentlyUsedResponsesAreEvictedOverByteBudget() {
+        final ResponseCache cache = new ResponseCache(() -> 10, () -> 10);
+        cache.put("first", response("1234", null));
+        cache.put("second", response("5678", null));
+        assertNotNull(cache.get("id", "first"));
+
+        cache.put("third", response("9012", null));
+
+        assertNotNull(cache.get("id", "first"));
+        assertNull(cache.get("id", "second"));
+        assertNotNull(cache.get("id", "third"));
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.bytes());
+    }
+
+    @Test
+    void replacedResponseIsNotCountedTwice() {
+        final ResponseCache cache = new ResponseCache(() -> 10, () -> 10);
+        cache.put("first", response("1234", null));
+        cache.put("first", response("123456", null));
+
+        assertEquals(1, cache.size());
+        assertEquals(6, cache.bytes());
+    }
+
+    @Test
+    void responseLargerThanBudgetIsNotCached() {
+        final ResponseCache cache = new ResponseCache(() -> 10, () -> 4);
+        cache.put("first", response("1234", null));
+        cache.put("second", response("12345", null));
+
+        assertNotNull(cache.get("id", "first"));
+        assertNull(cache.get("id", "second"));
+        assertEquals(4, cache.bytes());
+    }
+
+    @Test
+    void sizeBoundStillApplies() {
+        final ResponseCache cache = new ResponseCache(() -> 1, () -> 100);
+        cache.put("first", response("1", null));
+        cache.put("second", response("2", null));
+
+        assertNull(cache.get("id", "first"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.bytes());
+    }
+}
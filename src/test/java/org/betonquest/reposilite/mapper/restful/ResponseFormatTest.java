@@ -0,0 +1,83 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the negotiation and the CBOR encoding of the {@link ResponseFormat}.
+ */
+class ResponseFormatTest {
+
+    private static final Gson GSON = new Gson();
+
+    private static String cbor(final JsonElement element) {
+        return HexFormat.of().formatHex(ResponseFormat.CBOR.encode(GSON, element));
+    }
+
+    @Test
+    void negotiationFallsBackToJson() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(""));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("text/html"));
+    }
+
+    @Test
+    void negotiationPrefersJsonOnEqualQuality() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor, application/json"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/*"));
+    }
+
+    @Test
+    void negotiationHonoursQualityValues() {
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0.5, */*"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/json;q=0, */*;q=0.1"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0, */*"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/json; Q=0"));
+    }
+
+    @Test
+    void cborEncodesPrimitivesAsInRfc8949() {
+        assertEquals("00", cbor(new JsonPrimitive(0)));
+        assertEquals("17", cbor(new JsonPrimitive(23)));
+        assertEquals("1818", cbor(new JsonPrimitive(24)));
+        assertEquals("1903e8", cbor(new JsonPrimitive(1000)));
+        assertEquals("1a000f4240", cbor(new JsonPrimitive(1_000_000)));
+        assertEquals("1b000000e8d4a51000", cbor(new JsonPrimitive(1_000_000_000_000L)));
+        assertEquals("20", cbor(new JsonPrimitive(-1)));
+        assertEquals("3863", cbor(new JsonPrimitive(-100)));
+        assertEquals("fb3ff199999999999a", cbor(new JsonPrimitive(1.1)));
+        assertEquals("f4", cbor(new JsonPrimitive(false)));
+        assertEquals("f5", cbor(new JsonPrimitive(true)));
+        assertEquals("f6", cbor(JsonNull.INSTANCE));
+        assertEquals("6449455446", cbor(new JsonPrimitive("IETF")));
+        assertEquals("62c3bc", cbor(new JsonPrimitive("\u00fc")));
+    }
+
+    @Test
+    void cborEncodesArraysAndMapsAsInRfc8949() {
+        final JsonArray array = new JsonArray();
+        array.add(1);
+        final JsonArray nested = new JsonArray();
+        nested.add(2);
+        nested.add(3);
+        array.add(nested);
+        final JsonObject object = new JsonObject();
+        object.addProperty("a", 1);
+        object.add("b", nested);
+
+        assertEquals("8201820203", cbor(array));
+        assertEquals("a26161016162820203", cbor(object));
+    }
+}
@@ -0,0 +1,24 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the {@link ServerTiming} header.
+ */
+class ServerTimingTest {
+
+    @Test
+    void markedPhasesAreReportedInOrderWithTotal() {
+        final ServerTiming timing = ServerTiming.start(true);
+        timing.mark(ServerTiming.RESOLVE);
+        timing.mark(ServerTiming.ENCODE);
+        timing.mark(ServerTiming.WRITE);
+
+        final String header = timing.finish();
+
+        assertTrue(header.matches("resolve;dur=\\d+\\.\\d{3}, encode;dur=\\d+\\.\\d{3}, "
+                + "write;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+    }
+}
@@ -0,0 +1,95 @@
+package org.betonquest.reposilite.mapper.settings;
+
+import org.betonquest.reposilite.adapter.validation.ValidationLogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the {@link SettingsDiff} between two settings.
+ */
+class SettingsDiffTest {
+
+    private static final Artifact PLUGIN = new Artifact("plugin", "releases", "org.example", "plugin",
+            List.of(new XPathEntry("api", "/project/properties/api")), List.of());
+
+    private static final Artifact ADDON = new Artifact("addon", "releases", "org.example", "addon", List.of(), List.of());
+
+    private static PomMapperPluginSettings settings(final Artifact... artifacts) {
+        final PomMapperPluginSettings settings = new PomMapperPluginSettings();
+        settings.artifacts = List.of(artifacts);
+        return settings;
+    }
+
+    @Test
+    void equalSettingsDoNotAffectCache() {
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN, ADDON), settings(ADDON, PLUGIN));
+
+        assertFalse(diff.affectsCache());
+        assertFalse(diff.validationRequired());
+    }
+
+    @Test
+    void addedAndRemovedArtifacts() {
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN), settings(ADDON));
+
+        assertEquals(List.of(ADDON), diff.added());
+        assertEquals(List.of(PLUGIN), diff.removed());
+        assertEquals(List.of(), diff.changedXPaths());
+        assertTrue(diff.affectsCache());
+        assertTrue(diff.validationRequired());
+    }
+
+    @Test
+    void changedSourceIsRemovedAndAdded() {
+        final Artifact moved = new Artifact("plugin", "snapshots", "org.example", "plugin", PLUGIN.versionXPath(), List.of());
+
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN), settings(moved));
+
+        assertEquals(List.of(moved), diff.added());
+        assertEquals(List.of(PLUGIN), diff.removed());
+        assertEquals(List.of(), diff.changedXPaths());
+    }
+
+    @Test
+    void changedExtractedValuesKeepTheSource() {
+        final Artifact changed = new Artifact("plugin", "releases", "org.example", "plugin",
+                List.of(new XPathEntry("api", "/project/properties/minecraft")),
+                List.of(new JarPathEntry("name", "plugin.yml", "name")));
+
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN, ADDON), settings(changed, ADDON));
+
+        assertEquals(List.of(), diff.added());
+        assertEquals(List.of(), diff.removed());
+        assertEquals(List.of(changed), diff.changedXPaths());
+        assertTrue(diff.affectsCache());
+    }
+
+    @Test
+    void validationOptionsOnlyRequireValidation() {
+        final PomMapperPluginSettings current = settings(PLUGIN);
+        current.validationLogLevel = ValidationLogLevel.values()[ValidationLogLevel.values().length - 1];
+        current.namingConventionWarning = false;
+
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN), current);
+
+        assertTrue(diff.validationRequired());
+        assertFalse(diff.affectsCache());
+    }
+
+    @Test
+    void effectiveValuesChangeExtraction() {
+        final PomMapperPluginSettings current = settings(PLUGIN);
+        current.effectiveValues = true;
+
+        final SettingsDiff diff = SettingsDiff.between(settings(PLUGIN), current);
+
+        assertTrue(diff.extractionChanged());
+        assertTrue(diff.affectsCache());
+        assertFalse(diff.validationRequired());
+    }
+}